@@ -0,0 +1,61 @@
+package com.revenat.game.gomoku.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.revenat.game.gomoku.domain.AIGameOpponent;
+import com.revenat.game.gomoku.domain.GameTable;
+import com.revenat.game.gomoku.domain.Mark;
+import com.revenat.game.gomoku.domain.Position;
+import com.revenat.game.gomoku.domain.impl.BitboardGameTable;
+import com.revenat.game.gomoku.domain.impl.DefaultGomokuAIGameOpponent;
+import com.revenat.game.gomoku.domain.impl.ImprovedGomokuAIGameOpponent;
+
+/**
+ * Benchmarks determining of the next turn position by the rule-based
+ * {@link AIGameOpponent} implementations.
+ *
+ * @author Vitaly Dragun
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AIGameOpponentBenchmark {
+
+	@Param({"DEFAULT", "IMPROVED"})
+	public String opponent;
+
+	@Param
+	public BoardFixture fixture;
+
+	private AIGameOpponent aiGameOpponent;
+
+	@Setup
+	public void setUp() {
+		GameTable gameTable = new BitboardGameTable();
+		fixture.fill(gameTable);
+		aiGameOpponent = "DEFAULT".equals(opponent)
+				? new DefaultGomokuAIGameOpponent(gameTable)
+				: new ImprovedGomokuAIGameOpponent(gameTable);
+	}
+
+	@Benchmark
+	public Position determineNextTurnPosition() {
+		return aiGameOpponent.determineNextTurnPositionFor(Mark.X);
+	}
+}
@@ -0,0 +1,102 @@
+package com.revenat.game.gomoku.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.revenat.game.gomoku.domain.GameEventListener;
+import com.revenat.game.gomoku.domain.Mark;
+import com.revenat.game.gomoku.domain.Position;
+import com.revenat.game.gomoku.infra.Announcer;
+import com.revenat.game.gomoku.infra.ConcurrentAnnouncer;
+
+/**
+ * Benchmarks announcing game event to listeners through dynamic proxy of the
+ * {@link Announcer} and with a lambda by the {@link ConcurrentAnnouncer}.
+ *
+ * @author Vitaly Dragun
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AnnouncerBenchmark {
+
+	@Param({ "1", "4" })
+	public int listenerCount;
+
+	private final Position position = Position.from(7, 7);
+	private Announcer<GameEventListener> announcer;
+	private ConcurrentAnnouncer<GameEventListener> concurrentAnnouncer;
+
+	@Setup
+	public void setUp(Blackhole blackhole) {
+		announcer = Announcer.to(GameEventListener.class);
+		concurrentAnnouncer = new ConcurrentAnnouncer<>();
+		for (int i = 0; i < listenerCount; i++) {
+			ConsumingListener listener = new ConsumingListener(blackhole);
+			announcer.addListener(listener);
+			concurrentAnnouncer.addListener(listener);
+		}
+	}
+
+	@Benchmark
+	public void reflectiveProxy() {
+		announcer.announce().turnIsMade(position, Mark.X);
+	}
+
+	@Benchmark
+	public void lambda() {
+		concurrentAnnouncer.announce(listener -> listener.turnIsMade(position, Mark.X));
+	}
+
+	/**
+	 * Listener which passes events to the black hole, so that they are not optimized away.
+	 */
+	private static final class ConsumingListener implements GameEventListener {
+		private final Blackhole blackhole;
+
+		ConsumingListener(Blackhole blackhole) {
+			this.blackhole = blackhole;
+		}
+
+		@Override
+		public void invalidTurnPosition(Position position) {
+			blackhole.consume(position);
+		}
+
+		@Override
+		public void turnIsMade(Position position, Mark mark) {
+			blackhole.consume(position);
+		}
+
+		@Override
+		public void turnIsUndone(Position position, Mark mark) {
+			blackhole.consume(position);
+		}
+
+		@Override
+		public void winnerIsFound(Mark winner, Position[] winningCombination) {
+			blackhole.consume(winningCombination);
+		}
+
+		@Override
+		public void draw() {
+			blackhole.consume(this);
+		}
+	}
+}
@@ -0,0 +1,63 @@
+package com.revenat.game.gomoku.benchmark;
+
+import java.util.SplittableRandom;
+
+import com.revenat.game.gomoku.domain.GameTable;
+import com.revenat.game.gomoku.domain.Mark;
+import com.revenat.game.gomoku.domain.Position;
+import com.revenat.game.gomoku.domain.impl.IncrementalGomokuGameArbiter;
+
+/**
+ * Game table states the benchmarks are run on. Tables are filled from a fixed seed,
+ * with marks of both players alternating, and never contain five in a row, so
+ * arbiters have to check the whole table and AI opponents have turns to make.
+ *
+ * @author Vitaly Dragun
+ *
+ */
+public enum BoardFixture {
+	EMPTY(0),
+	MID_GAME(40),
+	NEAR_FULL(200);
+
+	private static final long SEED = 0x2545F4914F6CDD1DL;
+
+	private final int markedCells;
+
+	private BoardFixture(int markedCells) {
+		this.markedCells = markedCells;
+	}
+
+	/**
+	 * Clears specified game table and marks its cells according to this fixture.
+	 */
+	public void fill(GameTable gameTable) {
+		gameTable.clear();
+		IncrementalGomokuGameArbiter arbiter = new IncrementalGomokuGameArbiter(gameTable);
+		SplittableRandom random = new SplittableRandom(SEED);
+		Mark mark = Mark.X;
+		int marked = 0;
+		while (marked < markedCells) {
+			Position position = nextPosition(random, marked);
+			if (!gameTable.isCellEmpty(position)) {
+				continue;
+			}
+			gameTable.markCellAt(position, mark);
+			if (arbiter.checkForGameOver(position).isWinner()) {
+				gameTable.markCellAt(position, Mark.EMPTY);
+				continue;
+			}
+			mark = mark.getOpponent();
+			marked++;
+		}
+	}
+
+	/**
+	 * Returns random position, keeping the first turns close to the table center
+	 * as it happens in the real games.
+	 */
+	private Position nextPosition(SplittableRandom random, int marked) {
+		int spread = Math.min(7, 2 + marked / 8);
+		return Position.from(7 + random.nextInt(-spread, spread + 1), 7 + random.nextInt(-spread, spread + 1));
+	}
+}
@@ -0,0 +1,67 @@
+package com.revenat.game.gomoku.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.revenat.game.gomoku.domain.GameArbiter;
+import com.revenat.game.gomoku.domain.GameArbiter.CheckResult;
+import com.revenat.game.gomoku.domain.GameTable;
+import com.revenat.game.gomoku.domain.impl.BitboardGameTable;
+import com.revenat.game.gomoku.domain.impl.DefaultGomokuGameArbiter;
+import com.revenat.game.gomoku.domain.impl.ImprovedGomokuGameArbiter;
+import com.revenat.game.gomoku.domain.impl.IncrementalGomokuGameArbiter;
+
+/**
+ * Benchmarks full table check of the {@link GameArbiter} implementations.
+ *
+ * @author Vitaly Dragun
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameArbiterBenchmark {
+
+	@Param({"DEFAULT", "IMPROVED", "INCREMENTAL"})
+	public String arbiter;
+
+	@Param
+	public BoardFixture fixture;
+
+	private GameArbiter gameArbiter;
+
+	@Setup
+	public void setUp() {
+		GameTable gameTable = new BitboardGameTable();
+		fixture.fill(gameTable);
+		switch (arbiter) {
+		case "DEFAULT":
+			gameArbiter = new DefaultGomokuGameArbiter(gameTable);
+			break;
+		case "IMPROVED":
+			gameArbiter = new ImprovedGomokuGameArbiter(gameTable);
+			break;
+		default:
+			gameArbiter = new IncrementalGomokuGameArbiter(gameTable);
+		}
+	}
+
+	@Benchmark
+	public CheckResult checkForGameOver() {
+		return gameArbiter.checkForGameOver();
+	}
+}
@@ -0,0 +1,219 @@
+package com.revenat.game.gomoku.benchmark;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import com.revenat.game.gomoku.domain.BoardGeometry;
+import com.revenat.game.gomoku.domain.GameEventListener;
+import com.revenat.game.gomoku.domain.Mark;
+import com.revenat.game.gomoku.domain.Position;
+import com.revenat.game.gomoku.domain.impl.AIOpponentGameMode;
+import com.revenat.game.gomoku.selfplay.SelfPlayRunner;
+import com.revenat.game.gomoku.server.GameServer;
+
+/**
+ * Load benchmark of the {@link GameServer}: many simulated players play against AI
+ * concurrently, each making a random turn as soon as AI replies and starting a new game
+ * when the game is over. Reports throughput of the turns and latency of the AI replies,
+ * then checks that the games left idle are evicted.
+ * <p>
+ * Usage: {@code java -cp target/benchmarks.jar com.revenat.game.gomoku.benchmark.GameServerLoadBenchmark
+ * [games] [seconds] [gameThreads] [aiThreads] [opponent]},
+ * where opponent is described the same way as for {@link SelfPlayRunner}.
+ *
+ * @author Vitaly Dragun
+ *
+ */
+public final class GameServerLoadBenchmark {
+	private static final int DEFAULT_GAMES = 2_000;
+	private static final int DEFAULT_SECONDS = 10;
+	private static final long AI_TURN_TIME_MILLIS = 1_000;
+	private static final long IDLE_TIMEOUT_MILLIS = 2_000;
+	private static final Mark HUMAN = AIOpponentGameMode.HUMAN_PLAYER;
+
+	private GameServerLoadBenchmark() {
+	}
+
+	public static void main(String[] args) throws InterruptedException {
+		int games = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_GAMES;
+		int seconds = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_SECONDS;
+		int processors = Runtime.getRuntime().availableProcessors();
+		int gameThreads = args.length > 2 ? Integer.parseInt(args[2]) : processors;
+		int aiThreads = args.length > 3 ? Integer.parseInt(args[3]) : processors;
+		String opponent = args.length > 4 ? args[4] : "IMPROVED";
+
+		ExecutorService gameExecutor = Executors.newFixedThreadPool(gameThreads);
+		ExecutorService aiExecutor = Executors.newFixedThreadPool(aiThreads);
+		GameServer server = new GameServer(gameExecutor, aiExecutor, SelfPlayRunner.opponentFactory(opponent),
+				AI_TURN_TIME_MILLIS, IDLE_TIMEOUT_MILLIS);
+		System.out.printf("Game server load: %d games against %s for %d s on %d game and %d AI thread(s)%n",
+				games, opponent, seconds, gameThreads, aiThreads);
+
+		try {
+			List<SimulatedPlayer> players = new ArrayList<>(games);
+			for (int i = 0; i < games; i++) {
+				SimulatedPlayer player = new SimulatedPlayer(server);
+				players.add(player);
+				player.start();
+			}
+			long startTime = System.nanoTime();
+			TimeUnit.SECONDS.sleep(seconds);
+			for (SimulatedPlayer player : players) {
+				player.stop();
+			}
+			long elapsedNanos = System.nanoTime() - startTime;
+			report(players, elapsedNanos);
+
+			TimeUnit.MILLISECONDS.sleep(IDLE_TIMEOUT_MILLIS * 2);
+			System.out.printf("Games hosted %d ms after players stopped: %d of %d%n",
+					IDLE_TIMEOUT_MILLIS * 2, server.getGameCount(), games);
+		} finally {
+			server.close();
+			gameExecutor.shutdownNow();
+			aiExecutor.shutdownNow();
+		}
+	}
+
+	private static void report(List<SimulatedPlayer> players, long elapsedNanos) {
+		long turns = 0;
+		long finishedGames = 0;
+		List<long[]> playerLatencies = new ArrayList<>(players.size());
+		for (SimulatedPlayer player : players) {
+			synchronized (player) {
+				turns += player.turns;
+				finishedGames += player.finishedGames;
+				playerLatencies.add(Arrays.copyOf(player.latencies, player.latencyCount));
+			}
+		}
+		long[] latencies = playerLatencies.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+		double seconds = elapsedNanos / 1e9;
+		System.out.printf("%12s %14s %12s %12s %12s %12s%n",
+				"turns/s", "games finished", "p50 ms", "p99 ms", "p99.9 ms", "max ms");
+		System.out.printf("%12.0f %14d %12.3f %12.3f %12.3f %12.3f%n", turns / seconds, finishedGames,
+				percentileMillis(latencies, 0.5), percentileMillis(latencies, 0.99),
+				percentileMillis(latencies, 0.999), percentileMillis(latencies, 1.0));
+	}
+
+	private static double percentileMillis(long[] sortedNanos, double percentile) {
+		if (sortedNanos.length == 0) {
+			return 0;
+		}
+		int index = (int) Math.min(sortedNanos.length - 1, Math.ceil(percentile * sortedNanos.length) - 1);
+		return sortedNanos[Math.max(0, index)] / 1e6;
+	}
+
+	/**
+	 * Player who makes random turns and measures time from its turn to the AI reply.
+	 * Events of its game arrive one at a time, but the check of the first turn of the
+	 * game arrives on another thread, so the state is guarded by the player's monitor.
+	 */
+	private static final class SimulatedPlayer implements GameEventListener {
+		private final GameServer server;
+		private final BoardGeometry geometry = BoardGeometry.STANDARD;
+		private final boolean[] occupied = new boolean[geometry.totalCells() + 1];
+		private long gameId;
+		private int markedCells;
+		private boolean running = true;
+		private long turnSentNanos;
+
+		private long turns;
+		private long finishedGames;
+		private long[] latencies = new long[64];
+		private int latencyCount;
+
+		SimulatedPlayer(GameServer server) {
+			this.server = server;
+		}
+
+		synchronized void start() {
+			gameId = server.createAIGame(this);
+			checkFirstTurn();
+		}
+
+		synchronized void stop() {
+			running = false;
+		}
+
+		/**
+		 * Makes the first turn of the game, unless AI makes it. If AI has made it
+		 * already, the player has replied to it on the turn event.
+		 */
+		private void checkFirstTurn() {
+			server.getCurrentPlayer(gameId).thenAccept(currentPlayer -> {
+				synchronized (this) {
+					if (currentPlayer == HUMAN && markedCells == 0) {
+						makeTurn();
+					}
+				}
+			});
+		}
+
+		private void makeTurn() {
+			if (!running || markedCells == occupied.length - 1) {
+				return;
+			}
+			int ordinal;
+			do {
+				ordinal = 1 + ThreadLocalRandom.current().nextInt(occupied.length - 1);
+			} while (occupied[ordinal]);
+			turnSentNanos = System.nanoTime();
+			server.makeTurn(gameId, geometry.position(ordinal));
+		}
+
+		@Override
+		public synchronized void invalidTurnPosition(Position position) {
+			makeTurn();
+		}
+
+		@Override
+		public synchronized void turnIsMade(Position position, Mark mark) {
+			occupied[position.ordinal()] = true;
+			markedCells++;
+			turns++;
+			if (mark != HUMAN) {
+				if (markedCells > 1) {
+					recordLatency(System.nanoTime() - turnSentNanos);
+				}
+				makeTurn();
+			}
+		}
+
+		private void recordLatency(long nanos) {
+			if (latencyCount == latencies.length) {
+				latencies = Arrays.copyOf(latencies, latencyCount * 2);
+			}
+			latencies[latencyCount++] = nanos;
+		}
+
+		@Override
+		public void turnIsUndone(Position position, Mark mark) {
+			throw new UnsupportedOperationException("Simulated player does not undo turns");
+		}
+
+		@Override
+		public synchronized void winnerIsFound(Mark winner, Position[] winningCombination) {
+			restart();
+		}
+
+		@Override
+		public synchronized void draw() {
+			restart();
+		}
+
+		private void restart() {
+			finishedGames++;
+			if (!running) {
+				return;
+			}
+			Arrays.fill(occupied, false);
+			markedCells = 0;
+			server.restartGame(gameId);
+			checkFirstTurn();
+		}
+	}
+}
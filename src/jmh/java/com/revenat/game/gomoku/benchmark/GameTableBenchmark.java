@@ -0,0 +1,129 @@
+package com.revenat.game.gomoku.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.revenat.game.gomoku.domain.GameTable;
+import com.revenat.game.gomoku.domain.Mark;
+import com.revenat.game.gomoku.domain.Position;
+import com.revenat.game.gomoku.domain.impl.BitboardGameTable;
+import com.revenat.game.gomoku.domain.impl.GomokuGameTable;
+
+/**
+ * Benchmarks basic operations of the {@link GameTable} implementations.
+ *
+ * @author Vitaly Dragun
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameTableBenchmark {
+	private static final Position[] ALL_POSITIONS = new Position[225];
+
+	static {
+		for (int ordinal = 1; ordinal <= ALL_POSITIONS.length; ordinal++) {
+			ALL_POSITIONS[ordinal - 1] = Position.from(ordinal);
+		}
+	}
+
+	@Param({"GOMOKU", "BITBOARD"})
+	public String table;
+
+	@Param
+	public BoardFixture fixture;
+
+	private GameTable gameTable;
+	private Position emptyPosition;
+
+	@Setup
+	public void setUp() {
+		gameTable = "BITBOARD".equals(table) ? new BitboardGameTable() : new GomokuGameTable();
+		fixture.fill(gameTable);
+		emptyPosition = Position.NOT_FOUND;
+		for (Position position : ALL_POSITIONS) {
+			if (gameTable.isCellEmpty(position)) {
+				emptyPosition = position;
+				break;
+			}
+		}
+	}
+
+	@Benchmark
+	public int isCellEmptyForAllCells() {
+		int empty = 0;
+		for (Position position : ALL_POSITIONS) {
+			if (gameTable.isCellEmpty(position)) {
+				empty++;
+			}
+		}
+		return empty;
+	}
+
+	@Benchmark
+	public int isCellEmptyByOrdinalForAllCells() {
+		int empty = 0;
+		for (int ordinal = 1; ordinal <= ALL_POSITIONS.length; ordinal++) {
+			if (gameTable.isCellEmpty(ordinal)) {
+				empty++;
+			}
+		}
+		return empty;
+	}
+
+	@Benchmark
+	public void getCellMarkForAllCells(Blackhole blackhole) {
+		for (Position position : ALL_POSITIONS) {
+			blackhole.consume(gameTable.getCellMark(position));
+		}
+	}
+
+	@Benchmark
+	public int getCellCodeForAllCells() {
+		int sum = 0;
+		for (int ordinal = 1; ordinal <= ALL_POSITIONS.length; ordinal++) {
+			sum += gameTable.getCellCode(ordinal);
+		}
+		return sum;
+	}
+
+	@Benchmark
+	public long markAndClearCell() {
+		gameTable.markCellAt(emptyPosition, Mark.X);
+		long key = gameTable.getZobristKey();
+		gameTable.markCellAt(emptyPosition, Mark.EMPTY);
+		return key;
+	}
+
+	@Benchmark
+	public long pushAndPopMove() {
+		gameTable.pushMove(emptyPosition.ordinal(), Mark.X);
+		long key = gameTable.getZobristKey();
+		gameTable.popMove();
+		return key;
+	}
+
+	@Benchmark
+	public int getAdjacentCellsForAllCells() {
+		int adjacent = 0;
+		for (Position position : ALL_POSITIONS) {
+			adjacent += gameTable.getAdjacentCellsPositionsFor(position).length;
+		}
+		return adjacent;
+	}
+}
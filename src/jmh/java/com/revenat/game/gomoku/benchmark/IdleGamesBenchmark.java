@@ -0,0 +1,200 @@
+package com.revenat.game.gomoku.benchmark;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import com.revenat.game.gomoku.domain.GameEventListener;
+import com.revenat.game.gomoku.domain.Mark;
+import com.revenat.game.gomoku.domain.Position;
+import com.revenat.game.gomoku.domain.impl.ImprovedGomokuAIGameOpponent;
+import com.revenat.game.gomoku.server.GameServer;
+import com.revenat.game.gomoku.server.GameThreads;
+
+/**
+ * Benchmark of the {@link GameServer#threadPerGame(java.util.concurrent.Executor, java.util.function.Function, long)
+ * thread per game} server hosting many idle games, whose threads block waiting for turns
+ * of remote players. Reports time to create the games, memory and platform threads they
+ * hold, and how many of them respond to a turn made in every game at once.
+ * <p>
+ * Games run on one of the executors:
+ * <ul>
+ * <li>{@code VIRTUAL}: virtual thread per game, requires Java 21 or later;</li>
+ * <li>{@code PLATFORM}: platform thread per game, limited by the threads the OS allows;</li>
+ * <li>{@code POOL:<threads>}: fixed pool of platform threads, which serves only as many
+ * games as it has threads, since every game holds its thread while it waits.</li>
+ * </ul>
+ * Run every executor in a separate JVM, e.g. with {@code -Xmx2g}.
+ * <p>
+ * Usage: {@code java -cp target/benchmarks.jar com.revenat.game.gomoku.benchmark.IdleGamesBenchmark
+ * [games] [executor]}
+ *
+ * @author Vitaly Dragun
+ *
+ */
+public final class IdleGamesBenchmark {
+	private static final int DEFAULT_GAMES = 100_000;
+	private static final long IDLE_TIMEOUT_MILLIS = TimeUnit.HOURS.toMillis(1);
+	private static final long RESPONSE_TIMEOUT_SECONDS = 30;
+	private static final GameEventListener IDLE_PLAYERS = new IdlePlayers();
+
+	private IdleGamesBenchmark() {
+	}
+
+	public static void main(String[] args) throws InterruptedException {
+		int games = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_GAMES;
+		String executorName = args.length > 1 ? args[1].toUpperCase() : "VIRTUAL";
+		if (executorName.equals("VIRTUAL") && !GameThreads.areVirtualThreadsAvailable()) {
+			System.out.printf("Virtual threads are not available on Java %s, run on Java 21 or later%n",
+					System.getProperty("java.version"));
+			return;
+		}
+		ExecutorService executor = gameLoopExecutor(executorName);
+		GameServer server = GameServer.threadPerGame(executor, ImprovedGomokuAIGameOpponent::new, IDLE_TIMEOUT_MILLIS);
+		System.out.printf("Idle games: %d games on %s executor, Java %s%n", games, executorName,
+				System.getProperty("java.version"));
+
+		try {
+			long heapBefore = usedHeap();
+			long[] gameIds = new long[games];
+			long startTime = System.nanoTime();
+			int created = 0;
+			try {
+				for (; created < games; created++) {
+					gameIds[created] = server.createPlayersGame(IDLE_PLAYERS);
+				}
+			} catch (OutOfMemoryError | RuntimeException e) {
+				System.out.printf("Game %d can not be created: %s%n", created + 1, e);
+			}
+			long createMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+			TimeUnit.SECONDS.sleep(1);
+			long heapPerGame = created == 0 ? 0 : (usedHeap() - heapBefore) / created;
+			int platformThreads = ManagementFactory.getThreadMXBean().getThreadCount();
+			String resident = residentMemory();
+
+			long[] responseNanos = makeTurnInEveryGame(server, Arrays.copyOf(gameIds, created));
+			int responded = (int) Arrays.stream(responseNanos).filter(nanos -> nanos > 0).count();
+			long[] sorted = Arrays.stream(responseNanos).filter(nanos -> nanos > 0).sorted().toArray();
+
+			System.out.printf("%10s %10s %12s %10s %12s %10s %10s %10s%n", "created", "create ms", "heap B/game",
+					"RSS", "OS threads", "responded", "p50 ms", "p99 ms");
+			System.out.printf("%10d %10d %12d %10s %12d %10d %10.1f %10.1f%n", created, createMillis, heapPerGame,
+					resident, platformThreads, responded, percentileMillis(sorted, 0.5),
+					percentileMillis(sorted, 0.99));
+		} finally {
+			server.close();
+			executor.shutdownNow();
+		}
+	}
+
+	private static ExecutorService gameLoopExecutor(String name) {
+		if (name.equals("VIRTUAL")) {
+			return GameThreads.newVirtualThreadPerTaskExecutor();
+		}
+		if (name.equals("PLATFORM")) {
+			return GameThreads.newPlatformThreadPerTaskExecutor();
+		}
+		if (name.startsWith("POOL:")) {
+			return Executors.newFixedThreadPool(Integer.parseInt(name.substring("POOL:".length())));
+		}
+		throw new IllegalArgumentException("Unknown executor: " + name);
+	}
+
+	/**
+	 * Makes a turn in every game at once and waits for the games to respond.
+	 *
+	 * @return response time of every game, {@code 0} for games which have not responded in time
+	 */
+	private static long[] makeTurnInEveryGame(GameServer server, long[] gameIds) throws InterruptedException {
+		AtomicLongArray responseNanos = new AtomicLongArray(gameIds.length);
+		CountDownLatch responses = new CountDownLatch(gameIds.length);
+		Position center = Position.from(7, 7);
+		for (int i = 0; i < gameIds.length; i++) {
+			int game = i;
+			long sentNanos = System.nanoTime();
+			CompletableFuture<Void> turn = server.makeTurn(gameIds[i], center);
+			turn.thenRun(() -> {
+				responseNanos.set(game, System.nanoTime() - sentNanos);
+				responses.countDown();
+			});
+		}
+		if (!responses.await(RESPONSE_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+			System.out.printf("%d game(s) have not responded in %d s%n", responses.getCount(),
+					RESPONSE_TIMEOUT_SECONDS);
+		}
+		long[] result = new long[gameIds.length];
+		for (int i = 0; i < result.length; i++) {
+			result[i] = responseNanos.get(i);
+		}
+		return result;
+	}
+
+	private static long usedHeap() {
+		Runtime runtime = Runtime.getRuntime();
+		System.gc();
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+
+	/**
+	 * Returns resident memory of the process, which includes stacks of the platform
+	 * threads, or {@code n/a} if it is not known.
+	 */
+	private static String residentMemory() {
+		try {
+			return Files.readAllLines(Paths.get("/proc/self/status")).stream()
+					.filter(line -> line.startsWith("VmRSS:"))
+					.map(line -> line.substring("VmRSS:".length()).trim())
+					.findFirst()
+					.orElse("n/a");
+		} catch (IOException e) {
+			return "n/a";
+		}
+	}
+
+	private static double percentileMillis(long[] sortedNanos, double percentile) {
+		if (sortedNanos.length == 0) {
+			return 0;
+		}
+		int index = (int) Math.min(sortedNanos.length - 1, Math.ceil(percentile * sortedNanos.length) - 1);
+		return sortedNanos[Math.max(0, index)] / 1e6;
+	}
+
+	/**
+	 * Players who never make turns on their own, so games stay idle.
+	 */
+	private static final class IdlePlayers implements GameEventListener {
+
+		@Override
+		public void invalidTurnPosition(Position position) {
+			// game is idle
+		}
+
+		@Override
+		public void turnIsMade(Position position, Mark mark) {
+			// game is idle
+		}
+
+		@Override
+		public void turnIsUndone(Position position, Mark mark) {
+			// game is idle
+		}
+
+		@Override
+		public void winnerIsFound(Mark winner, Position[] winningCombination) {
+			// game is idle
+		}
+
+		@Override
+		public void draw() {
+			// game is idle
+		}
+	}
+}
@@ -0,0 +1,75 @@
+package com.revenat.game.gomoku.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.revenat.game.gomoku.domain.GameTable;
+import com.revenat.game.gomoku.domain.Mark;
+import com.revenat.game.gomoku.domain.impl.BitboardGameTable;
+import com.revenat.game.gomoku.domain.impl.PatternEvaluator;
+
+/**
+ * Benchmarks incremental updates and evaluation of the {@link PatternEvaluator}.
+ *
+ * @author Vitaly Dragun
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PatternEvaluatorBenchmark {
+
+	@Param
+	public BoardFixture fixture;
+
+	private GameTable gameTable;
+	private PatternEvaluator evaluator;
+	private int emptyOrdinal;
+
+	@Setup
+	public void setUp() {
+		gameTable = new BitboardGameTable();
+		fixture.fill(gameTable);
+		evaluator = new PatternEvaluator(gameTable.getGeometry());
+		evaluator.copyGameTable(gameTable);
+		for (int ordinal = 1; ordinal <= gameTable.getTotalCells(); ordinal++) {
+			if (gameTable.isCellEmpty(ordinal)) {
+				emptyOrdinal = ordinal;
+				break;
+			}
+		}
+	}
+
+	@Benchmark
+	public int evaluate() {
+		return evaluator.evaluate(Mark.X);
+	}
+
+	@Benchmark
+	public int makeAndUndoTurn() {
+		evaluator.makeTurn(emptyOrdinal, Mark.X);
+		int score = evaluator.evaluate(Mark.O);
+		evaluator.undoTurn(emptyOrdinal, Mark.X);
+		return score;
+	}
+
+	@Benchmark
+	public int copyGameTable() {
+		evaluator.copyGameTable(gameTable);
+		return evaluator.evaluate(Mark.X);
+	}
+}
@@ -0,0 +1,107 @@
+package com.revenat.game.gomoku.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.revenat.game.gomoku.domain.GameTable;
+import com.revenat.game.gomoku.domain.Mark;
+import com.revenat.game.gomoku.domain.Position;
+import com.revenat.game.gomoku.domain.impl.BitboardGameTable;
+import com.revenat.game.gomoku.domain.impl.SearchGomokuAIGameOpponent;
+import com.revenat.game.gomoku.domain.impl.SearchStatistics;
+import com.revenat.game.gomoku.domain.impl.TranspositionTable;
+
+/**
+ * Benchmarks how the {@link SearchGomokuAIGameOpponent} scales with number of search
+ * threads: searches of a mid-game position to a fixed depth per second, with a fresh
+ * transposition table for every search. Nodes searched per second are reported as
+ * a secondary {@code nodes} result.
+ * <p>
+ * Speedup of more threads is the ratio of the searches per second, i.e. of the times
+ * to depth, which are measured after warm-up, so the first thread count is not measured
+ * on cold code. It is only meaningful with as many processors as threads, e.g.
+ * {@code -p threads=1,2,4} on 4 cores.
+ *
+ * @author Vitaly Dragun
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SearchScalingBenchmark {
+	private static final long MOVE_TIME_MILLIS = TimeUnit.MINUTES.toMillis(1);
+	private static final int TRANSPOSITION_TABLE_MEGABYTES = 16;
+
+	/**
+	 * Mid-game positions to search, as sequences of turns (row, column) starting with {@code X}.
+	 */
+	private static final int[][] FIXTURES = {
+			{7, 7, 7, 8, 8, 8, 6, 6, 8, 6, 8, 7, 9, 7, 6, 8},
+			{7, 7, 8, 8, 6, 8, 8, 6, 7, 9, 7, 6, 5, 9, 9, 7, 6, 7, 8, 7},
+			{7, 7, 6, 7, 8, 6, 6, 8, 6, 6, 9, 5, 8, 8, 8, 7, 7, 8, 9, 9, 5, 7, 4, 7},
+	};
+
+	@Param({"1", "2"})
+	public int threads;
+
+	@Param({"0", "1", "2"})
+	public int fixture;
+
+	@Param({"6"})
+	public int depth;
+
+	private SearchGomokuAIGameOpponent opponent;
+	private Mark player;
+
+	/**
+	 * Nodes searched, reported per second next to the searches per second.
+	 */
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.OPERATIONS)
+	public static class Nodes {
+		public long nodes;
+	}
+
+	@Setup(Level.Invocation)
+	public void setUp() {
+		GameTable gameTable = new BitboardGameTable();
+		player = Mark.X;
+		int[] turns = FIXTURES[fixture];
+		for (int i = 0; i < turns.length; i += 2) {
+			gameTable.markCellAt(Position.from(turns[i], turns[i + 1]), player);
+			player = player.getOpponent();
+		}
+		opponent = new SearchGomokuAIGameOpponent(gameTable, MOVE_TIME_MILLIS, depth,
+				new TranspositionTable(TRANSPOSITION_TABLE_MEGABYTES), threads);
+	}
+
+	@TearDown(Level.Invocation)
+	public void tearDown() {
+		opponent.shutdown();
+	}
+
+	@Benchmark
+	public Position searchToDepth(Nodes nodes) {
+		Position position = opponent.determineNextTurnPositionFor(player);
+		SearchStatistics statistics = opponent.getLastSearchStatistics();
+		nodes.nodes += statistics.nodes();
+		return position;
+	}
+}
@@ -0,0 +1,210 @@
+package com.revenat.game.gomoku.benchmark;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import com.revenat.game.gomoku.domain.BoardGeometry;
+import com.revenat.game.gomoku.domain.GameEventListener;
+import com.revenat.game.gomoku.domain.GameSession;
+import com.revenat.game.gomoku.domain.GameTable;
+import com.revenat.game.gomoku.domain.Mark;
+import com.revenat.game.gomoku.domain.Position;
+import com.revenat.game.gomoku.domain.impl.AsyncGameEventDispatcher;
+import com.revenat.game.gomoku.domain.impl.AsyncGameEventDispatcher.OverflowPolicy;
+import com.revenat.game.gomoku.domain.impl.BitboardGameTable;
+import com.revenat.game.gomoku.domain.impl.GomokuGameSession;
+import com.revenat.game.gomoku.domain.impl.IncrementalGomokuGameArbiter;
+
+/**
+ * Benchmark of the game session with a slow listener, notified directly or through
+ * {@link AsyncGameEventDispatcher} with every {@link OverflowPolicy} but
+ * {@link OverflowPolicy#FAIL FAIL}. Two players make random turns as fast as the
+ * session processes them. Reports time to process a turn, events received by the
+ * listener and dropped by the dispatcher, and checks that events are received in order.
+ * <p>
+ * Usage: {@code java -cp target/benchmarks.jar com.revenat.game.gomoku.benchmark.SlowListenerBenchmark
+ * [turns] [listenerDelayMicros] [capacity]}
+ *
+ * @author Vitaly Dragun
+ *
+ */
+public final class SlowListenerBenchmark {
+	private static final int DEFAULT_TURNS = 5_000;
+	private static final int DEFAULT_LISTENER_DELAY_MICROS = 200;
+	private static final int DEFAULT_CAPACITY = 1024;
+
+	private SlowListenerBenchmark() {
+	}
+
+	public static void main(String[] args) throws InterruptedException, ExecutionException {
+		int turns = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_TURNS;
+		int delayMicros = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_LISTENER_DELAY_MICROS;
+		int capacity = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_CAPACITY;
+		System.out.printf("Slow listener: %d turns, listener takes %d us per event, buffer of %d events%n",
+				turns, delayMicros, capacity);
+		System.out.printf("%-14s %10s %10s %10s %10s %10s %10s%n", "dispatch", "turns/s", "p50 us", "p99 us",
+				"max us", "received", "dropped");
+
+		ExecutorService listenerExecutor = Executors.newSingleThreadExecutor();
+		try {
+			run("direct", turns, delayMicros, null, listenerExecutor, capacity);
+			for (OverflowPolicy policy : Arrays.asList(OverflowPolicy.BLOCK, OverflowPolicy.DROP_NEWEST,
+					OverflowPolicy.DROP_OLDEST)) {
+				run(policy.name(), turns, delayMicros, policy, listenerExecutor, capacity);
+			}
+		} finally {
+			listenerExecutor.shutdownNow();
+		}
+	}
+
+	private static void run(String name, int turns, int delayMicros, OverflowPolicy policy,
+			ExecutorService listenerExecutor, int capacity) throws InterruptedException, ExecutionException {
+		GameTable table = new BitboardGameTable();
+		GameSession session = new GomokuGameSession(table, new IncrementalGomokuGameArbiter(table));
+		SlowListener listener = new SlowListener(TimeUnit.MICROSECONDS.toNanos(delayMicros));
+		AsyncGameEventDispatcher dispatcher = null;
+		if (policy == null) {
+			session.addListener(listener);
+		} else {
+			dispatcher = new AsyncGameEventDispatcher(listener, listenerExecutor, capacity, policy);
+			session.addListener(dispatcher);
+		}
+		SequenceRecorder sequence = new SequenceRecorder();
+		session.addListener(sequence);
+
+		long[] turnNanos = new long[turns];
+		long startTime = System.nanoTime();
+		playRandomTurns(session, table, sequence, turnNanos);
+		long elapsedNanos = System.nanoTime() - startTime;
+		while (dispatcher != null && dispatcher.getPendingEventCount() > 0) {
+			TimeUnit.MILLISECONDS.sleep(10);
+		}
+		// the last batch is taken out of the buffer, wait until it is delivered
+		listenerExecutor.submit(() -> {
+		}).get();
+
+		Arrays.sort(turnNanos);
+		long dropped = dispatcher == null ? 0 : dispatcher.getDroppedEventCount();
+		System.out.printf("%-14s %10.0f %10.1f %10.1f %10.1f %10d %10d%n", name, turns / (elapsedNanos / 1e9),
+				percentileMicros(turnNanos, 0.5), percentileMicros(turnNanos, 0.99),
+				percentileMicros(turnNanos, 1.0), listener.received.size(), dropped);
+		if (!sequence.isSubsequence(listener.received, dropped == 0)) {
+			System.out.printf("%s: listener has received events out of order%n", name);
+		}
+	}
+
+	private static void playRandomTurns(GameSession session, GameTable table, SequenceRecorder sequence,
+			long[] turnNanos) {
+		BoardGeometry geometry = table.getGeometry();
+		session.startNewGame();
+		for (int turn = 0; turn < turnNanos.length; turn++) {
+			int ordinal;
+			do {
+				ordinal = 1 + ThreadLocalRandom.current().nextInt(geometry.totalCells());
+			} while (!table.isCellEmpty(ordinal));
+			long start = System.nanoTime();
+			session.processPlayerTurn(geometry.position(ordinal));
+			turnNanos[turn] = System.nanoTime() - start;
+			if (sequence.gameOver) {
+				sequence.gameOver = false;
+				session.startNewGame();
+			}
+		}
+	}
+
+	private static double percentileMicros(long[] sortedNanos, double percentile) {
+		if (sortedNanos.length == 0) {
+			return 0;
+		}
+		int index = (int) Math.min(sortedNanos.length - 1, Math.ceil(percentile * sortedNanos.length) - 1);
+		return sortedNanos[Math.max(0, index)] / 1e3;
+	}
+
+	/**
+	 * Listener which spends the specified time on every event and records events it receives.
+	 */
+	private static class SlowListener extends SequenceRecorder {
+		private final long delayNanos;
+
+		SlowListener(long delayNanos) {
+			this.delayNanos = delayNanos;
+		}
+
+		@Override
+		void record(String event) {
+			long deadline = System.nanoTime() + delayNanos;
+			while (System.nanoTime() < deadline) {
+				LockSupport.parkNanos(deadline - System.nanoTime());
+			}
+			super.record(event);
+		}
+	}
+
+	/**
+	 * Listener which records events it receives.
+	 */
+	private static class SequenceRecorder implements GameEventListener {
+		final List<String> received = new ArrayList<>();
+		boolean gameOver;
+
+		void record(String event) {
+			received.add(event);
+		}
+
+		/**
+		 * Checks that the other sequence has the events of this one in the same order,
+		 * with some of them missing unless it should be complete. Events of different
+		 * games look the same, so missing events are only checked not to be reordered
+		 * within the limits of what can be told apart.
+		 */
+		boolean isSubsequence(List<String> other, boolean complete) {
+			if (complete) {
+				return received.equals(other);
+			}
+			int index = 0;
+			for (String event : other) {
+				while (index < received.size() && !received.get(index).equals(event)) {
+					index++;
+				}
+				if (index++ == received.size()) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		@Override
+		public void invalidTurnPosition(Position position) {
+			record("invalid " + position.ordinal());
+		}
+
+		@Override
+		public void turnIsMade(Position position, Mark mark) {
+			record("turn " + mark + position.ordinal());
+		}
+
+		@Override
+		public void turnIsUndone(Position position, Mark mark) {
+			record("undone " + mark + position.ordinal());
+		}
+
+		@Override
+		public void winnerIsFound(Mark winner, Position[] winningCombination) {
+			gameOver = true;
+			record("winner " + winner);
+		}
+
+		@Override
+		public void draw() {
+			gameOver = true;
+			record("draw");
+		}
+	}
+}
@@ -1,5 +1,14 @@
 package com.revenat.game.gomoku;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import javax.swing.SwingUtilities;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -10,11 +19,17 @@ import com.revenat.game.gomoku.domain.GameMode;
 import com.revenat.game.gomoku.domain.GameSession;
 import com.revenat.game.gomoku.domain.GameTable;
 import com.revenat.game.gomoku.domain.impl.AIOpponentGameMode;
+import com.revenat.game.gomoku.domain.impl.AsyncGameEventDispatcher;
+import com.revenat.game.gomoku.domain.impl.AsyncGameEventDispatcher.OverflowPolicy;
+import com.revenat.game.gomoku.domain.impl.BitboardGameTable;
 import com.revenat.game.gomoku.domain.impl.GomokuGameSession;
-import com.revenat.game.gomoku.domain.impl.GomokuGameTable;
-import com.revenat.game.gomoku.domain.impl.ImprovedGomokuAIGameOpponent;
-import com.revenat.game.gomoku.domain.impl.ImprovedGomokuGameArbiter;
+import com.revenat.game.gomoku.domain.impl.IncrementalGomokuGameArbiter;
+import com.revenat.game.gomoku.domain.impl.OpeningBook;
+import com.revenat.game.gomoku.domain.impl.OpeningBookAIGameOpponent;
 import com.revenat.game.gomoku.domain.impl.PlayerOpponentGameMode;
+import com.revenat.game.gomoku.domain.impl.PonderingGameEventListener;
+import com.revenat.game.gomoku.domain.impl.SearchGomokuAIGameOpponent;
+import com.revenat.game.gomoku.selfplay.OpeningBookBuilder;
 import com.revenat.game.gomoku.ui.GameWindow;
 import com.revenat.game.gomoku.ui.UserDialogProvider;
 import com.revenat.game.gomoku.ui.impl.SwingGameWindow;
@@ -35,6 +50,24 @@ public class Main {
 	private static final String GAME_MODE_TITLE = "Game mode selection";
 	private static final String MODE_AGAINST_PLAYER = "Play against another player";
 	private static final String MODE_AGAINST_COMPUTER = "Play against computer";
+	/**
+	 * Opening book used by AI opponent if present, see {@link OpeningBookBuilder}
+	 */
+	private static final Path OPENING_BOOK_FILE = Paths.get("gomoku-opening.book");
+	/**
+	 * Maximum number of game events waiting for UI, which handles them in a moment
+	 * unless it shows a dialog, so the limit is never reached in a normal game
+	 */
+	private static final int UI_EVENT_BUFFER_CAPACITY = 1024;
+	
+	/**
+	 * AI opponent thinks on this thread, so that UI stays responsive
+	 */
+	private final ExecutorService aiExecutor = Executors.newSingleThreadExecutor(runnable -> {
+		Thread thread = new Thread(runnable, "gomoku-ai-opponent");
+		thread.setDaemon(true);
+		return thread;
+	});
 	
 	private GameSession gameSession;
 	private GameTable gameTable;
@@ -44,9 +77,11 @@ public class Main {
 	}
 	
 	private GameSession buildGameSession() {
-		gameTable = new GomokuGameTable();
+//		gameTable = new GomokuGameTable();
+		gameTable = new BitboardGameTable();
 //		GameArbiter arbiter = new DefaultGomokuGameArbiter(gameTable);
-		GameArbiter arbiter = new ImprovedGomokuGameArbiter(gameTable);
+//		GameArbiter arbiter = new ImprovedGomokuGameArbiter(gameTable);
+		GameArbiter arbiter = new IncrementalGomokuGameArbiter(gameTable);
 		return new GomokuGameSession(gameTable, arbiter);
 	}
 	
@@ -62,10 +97,12 @@ public class Main {
 	
 	public void startGame(GameMode gameMode) {
 		gameSession.setGameMode(gameMode);
-		GameWindow window = new SwingGameWindow(gameSession);
+		GameWindow window = new SwingGameWindow(gameSession, gameTable.getGeometry());
 		UserDialogProvider dialogProvider = new SwingUserDialogProvider();
 		GameEventListener gameListener = new UIGameEventListener(window, dialogProvider);
-		gameSession.addListener(gameListener);
+		// turns are processed on the event dispatch thread, which would wait for itself with BLOCK
+		gameSession.addListener(new AsyncGameEventDispatcher(gameListener, SwingUtilities::invokeLater,
+				UI_EVENT_BUFFER_CAPACITY, OverflowPolicy.FAIL));
 		window.startNewGame();
 	}
 
@@ -74,12 +111,22 @@ public class Main {
 	}
 	
 	private GameMode againstAI() {
-		return new AIOpponentGameMode(gameSession, getAIOpponent());
+		return new AIOpponentGameMode(gameSession, getAIOpponent(), aiExecutor, SwingUtilities::invokeLater);
 	}
 	
 	private AIGameOpponent getAIOpponent() {
-//		return new DefaultGomokuAIGameOpponent(gameTable);
-		return new ImprovedGomokuAIGameOpponent(gameTable);
+//		AIGameOpponent opponent = new DefaultGomokuAIGameOpponent(gameTable);
+//		AIGameOpponent opponent = new ImprovedGomokuAIGameOpponent(gameTable);
+		SearchGomokuAIGameOpponent opponent = new SearchGomokuAIGameOpponent(gameTable);
+		gameSession.addListener(new PonderingGameEventListener(opponent, AIOpponentGameMode.AI_PLAYER));
+		if (Files.isReadable(OPENING_BOOK_FILE)) {
+			try {
+				return new OpeningBookAIGameOpponent(gameTable, OpeningBook.open(OPENING_BOOK_FILE), opponent);
+			} catch (IOException | IllegalArgumentException e) {
+				LOG.warn("Can not use opening book " + OPENING_BOOK_FILE, e);
+			}
+		}
+		return opponent;
 	}
 
 	public static void main(String[] args) {
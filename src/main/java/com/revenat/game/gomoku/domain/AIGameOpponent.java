@@ -1,9 +1,17 @@
 package com.revenat.game.gomoku.domain;
 
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
 /**
- * Represent a role responsible for determining next turn position 
+ * Represent a role responsible for determining next turn position
  * on a {@link GameTable} for an AI player.
- * 
+ * <p>
+ * Determining turn position may be bounded by a deadline and cancelled with
+ * a {@link CancellationToken}, as well as performed asynchronously, so that callers
+ * such as UI thread or game server do not have to wait for a slow opponent.
+ *
  * @author Vitaly Dragun
  *
  */
@@ -14,4 +22,37 @@ public interface AIGameOpponent {
 	 * player designated with specified {@link Mark}
 	 */
 	Position determineNextTurnPositionFor(final Mark playerMark);
+
+	/**
+	 * Determines best possible next turn {@link Position} for player designated
+	 * with specified {@link Mark}, returning the best position found so far when the
+	 * deadline is passed. Opponents which can not be interrupted ignore the deadline
+	 * and only check the token before they start, which is the default behavior.
+	 *
+	 * @param deadline value of the {@link System#nanoTime()} by which position
+	 *                 should be determined
+	 * @param token    token which cancels determining of the position
+	 * @throws CancellationException if the token is cancelled before position is determined
+	 */
+	default Position determineNextTurnPositionFor(final Mark playerMark, long deadline, CancellationToken token) {
+		token.throwIfCancelled();
+		return determineNextTurnPositionFor(playerMark);
+	}
+
+	/**
+	 * Determines next turn position {@link #determineNextTurnPositionFor(Mark, long, CancellationToken)
+	 * bounded by the deadline} on the specified executor. Cancelling returned future
+	 * cancels the token as well, so that opponent stops as soon as it checks the token.
+	 */
+	default CompletableFuture<Position> determineNextTurnPositionAsync(final Mark playerMark, long deadline,
+			CancellationToken token, Executor executor) {
+		CompletableFuture<Position> future = CompletableFuture.supplyAsync(
+				() -> determineNextTurnPositionFor(playerMark, deadline, token), executor);
+		future.whenComplete((position, failure) -> {
+			if (future.isCancelled()) {
+				token.cancel();
+			}
+		});
+		return future;
+	}
 }
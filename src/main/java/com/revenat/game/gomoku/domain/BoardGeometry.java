@@ -0,0 +1,132 @@
+package com.revenat.game.gomoku.domain;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Describes geometry of the {@link GameTable}: number of rows and columns and
+ * how many cells in a row should be marked by the same player to win.
+ * <p>
+ * Geometries are interned, so they can be compared by reference, and every geometry
+ * interns its own {@link Position}s: positions of different geometries are never the
+ * same instance even for the same coordinates, as their ordinals may differ.
+ * Standard Gomoku geometry is 15x15 table with five in a row to win.
+ *
+ * @author Vitaly Dragun
+ *
+ */
+public final class BoardGeometry {
+	/**
+	 * Maximum number of rows and columns of the game table
+	 */
+	public static final int MAX_SIDE = 64;
+	/**
+	 * Maximum number of cells of the game table
+	 */
+	public static final int MAX_TOTAL_CELLS = MAX_SIDE * MAX_SIDE;
+
+	private static final ConcurrentMap<Integer, BoardGeometry> GEOMETRIES = new ConcurrentHashMap<>();
+
+	/**
+	 * Standard Gomoku geometry: 15x15 table, five in a row to win
+	 */
+	public static final BoardGeometry STANDARD = of(15, 15, 5);
+
+	private final int rows;
+	private final int columns;
+	private final int winLength;
+	private final Position[] positions;
+
+	private BoardGeometry(int rows, int columns, int winLength) {
+		this.rows = rows;
+		this.columns = columns;
+		this.winLength = winLength;
+		this.positions = new Position[rows * columns + 1];
+		for (int ordinal = 1; ordinal < positions.length; ordinal++) {
+			positions[ordinal] = new Position((ordinal - 1) / columns, (ordinal - 1) % columns, ordinal);
+		}
+	}
+
+	/**
+	 * Returns geometry with specified number of rows and columns and length of the winning line.
+	 */
+	public static BoardGeometry of(int rows, int columns, int winLength) {
+		if (rows <= 0 || rows > MAX_SIDE || columns <= 0 || columns > MAX_SIDE) {
+			throw new IllegalArgumentException("Table size should be from 1x1 to " + MAX_SIDE + "x" + MAX_SIDE
+					+ ": " + rows + "x" + columns);
+		}
+		if (winLength <= 0 || winLength > Math.min(rows, columns)) {
+			throw new IllegalArgumentException("Win length should be from 1 to " + Math.min(rows, columns)
+					+ ": " + winLength);
+		}
+		int key = (rows << 16) | (columns << 8) | winLength;
+		return GEOMETRIES.computeIfAbsent(key, k -> new BoardGeometry(rows, columns, winLength));
+	}
+
+	public int rows() {
+		return rows;
+	}
+
+	public int columns() {
+		return columns;
+	}
+
+	/**
+	 * Returns how many cells in a row should be marked by the same player to win.
+	 */
+	public int winLength() {
+		return winLength;
+	}
+
+	public int totalCells() {
+		return positions.length - 1;
+	}
+
+	/**
+	 * Checks whether specified zero-based row and column are within the table bounds.
+	 */
+	public boolean contains(int row, int column) {
+		return row >= 0 && row < rows && column >= 0 && column < columns;
+	}
+
+	/**
+	 * Checks whether specified ordinal is within the table bounds.
+	 */
+	public boolean contains(int ordinal) {
+		return ordinal >= 1 && ordinal < positions.length;
+	}
+
+	/**
+	 * Returns position for specified zero-based row and column,
+	 * or {@link Position#NOT_FOUND} if they are out of the table bounds.
+	 */
+	public Position position(int row, int column) {
+		if (!contains(row, column)) {
+			return Position.NOT_FOUND;
+		}
+		return positions[row * columns + column + 1];
+	}
+
+	/**
+	 * Returns position for specified ordinal,
+	 * or {@link Position#NOT_FOUND} if it is out of the table bounds.
+	 */
+	public Position position(int ordinal) {
+		if (!contains(ordinal)) {
+			return Position.NOT_FOUND;
+		}
+		return positions[ordinal];
+	}
+
+	/**
+	 * Returns position of the central cell of the table.
+	 */
+	public Position center() {
+		return position(rows / 2, columns / 2);
+	}
+
+	@Override
+	public String toString() {
+		return rows + "x" + columns + ", " + winLength + " in a row";
+	}
+}
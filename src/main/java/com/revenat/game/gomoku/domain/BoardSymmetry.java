@@ -0,0 +1,133 @@
+package com.revenat.game.gomoku.domain;
+
+import java.util.Arrays;
+
+/**
+ * Represents one of the eight symmetries (rotations and reflections) of the
+ * {@link GameTable} which map game positions onto equivalent ones.
+ * <p>
+ * Symmetries which swap rows with columns are applicable only to square
+ * tables, so rectangular tables have four symmetries instead of eight.
+ *
+ * @author Vitaly Dragun
+ *
+ */
+public enum BoardSymmetry {
+	IDENTITY(false),
+	/**
+	 * Rotation by 90 degrees clockwise
+	 */
+	ROTATE_90(true),
+	ROTATE_180(false),
+	/**
+	 * Rotation by 270 degrees clockwise
+	 */
+	ROTATE_270(true),
+	/**
+	 * Reflection which swaps left and right sides of the table
+	 */
+	FLIP_HORIZONTAL(false),
+	/**
+	 * Reflection which swaps top and bottom sides of the table
+	 */
+	FLIP_VERTICAL(false),
+	/**
+	 * Reflection in the main diagonal, from upper left to bottom right corner
+	 */
+	TRANSPOSE(true),
+	/**
+	 * Reflection in the secondary diagonal, from upper right to bottom left corner
+	 */
+	ANTI_TRANSPOSE(true);
+
+	private static final BoardSymmetry[] ALL = values();
+	private static final BoardSymmetry[] NOT_SWAPPING_AXES = Arrays.stream(ALL)
+			.filter(symmetry -> !symmetry.swapsAxes)
+			.toArray(BoardSymmetry[]::new);
+
+	private final boolean swapsAxes;
+
+	BoardSymmetry(boolean swapsAxes) {
+		this.swapsAxes = swapsAxes;
+	}
+
+	/**
+	 * Returns all symmetries applicable to the table of specified geometry,
+	 * starting with {@link #IDENTITY}. Returned array is shared and must not be modified.
+	 */
+	public static BoardSymmetry[] applicableTo(BoardGeometry geometry) {
+		return geometry.rows() == geometry.columns() ? ALL : NOT_SWAPPING_AXES;
+	}
+
+	/**
+	 * Checks whether this symmetry maps table of specified geometry onto itself.
+	 */
+	public boolean isApplicableTo(BoardGeometry geometry) {
+		return !swapsAxes || geometry.rows() == geometry.columns();
+	}
+
+	/**
+	 * Returns symmetry which maps positions back, so that
+	 * {@code inverse().apply(apply(position)) == position}.
+	 */
+	public BoardSymmetry inverse() {
+		if (this == ROTATE_90) {
+			return ROTATE_270;
+		}
+		if (this == ROTATE_270) {
+			return ROTATE_90;
+		}
+		return this;
+	}
+
+	/**
+	 * Returns position the specified one is mapped to by this symmetry.
+	 *
+	 * @throws IllegalArgumentException if this symmetry is not applicable to the geometry
+	 */
+	public Position apply(BoardGeometry geometry, Position position) {
+		if (!position.isValid()) {
+			return position;
+		}
+		return geometry.position(apply(geometry, position.ordinal()));
+	}
+
+	/**
+	 * Returns ordinal of the cell the cell with specified ordinal is mapped to
+	 * by this symmetry.
+	 *
+	 * @throws IllegalArgumentException if this symmetry is not applicable to the geometry
+	 */
+	public int apply(BoardGeometry geometry, int ordinal) {
+		if (!isApplicableTo(geometry)) {
+			throw new IllegalArgumentException(this + " is not applicable to table " + geometry);
+		}
+		int columns = geometry.columns();
+		int row = (ordinal - 1) / columns;
+		int column = (ordinal - 1) % columns;
+		int lastRow = geometry.rows() - 1;
+		int lastColumn = columns - 1;
+		switch (this) {
+		case ROTATE_90:
+			return ordinalOf(column, lastRow - row, columns);
+		case ROTATE_180:
+			return ordinalOf(lastRow - row, lastColumn - column, columns);
+		case ROTATE_270:
+			return ordinalOf(lastColumn - column, row, columns);
+		case FLIP_HORIZONTAL:
+			return ordinalOf(row, lastColumn - column, columns);
+		case FLIP_VERTICAL:
+			return ordinalOf(lastRow - row, column, columns);
+		case TRANSPOSE:
+			return ordinalOf(column, row, columns);
+		case ANTI_TRANSPOSE:
+			return ordinalOf(lastColumn - column, lastRow - row, columns);
+		default:
+			return ordinal;
+		}
+	}
+
+	private static int ordinalOf(int row, int column, int columns) {
+		return row * columns + column + 1;
+	}
+}
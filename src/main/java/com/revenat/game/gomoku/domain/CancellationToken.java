@@ -0,0 +1,58 @@
+package com.revenat.game.gomoku.domain;
+
+import java.util.concurrent.CancellationException;
+
+/**
+ * Signal used to cooperatively cancel long running work, e.g. determining next turn
+ * position by {@link AIGameOpponent}. Work checks the token from time to time and
+ * abandons itself with {@link CancellationException} once the token is cancelled.
+ * <p>
+ * Token is cancelled once and forever and may be cancelled from any thread.
+ *
+ * @author Vitaly Dragun
+ *
+ */
+public final class CancellationToken {
+	/**
+	 * Shared token which is never cancelled, {@link #cancel()} has no effect on it
+	 */
+	public static final CancellationToken NONE = new CancellationToken(false);
+
+	private final boolean cancellable;
+	private volatile boolean cancelled;
+
+	public CancellationToken() {
+		this(true);
+	}
+
+	private CancellationToken(boolean cancellable) {
+		this.cancellable = cancellable;
+	}
+
+	/**
+	 * Cancels work this token is passed to.
+	 */
+	public void cancel() {
+		if (cancellable) {
+			cancelled = true;
+		}
+	}
+
+	public boolean isCancelled() {
+		return cancelled;
+	}
+
+	/**
+	 * @throws CancellationException if this token is cancelled
+	 */
+	public void throwIfCancelled() {
+		if (cancelled) {
+			throw new CancellationException("Cancelled by token");
+		}
+	}
+
+	@Override
+	public String toString() {
+		return cancellable ? "CancellationToken [cancelled=" + cancelled + "]" : "CancellationToken.NONE";
+	}
+}
@@ -1,6 +1,7 @@
 package com.revenat.game.gomoku.domain;
 
 import java.util.Arrays;
+import java.util.Objects;
 
 /**
  * Represents a role responsible for checking current status of the
@@ -13,46 +14,125 @@ import java.util.Arrays;
 public interface GameArbiter {
 	
 	CheckResult checkForGameOver();
+	
+	/**
+	 * Checks for game over knowing {@link Position} of the last turn made.
+	 * Implementations may use it to inspect only the lines that pass through
+	 * that position. Default implementation performs full check.
+	 * 
+	 * @param lastTurn position of the cell marked by the last turn
+	 */
+	default CheckResult checkForGameOver(Position lastTurn) {
+		return checkForGameOver();
+	}
 
 	/**
 	 * Represent result returned by {@link GameArbiter} after checking the game state.
+	 * <p>
+	 * Results are immutable. Results for draw and for the game that is not over yet
+	 * are shared instances, and the winning combination which lies along a single
+	 * line is kept as its start position, direction and length, and is expanded to
+	 * array of positions only when {@link #getWinningCombination()} is called.
+	 * 
 	 * @author Vitaly Dragun
 	 *
 	 */
-	static class CheckResult {
+	static final class CheckResult {
+		private static final CheckResult DRAW = new CheckResult(null, null, Position.NOT_FOUND, null, 0, true);
+		private static final CheckResult KEEP_ON_PLAYING = new CheckResult(null, null, Position.NOT_FOUND, null, 0, false);
+		
 		private final Position[] winningCombination;
+		private final BoardGeometry geometry;
+		private final Position winningLineStart;
+		private final LineDirection winningLineDirection;
+		private final int winningLineLength;
 		private final boolean isDraw;
 		
-		private CheckResult(Position[] winningCombination, boolean isDraw) {
-			this.winningCombination = Arrays.copyOf(winningCombination, winningCombination.length);
+		private CheckResult(Position[] winningCombination, BoardGeometry geometry, Position winningLineStart,
+				LineDirection winningLineDirection, int winningLineLength, boolean isDraw) {
+			this.winningCombination = winningCombination;
+			this.geometry = geometry;
+			this.winningLineStart = winningLineStart;
+			this.winningLineDirection = winningLineDirection;
+			this.winningLineLength = winningLineLength;
 			this.isDraw = isDraw;
 		}
 		
 		public boolean isWinner() {
-			return winningCombination.length > 0;
+			return winningLineLength > 0;
 		}
 		
 		public boolean isDraw() {
 			return isDraw;
 		}
 		
+		/**
+		 * Returns positions of the winning combination. Unless the result was created
+		 * from the array of positions, new array is returned on every call.
+		 */
 		public Position[] getWinningCombination() {
-			if (isWinner()) {
+			checkWinner();
+			if (winningCombination != null) {
 				return winningCombination;
 			}
-			throw new IllegalStateException("You can not get the winning combination becouse there is no winner.");
+			Position[] combination = new Position[winningLineLength];
+			for (int i = 0; i < winningLineLength; i++) {
+				combination[i] = geometry.position(winningLineStart.row() + i * winningLineDirection.rowIncrement(),
+						winningLineStart.column() + i * winningLineDirection.columnIncrement());
+			}
+			return combination;
+		}
+		
+		/**
+		 * Returns position of the first cell of the winning combination.
+		 */
+		public Position getWinningLineStart() {
+			checkWinner();
+			return winningLineStart;
+		}
+		
+		/**
+		 * Returns direction of the winning combination or {@code null} if the result
+		 * was created from the array of positions.
+		 */
+		public LineDirection getWinningLineDirection() {
+			checkWinner();
+			return winningLineDirection;
+		}
+		
+		private void checkWinner() {
+			if (!isWinner()) {
+				throw new IllegalStateException("You can not get the winning combination becouse there is no winner.");
+			}
 		}
 		
 		public static CheckResult winner(Position[] winningCombination) {
-			return new CheckResult(winningCombination, false);
+			Position[] combination = Arrays.copyOf(winningCombination, winningCombination.length);
+			Position start = combination.length > 0 ? combination[0] : Position.NOT_FOUND;
+			return new CheckResult(combination, null, start, null, combination.length, false);
+		}
+		
+		/**
+		 * Creates result with the winning combination of specified length which starts
+		 * at specified position of the table with specified geometry and goes along
+		 * specified direction.
+		 */
+		public static CheckResult winner(BoardGeometry geometry, Position start, LineDirection direction, int length) {
+			Objects.requireNonNull(geometry, "BoardGeometry can not be null.");
+			Objects.requireNonNull(start, "Start position can not be null.");
+			Objects.requireNonNull(direction, "LineDirection can not be null.");
+			if (length <= 0) {
+				throw new IllegalArgumentException("Winning combination length should be positive: " + length);
+			}
+			return new CheckResult(null, geometry, start, direction, length, false);
 		}
 		
 		public static CheckResult draw() {
-			return new CheckResult(new Position[0], true);
+			return DRAW;
 		}
 		
 		public static CheckResult keepOnPlaying() {
-			return new CheckResult(new Position[0], false);
+			return KEEP_ON_PLAYING;
 		}
 	}
 }
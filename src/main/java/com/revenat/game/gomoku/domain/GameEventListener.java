@@ -24,6 +24,14 @@ public interface GameEventListener extends EventListener {
 	 */
 	void turnIsMade(Position position, Mark mark);
 	
+	/**
+	 * Handle an event that announces player's turn has been undone.
+	 * @param position specific {@link Position} on {@link GameTable}
+	 * which is empty again
+	 * @param mark the designation mark of the player whose turn is undone
+	 */
+	void turnIsUndone(Position position, Mark mark);
+	
 	/**
 	 * Handle and event that announces game is over and the winner
 	 * is found.
@@ -37,4 +45,14 @@ public interface GameEventListener extends EventListener {
 	 * Handle an event which announces a game over because of the draw.
 	 */
 	void draw();
+	
+	/**
+	 * Handle an event that announces player failed to make a turn, e.g. AI opponent
+	 * could not determine it, so the other player is to make a turn instead.
+	 * @param mark the designation mark of the player who failed to make a turn
+	 * @param reason description of the failure
+	 */
+	default void turnIsFailed(Mark mark, String reason) {
+		// failures are ignored by default
+	}
 }
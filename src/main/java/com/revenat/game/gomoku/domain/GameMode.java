@@ -23,5 +23,44 @@ public interface GameMode {
 	 * Process result of the turn has been made.
 	 */
 	void handleTurnResult(boolean isGameOver);
+	
+	/**
+	 * Process the last turn has been undone, so the player who
+	 * made it is to make a turn again.
+	 */
+	void handleTurnUndone();
+	
+	/**
+	 * Return {@code false} while game mode determines the turn itself, e.g. AI
+	 * opponent thinks on another thread, so turns and undo requested by players are
+	 * not accepted until it finishes.
+	 */
+	default boolean isAwaitingPlayer() {
+		return true;
+	}
+	
+	/**
+	 * Abort the turn game mode determines itself, if there is any.
+	 */
+	default void abortTurn() {
+		// there is nothing to abort by default
+	}
+	
+	/**
+	 * Stop determining the turn game mode determines itself, if there is any, without
+	 * undoing any turns, e.g. before the game table is cleared for a new game.
+	 */
+	default void cancelTurn() {
+		// there is nothing to cancel by default
+	}
+	
+	/**
+	 * Stop determining the turn game mode determines itself, if there is any, without
+	 * undoing any turns and without waiting until it stops, e.g. when the game is
+	 * closed and its table is no longer used.
+	 */
+	default void abandonTurn() {
+		cancelTurn();
+	}
 
 }
@@ -12,6 +12,12 @@ public interface GameSession {
 	 */
 	void addListener(GameEventListener listener);
 	
+	/**
+	 * Remove listener added before, e.g. of a spectator who leaves the game.
+	 * Listeners may be added and removed while game events are announced.
+	 */
+	void removeListener(GameEventListener listener);
+	
 	
 	/**
 	 * Set specified {@link GameMode}
@@ -27,4 +33,27 @@ public interface GameSession {
 	 * Process player turn at specified {@link Position}
 	 */
 	public void processPlayerTurn(Position position);
+	
+	/**
+	 * Undo the last turn made in the current game, so the player
+	 * who made it is to make a turn again. {@link GameMode} may undo
+	 * more turns, e.g. AI opponent's reply together with the player's turn.
+	 * 
+	 * @return {@code true} if the turn was undone, {@code false} if
+	 * there is no turn to undo
+	 */
+	public boolean undoLastTurn();
+	
+	/**
+	 * Abort the turn the {@link GameMode} determines itself, e.g. search
+	 * of the AI opponent. Does nothing if there is no such turn.
+	 */
+	public void abortTurn();
+	
+	/**
+	 * Announce to the listeners that the {@link GameMode} failed to determine the turn
+	 * of the specified player itself, e.g. search of the AI opponent failed. Game mode
+	 * should be ready for the turn of the other player by then.
+	 */
+	public void reportTurnFailure(Mark player, String reason);
 }
@@ -4,6 +4,11 @@ package com.revenat.game.gomoku.domain;
  * Represents game table role for abstract game that has grid
  * with rows and columns, and each cell on that grid can be marked
  * with specific {@link Mark}.
+ * <p>
+ * Cells can be accessed either by {@link Position} or by its ordinal,
+ * from {@code 1} to {@link #getTotalCells()}. Ordinal-based methods are
+ * meant for engines and arbiters: they only check ordinal range and
+ * do not allocate.
  * 
  * @author Vitaly Dragun
  *
@@ -36,12 +41,72 @@ public interface GameTable {
 	 */
 	public Mark getCellMark(Position position);
 	
+	/**
+	 * Checks whether a grid cell with specified ordinal is empty.
+	 */
+	public boolean isCellEmpty(int ordinal);
+	
+	/**
+	 * Checks whether a grid cell with specified ordinal is marked with
+	 * specified mark.
+	 */
+	public boolean isCellMarked(int ordinal, Mark mark);
+	
+	/**
+	 * Marks grid cell with specified ordinal with specified mark.
+	 */
+	public void markCellAt(int ordinal, Mark mark);
+	
+	/**
+	 * Returns {@link Mark#code() code} of the mark the grid cell with
+	 * specified ordinal is marked with.
+	 */
+	public byte getCellCode(int ordinal);
+	
+	/**
+	 * Marks empty grid cell with specified ordinal with specified not {@code EMPTY}
+	 * mark and pushes the move onto the move stack, so it can be undone by
+	 * {@link #popMove()}. Marked cells count and Zobrist key are updated the same
+	 * way as by {@link #markCellAt(int, Mark)}, which does not use the move stack.
+	 * 
+	 * @throws IllegalStateException if the cell is already marked
+	 */
+	public void pushMove(int ordinal, Mark mark);
+	
+	/**
+	 * Clears grid cell of the move last pushed by {@link #pushMove(int, Mark)}
+	 * and pops it from the move stack.
+	 * 
+	 * @return ordinal of the cell of the undone move
+	 * @throws IllegalStateException if the move stack is empty
+	 */
+	public int popMove();
+	
+	/**
+	 * Returns ordinal of the cell of the move last pushed by {@link #pushMove(int, Mark)}
+	 * or {@code 0} if the move stack is empty.
+	 */
+	public int peekMove();
+	
+	/**
+	 * Returns number of moves on the move stack. The move stack is emptied
+	 * by {@link #clear()}.
+	 */
+	public int getMoveCount();
+	
 	
 	/**
 	 * Returns {@link Position}s for all cells adjacent to the cell at specified position.
+	 * Returned array may be shared between calls and must not be modified.
 	 */
 	public Position[] getAdjacentCellsPositionsFor(Position position);
 
+	/**
+	 * Returns geometry of this game table, which defines its size and
+	 * {@link Position}s of its cells.
+	 */
+	public BoardGeometry getGeometry();
+
 	/**
 	 * Returns total number of rows in this game table
 	 */
@@ -57,4 +122,38 @@ public interface GameTable {
 	 * @return
 	 */
 	public int getTotalCells();
+	
+	/**
+	 * Returns number of cells in this game table marked with
+	 * not {@code EMPTY} mark. It is maintained as a running count,
+	 * so calling this method does not scan the table.
+	 */
+	public int getMarkedCellsCount();
+	
+	/**
+	 * Returns Zobrist hash key of the current state of this game table.
+	 * It is updated incrementally every time a cell is marked.
+	 */
+	public long getZobristKey();
+	
+	/**
+	 * Returns Zobrist hash key this game table would have if its cells were
+	 * transformed by specified symmetry. Keys of all symmetries applicable
+	 * to this table are updated incrementally along with {@link #getZobristKey()}.
+	 * 
+	 * @throws IllegalArgumentException if the symmetry is not applicable to this table
+	 */
+	public long getZobristKey(BoardSymmetry symmetry);
+	
+	/**
+	 * Returns symmetry which transforms this game table into its canonical form,
+	 * the one with the smallest Zobrist hash key among all its symmetric forms.
+	 */
+	public BoardSymmetry getCanonicalSymmetry();
+	
+	/**
+	 * Returns Zobrist hash key of the canonical form of this game table, which is
+	 * the same for all symmetric tables.
+	 */
+	public long getCanonicalKey();
 }
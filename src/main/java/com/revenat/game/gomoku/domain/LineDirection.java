@@ -0,0 +1,49 @@
+package com.revenat.game.gomoku.domain;
+
+/**
+ * Represents direction of the line of cells on the {@link GameTable}
+ * along which winning combination can be built.
+ * 
+ * @author Vitaly Dragun
+ *
+ */
+public enum LineDirection {
+	/**
+	 * From left to right along the row
+	 */
+	ROW(0, 1),
+	/**
+	 * From top to bottom along the column
+	 */
+	COLUMN(1, 0),
+	/**
+	 * From upper left to bottom right corner
+	 */
+	MAIN_DIAGONAL(1, 1),
+	/**
+	 * From upper right to bottom left corner
+	 */
+	SECONDARY_DIAGONAL(1, -1);
+	
+	private final int rowIncrement;
+	private final int columnIncrement;
+	
+	LineDirection(int rowIncrement, int columnIncrement) {
+		this.rowIncrement = rowIncrement;
+		this.columnIncrement = columnIncrement;
+	}
+	
+	/**
+	 * Returns how much row of the next cell in this direction differs from the current one.
+	 */
+	public int rowIncrement() {
+		return rowIncrement;
+	}
+	
+	/**
+	 * Returns how much column of the next cell in this direction differs from the current one.
+	 */
+	public int columnIncrement() {
+		return columnIncrement;
+	}
+}
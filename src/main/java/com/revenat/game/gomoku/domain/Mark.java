@@ -8,7 +8,7 @@ package com.revenat.game.gomoku.domain;
  *
  */
 public enum Mark {
-	X {
+	X(Mark.X_CODE) {
 		@Override
 		public String getValue() {
 			return " X ";
@@ -18,7 +18,7 @@ public enum Mark {
 			return O;
 		}
 	},
-	O {
+	O(Mark.O_CODE) {
 		@Override
 		public String getValue() {
 			return " O ";
@@ -28,7 +28,7 @@ public enum Mark {
 			return X;
 		}
 	},
-	EMPTY {
+	EMPTY(Mark.EMPTY_CODE) {
 		@Override
 		public String getValue() {
 			return "   ";
@@ -39,6 +39,41 @@ public enum Mark {
 		}
 	};
 	
+	/**
+	 * Code of the {@link #EMPTY} mark returned by {@link GameTable#getCellCode(int)}
+	 */
+	public static final byte EMPTY_CODE = 0;
+	/**
+	 * Code of the {@link #X} mark returned by {@link GameTable#getCellCode(int)}
+	 */
+	public static final byte X_CODE = 1;
+	/**
+	 * Code of the {@link #O} mark returned by {@link GameTable#getCellCode(int)}
+	 */
+	public static final byte O_CODE = 2;
+	
+	private static final Mark[] BY_CODE = {EMPTY, X, O};
+	
+	private final byte code;
+	
+	private Mark(byte code) {
+		this.code = code;
+	}
+	
+	/**
+	 * Returns compact code of this mark.
+	 */
+	public byte code() {
+		return code;
+	}
+	
+	/**
+	 * Returns mark with specified code.
+	 */
+	public static Mark fromCode(byte code) {
+		return BY_CODE[code];
+	}
+	
 	@Override
 	public String toString() {
 		return getValue();
@@ -1,43 +1,62 @@
 package com.revenat.game.gomoku.domain;
 
-import java.util.Objects;
-
 /**
- * This value type represents position on the {@link GameTable} (15x15),
- * both as row-column coordinate (zero-based) and ordinal (from 1 to 225).
- * 
+ * This value type represents position on the {@link GameTable},
+ * both as row-column coordinate (zero-based) and ordinal (from 1 to
+ * number of cells of the table).
+ * <p>
+ * Instances are interned by {@link BoardGeometry}: all valid positions of
+ * a geometry are created once, and any invalid coordinate or ordinal resolves
+ * to the shared {@link #NOT_FOUND} instance, so positions can be compared by
+ * reference. Static factory methods of this class return positions of the
+ * {@link BoardGeometry#STANDARD standard} 15x15 table.
+ *
  * @author Vitaly Dragun
  *
  */
 public final class Position {
-	private static final int CELLS_PER_ROW = 15;
-	private static final int ORDINAL_INNER_BOUN = 1;
-	private static final int ORDINAL_UPPER_BOUND = 225;
-	
+	private static final int NOT_FOUND_ORDINAL = -1;
+
+	/**
+	 * Shared invalid position which designates absence of any position on the {@link GameTable}
+	 */
+	public static final Position NOT_FOUND = new Position(-1, -1, NOT_FOUND_ORDINAL);
+
 	private final int row;
 	private final int column;
+	private final int ordinal;
+	private final int hashCode;
 
-	private Position(int row, int column) {
+	Position(int row, int column, int ordinal) {
 		this.row = row;
 		this.column = column;
+		this.ordinal = ordinal;
+		this.hashCode = 31 * (31 + column) + row;
 	}
 
-
-	private Position(int ordinal) {
-		row = (ordinal - 1) / CELLS_PER_ROW;
-		column = (ordinal - (row * CELLS_PER_ROW)) - 1;
-	}
-	
+	/**
+	 * Returns position of the standard table for specified zero-based row and column,
+	 * or {@link #NOT_FOUND} if they are out of the {@link GameTable} bounds.
+	 * <p>
+	 * Row and column are checked separately: column out of the row bounds does not
+	 * wrap into the neighbouring row any more, e.g. {@code from(0, 15)} is
+	 * {@link #NOT_FOUND} rather than a valid position with ordinal {@code 16},
+	 * as it used to be before positions were interned.
+	 */
 	public static Position from(int row, int column) {
-		return new Position(row, column);
+		return BoardGeometry.STANDARD.position(row, column);
 	}
-	
+
+	/**
+	 * Returns position of the standard table for specified ordinal,
+	 * or {@link #NOT_FOUND} if it is out of the {@link GameTable} bounds.
+	 */
 	public static Position from(int ordinal) {
-		return new Position(ordinal);
+		return BoardGeometry.STANDARD.position(ordinal);
 	}
-	
+
 	public boolean isValid() {
-		return isValid(ordinal());
+		return this != NOT_FOUND;
 	}
 
 	public int row() {
@@ -49,34 +68,26 @@ public final class Position {
 	}
 
 	public int ordinal() {
-		return row * 15 + column + 1;
+		return ordinal;
 	}
 
 	@Override
 	public int hashCode() {
-		return Objects.hash(column, row);
+		return hashCode;
 	}
 
+	/**
+	 * Positions are interned, so two positions are equal only if
+	 * they are the same instance.
+	 */
 	@Override
 	public boolean equals(Object obj) {
-		if (this == obj)
-			return true;
-		if (obj == null)
-			return false;
-		if (getClass() != obj.getClass())
-			return false;
-		Position other = (Position) obj;
-		return column == other.column && row == other.row;
+		return this == obj;
 	}
-	
+
 
 	@Override
 	public String toString() {
 		return "[row=" + row + ", column=" + column + "]";
 	}
-	
-	private static boolean isValid(int ordn) {
-		return ordn >= ORDINAL_INNER_BOUN && ordn <= ORDINAL_UPPER_BOUND;
-	}
-	
 }
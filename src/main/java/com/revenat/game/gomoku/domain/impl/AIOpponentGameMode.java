@@ -2,12 +2,18 @@ package com.revenat.game.gomoku.domain.impl;
 
 import static java.util.Objects.requireNonNull;
 
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.revenat.game.gomoku.domain.AIGameOpponent;
+import com.revenat.game.gomoku.domain.CancellationToken;
 import com.revenat.game.gomoku.domain.GameMode;
 import com.revenat.game.gomoku.domain.GameSession;
 import com.revenat.game.gomoku.domain.Mark;
@@ -17,6 +23,22 @@ import com.revenat.game.gomoku.domain.exception.AIOpponentCanNotMakeTurnExceptio
 /**
  * Game mode that allows player to play against AI. Player plays with X, AI with O.
  * At the start of the game the right to make a first turn is random.
+ * <p>
+ * AI turns are determined either synchronously, on the thread which delivered
+ * the player's turn, or asynchronously on the search executor, in which case AI
+ * turn is made on the result executor (e.g. UI event thread) and players' turns
+ * are not accepted while AI thinks. Asynchronous AI turn may be {@link #abortTurn()
+ * aborted}. In asynchronous mode game mode should be used on the thread of the
+ * result executor only.
+ * <p>
+ * AI opponent reads the game table while it searches, so aborting or cancelling the
+ * turn waits until the search leaves it, which takes a fraction of a millisecond once
+ * the search is cancelled, before the game table is changed. Search still waiting for
+ * the search executor is abandoned and does not wait for its turn.
+ * <p>
+ * If AI opponent fails to determine its turn, the turn is aborted as if it were
+ * {@link #abortTurn() aborted} by the player, and the failure is reported to the
+ * {@link GameSession}.
  * 
  * @author Vitaly Dragun
  *
@@ -24,23 +46,79 @@ import com.revenat.game.gomoku.domain.exception.AIOpponentCanNotMakeTurnExceptio
 public class AIOpponentGameMode implements GameMode {
 	private static final Logger LOG = LoggerFactory.getLogger(AIOpponentGameMode.class);
 	
-	private static final Mark HUMAN_PLAYER = Mark.X;
-	private static final Mark AI_PLAYER = Mark.O;
+	public static final Mark HUMAN_PLAYER = Mark.X;
+	public static final Mark AI_PLAYER = Mark.O;
+	/**
+	 * By default AI turn is bounded by the time budget of the opponent itself
+	 */
+	private static final long UNBOUNDED_TURN_MILLIS = TimeUnit.DAYS.toMillis(1);
 	
 	private final GameSession gameSession;
 	private final AIGameOpponent opponent;
+	private final Executor searchExecutor;
+	private final Executor resultExecutor;
+	private final long turnTimeNanos;
 	private boolean isHumanTurn = true;
+	/**
+	 * AI turn being determined asynchronously, {@code null} if there is no such turn
+	 */
+	private PendingTurn pendingTurn;
 
+	/**
+	 * Creates game mode which determines AI turns synchronously.
+	 */
 	public AIOpponentGameMode(GameSession gameSession, AIGameOpponent opponent) {
 		requireNonNull(gameSession, "GameSession can not be null.");
 		requireNonNull(opponent, "AIGameOpponent can not be null.");
 		
 		this.gameSession = gameSession;
 		this.opponent = opponent;
+		this.searchExecutor = null;
+		this.resultExecutor = null;
+		this.turnTimeNanos = 0;
+	}
+	
+	/**
+	 * Creates game mode which determines AI turns asynchronously.
+	 * 
+	 * @param searchExecutor executor to determine AI turns on
+	 * @param resultExecutor executor to make determined AI turns on, e.g. the one
+	 *                       which runs tasks on UI event thread
+	 */
+	public AIOpponentGameMode(GameSession gameSession, AIGameOpponent opponent, Executor searchExecutor,
+			Executor resultExecutor) {
+		this(gameSession, opponent, searchExecutor, resultExecutor, UNBOUNDED_TURN_MILLIS);
+	}
+	
+	/**
+	 * Creates game mode which determines AI turns asynchronously within the time limit.
+	 * 
+	 * @param searchExecutor executor to determine AI turns on
+	 * @param resultExecutor executor to make determined AI turns on, e.g. the one
+	 *                       which runs tasks on UI event thread
+	 * @param turnTimeMillis time limit in milliseconds for determining single AI turn,
+	 *                       including time the turn waits for the search executor
+	 */
+	public AIOpponentGameMode(GameSession gameSession, AIGameOpponent opponent, Executor searchExecutor,
+			Executor resultExecutor, long turnTimeMillis) {
+		requireNonNull(gameSession, "GameSession can not be null.");
+		requireNonNull(opponent, "AIGameOpponent can not be null.");
+		requireNonNull(searchExecutor, "Search executor can not be null.");
+		requireNonNull(resultExecutor, "Result executor can not be null.");
+		
+		this.gameSession = gameSession;
+		this.opponent = opponent;
+		this.searchExecutor = searchExecutor;
+		this.resultExecutor = resultExecutor;
+		if (turnTimeMillis <= 0) {
+			throw new IllegalArgumentException("Turn time should be positive: " + turnTimeMillis);
+		}
+		this.turnTimeNanos = TimeUnit.MILLISECONDS.toNanos(turnTimeMillis);
 	}
 
 	@Override
 	public void startGame() {
+		cancelPendingTurn();
 		randomlyDetermineFirstTurn();
 
 		if (getCurrentPlayer() == AI_PLAYER) {
@@ -51,15 +129,63 @@ public class AIOpponentGameMode implements GameMode {
 	
 	private void processOpponentTurn() {
 		LOG.debug("AI opponent '{}' tries to find a free position to move to.", getCurrentPlayer());
-		Position position = opponent.determineNextTurnPositionFor(getCurrentPlayer());
+		if (searchExecutor == null) {
+			Position position;
+			try {
+				position = opponent.determineNextTurnPositionFor(getCurrentPlayer());
+			} catch (RuntimeException e) {
+				failOpponentTurn(e);
+				return;
+			}
+			makeOpponentTurn(position);
+			return;
+		}
+		PendingTurn turn = new PendingTurn(searchExecutor);
+		pendingTurn = turn;
+		opponent.determineNextTurnPositionAsync(getCurrentPlayer(), System.nanoTime() + turnTimeNanos,
+				turn.token, turn)
+				.whenCompleteAsync((position, failure) -> completeOpponentTurn(turn, position, failure),
+						resultExecutor);
+	}
+	
+	private void completeOpponentTurn(PendingTurn turn, Position position, Throwable failure) {
+		if (turn != pendingTurn || turn.token.isCancelled()) {
+			LOG.debug("Result of the aborted AI opponent turn is discarded.");
+			return;
+		}
+		pendingTurn = null;
+		if (failure != null) {
+			failOpponentTurn(failure instanceof CompletionException && failure.getCause() != null
+					? failure.getCause() : failure);
+			return;
+		}
+		try {
+			makeOpponentTurn(position);
+		} catch (RuntimeException e) {
+			LOG.error("Error in the game", e);
+		}
+	}
+	
+	private void makeOpponentTurn(Position position) {
 		if (!position.isValid()) {
 			LOG.error("AI opponent '{}' can not find a free position to make a move to.", getCurrentPlayer());
-			throw new AIOpponentCanNotMakeTurnException("No free position to move to. Is it draw?");
+			failOpponentTurn(new AIOpponentCanNotMakeTurnException("No free position to move to. Is it draw?"));
+			return;
 		}
 		
 		LOG.debug("AI opponent '{}' choose position {} to make it's move to.", getCurrentPlayer(), position);
 		gameSession.processPlayerTurn(position);
 	}
+	
+	/**
+	 * Gives the turn back to the human player and reports the failure, so that
+	 * the game is not left waiting for the turn AI is not going to make.
+	 */
+	private void failOpponentTurn(Throwable failure) {
+		LOG.error("AI opponent '{}' failed to determine turn position", AI_PLAYER, failure);
+		restoreHumanTurn();
+		gameSession.reportTurnFailure(AI_PLAYER, String.valueOf(failure.getMessage()));
+	}
 
 	@Override
 	public Mark getCurrentPlayer() {
@@ -75,6 +201,78 @@ public class AIOpponentGameMode implements GameMode {
 		}
 	}
 	
+	/**
+	 * Turns are undone until it is human player's turn again, so undoing
+	 * the AI reply undoes the human turn that preceded it as well. If AI made
+	 * the first turn of the game and it is undone, AI makes its turn again.
+	 */
+	@Override
+	public void handleTurnUndone() {
+		finishPlayerTurn();
+		
+		if (getCurrentPlayer() == AI_PLAYER && !gameSession.undoLastTurn()) {
+			processOpponentTurn();
+		}
+	}
+	
+	@Override
+	public boolean isAwaitingPlayer() {
+		return pendingTurn == null;
+	}
+	
+	/**
+	 * Aborting AI turn cancels its search and undoes the human turn it replies to,
+	 * so it is human player's turn again. If AI was to make the first turn of
+	 * the game, human player makes it instead.
+	 */
+	@Override
+	public void abortTurn() {
+		if (pendingTurn == null) {
+			return;
+		}
+		cancelPendingTurn();
+		LOG.info("AI opponent '{}' turn is aborted.", getCurrentPlayer());
+		restoreHumanTurn();
+	}
+	
+	/**
+	 * Undoes the human turn AI was to reply to or, if AI was to make the first turn
+	 * of the game, passes it to the human player.
+	 */
+	private void restoreHumanTurn() {
+		if (!gameSession.undoLastTurn()) {
+			finishPlayerTurn();
+		}
+	}
+	
+	/**
+	 * Cancelled AI turn is not made, and it is still the AI turn, which is determined
+	 * again when the game is started.
+	 */
+	@Override
+	public void cancelTurn() {
+		cancelPendingTurn();
+	}
+	
+	/**
+	 * Abandoned AI turn is not made, and its search may still read the game table
+	 * for a while, so the table should not be used any more.
+	 */
+	@Override
+	public void abandonTurn() {
+		if (pendingTurn != null) {
+			pendingTurn.token.cancel();
+			pendingTurn = null;
+		}
+	}
+	
+	private void cancelPendingTurn() {
+		if (pendingTurn != null) {
+			pendingTurn.abandon();
+			pendingTurn = null;
+		}
+	}
+	
 	private void randomlyDetermineFirstTurn() {
 		isHumanTurn = ThreadLocalRandom.current().nextBoolean();
 		
@@ -89,4 +287,60 @@ public class AIOpponentGameMode implements GameMode {
 		return "AIOpponentGameMode";
 	}
 
+	/**
+	 * AI turn being determined asynchronously. Search of the turn runs on the search
+	 * executor through the turn, so that it is known whether the search has started
+	 * and when it has finished.
+	 */
+	private static final class PendingTurn implements Executor {
+		private final Executor searchExecutor;
+		private final CancellationToken token = new CancellationToken();
+		/**
+		 * Set by the search when it starts, or by the abandoning thread if the search
+		 * has not started yet, in which case it never starts
+		 */
+		private final AtomicBoolean claimed = new AtomicBoolean();
+		private final CountDownLatch finished = new CountDownLatch(1);
+
+		PendingTurn(Executor searchExecutor) {
+			this.searchExecutor = searchExecutor;
+		}
+
+		@Override
+		public void execute(Runnable search) {
+			searchExecutor.execute(() -> {
+				if (!claimed.compareAndSet(false, true)) {
+					return;
+				}
+				try {
+					search.run();
+				} finally {
+					finished.countDown();
+				}
+			});
+		}
+
+		/**
+		 * Cancels the search and waits until it no longer reads the game table.
+		 */
+		void abandon() {
+			token.cancel();
+			if (claimed.compareAndSet(false, true)) {
+				return;
+			}
+			boolean interrupted = false;
+			while (true) {
+				try {
+					finished.await();
+					break;
+				} catch (InterruptedException e) {
+					interrupted = true;
+				}
+			}
+			if (interrupted) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
 }
@@ -0,0 +1,241 @@
+package com.revenat.game.gomoku.domain.impl;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.revenat.game.gomoku.domain.GameEventListener;
+import com.revenat.game.gomoku.domain.GameSession;
+import com.revenat.game.gomoku.domain.Mark;
+import com.revenat.game.gomoku.domain.Position;
+
+/**
+ * Asynchronous stage between the {@link GameSession} and slow listeners, e.g. the one
+ * which shows modal dialog on game over, so that the game never waits for them.
+ * <p>
+ * Dispatcher is added to the session as a listener and passes events on to its target
+ * listener. Events are put into a bounded ring buffer and the session returns at once,
+ * while the buffer is drained in batches of up to {@link #MAX_EVENTS_PER_RUN} events on the
+ * specified executor. Only one batch runs at a time and every batch happens-before the
+ * next one, so the target receives events in the order of the session, one at a time,
+ * and needs not be thread-safe. Target which should receive events of many sessions
+ * may be wrapped with a dispatcher for every session.
+ * <p>
+ * When the buffer is full, events are handled according to {@link OverflowPolicy}.
+ * Exceptions thrown by the target are logged and do not stop dispatching.
+ * <p>
+ * Listeners which should see the game in the state of the event, e.g.
+ * {@link PonderingGameEventListener}, should be added to the session directly.
+ *
+ * @author Vitaly Dragun
+ *
+ */
+public final class AsyncGameEventDispatcher implements GameEventListener {
+	private static final Logger LOG = LoggerFactory.getLogger(AsyncGameEventDispatcher.class);
+	static final int MAX_EVENTS_PER_RUN = 64;
+
+	/**
+	 * Defines what happens to the event when the buffer of the dispatcher is full.
+	 */
+	public enum OverflowPolicy {
+		/**
+		 * Session waits until the target has taken events out of the buffer. No event is
+		 * lost, but the game is stalled by the slow target again, so it suits targets which
+		 * are only occasionally slow, with the buffer large enough for them to catch up.
+		 * Executor should not run the target on the thread of the session, otherwise
+		 * the session waits for itself forever.
+		 */
+		BLOCK,
+		/**
+		 * The new event is discarded, for targets which tolerate gaps, e.g. statistics.
+		 */
+		DROP_NEWEST,
+		/**
+		 * The oldest event in the buffer is discarded to make room for the new one,
+		 * for targets interested in the latest events only.
+		 */
+		DROP_OLDEST,
+		/**
+		 * Event is discarded with {@link IllegalStateException} thrown to the session,
+		 * for targets which are not expected to ever fall that far behind.
+		 * {@link GomokuGameSession} logs the exception and goes on with the turn.
+		 */
+		FAIL
+	}
+
+	private final GameEventListener target;
+	private final Executor executor;
+	private final OverflowPolicy overflowPolicy;
+	private final Object lock = new Object();
+	/**
+	 * Ring buffer of the events, guarded by the lock. Its capacity is a power of two,
+	 * so that index of the element is its sequence number masked.
+	 */
+	private final Object[] buffer;
+	private final int mask;
+	private final int capacity;
+	private long head;
+	private long tail;
+	private final AtomicBoolean scheduled = new AtomicBoolean();
+	private final AtomicLong droppedEvents = new AtomicLong();
+	/**
+	 * Events taken out of the buffer by the running batch, confined to it
+	 */
+	private final Object[] batch = new Object[MAX_EVENTS_PER_RUN];
+
+	/**
+	 * @param target         listener to pass events on to
+	 * @param executor       executor to run target on, e.g. {@code SwingUtilities::invokeLater}
+	 *                       for listeners which update UI
+	 * @param capacity       maximum number of events waiting for the target
+	 * @param overflowPolicy what to do with the event when the buffer is full
+	 */
+	public AsyncGameEventDispatcher(GameEventListener target, Executor executor, int capacity,
+			OverflowPolicy overflowPolicy) {
+		this.target = requireNonNull(target, "Target listener can not be null.");
+		this.executor = requireNonNull(executor, "Executor can not be null.");
+		this.overflowPolicy = requireNonNull(overflowPolicy, "Overflow policy can not be null.");
+		if (capacity <= 0 || capacity > 1 << 30) {
+			throw new IllegalArgumentException("Capacity should be between 1 and 2^30: " + capacity);
+		}
+		this.capacity = capacity;
+		this.buffer = new Object[capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1];
+		this.mask = buffer.length - 1;
+	}
+
+	@Override
+	public void invalidTurnPosition(Position position) {
+		dispatch(listener -> listener.invalidTurnPosition(position));
+	}
+
+	@Override
+	public void turnIsMade(Position position, Mark mark) {
+		dispatch(listener -> listener.turnIsMade(position, mark));
+	}
+
+	@Override
+	public void turnIsUndone(Position position, Mark mark) {
+		dispatch(listener -> listener.turnIsUndone(position, mark));
+	}
+
+	@Override
+	public void winnerIsFound(Mark winner, Position[] winningCombination) {
+		dispatch(listener -> listener.winnerIsFound(winner, winningCombination));
+	}
+
+	@Override
+	public void draw() {
+		dispatch(GameEventListener::draw);
+	}
+
+	@Override
+	public void turnIsFailed(Mark mark, String reason) {
+		dispatch(listener -> listener.turnIsFailed(mark, reason));
+	}
+
+	/**
+	 * Returns number of events discarded because the buffer was full.
+	 */
+	public long getDroppedEventCount() {
+		return droppedEvents.get();
+	}
+
+	/**
+	 * Returns number of events waiting for the target.
+	 */
+	public int getPendingEventCount() {
+		synchronized (lock) {
+			return (int) (tail - head);
+		}
+	}
+
+	private void dispatch(Consumer<GameEventListener> event) {
+		if (offer(event)) {
+			schedule();
+		}
+	}
+
+	/**
+	 * @return {@code false} if the event is discarded
+	 */
+	private boolean offer(Consumer<GameEventListener> event) {
+		synchronized (lock) {
+			while (tail - head == capacity) {
+				switch (overflowPolicy) {
+				case BLOCK:
+					awaitSpace();
+					break;
+				case DROP_NEWEST:
+					droppedEvents.incrementAndGet();
+					return false;
+				case DROP_OLDEST:
+					buffer[(int) head++ & mask] = null;
+					droppedEvents.incrementAndGet();
+					break;
+				default:
+					throw new IllegalStateException("Event buffer is full: " + capacity + " events wait for " + target);
+				}
+			}
+			buffer[(int) tail++ & mask] = event;
+			return true;
+		}
+	}
+
+	private void awaitSpace() {
+		try {
+			lock.wait();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while waiting for the event buffer", e);
+		}
+	}
+
+	private void schedule() {
+		if (scheduled.compareAndSet(false, true)) {
+			try {
+				executor.execute(this::run);
+			} catch (RejectedExecutionException e) {
+				scheduled.set(false);
+				LOG.warn("Events for {} can not be dispatched: {}", target, e.toString());
+			}
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private void run() {
+		int size = 0;
+		synchronized (lock) {
+			while (head < tail && size < batch.length) {
+				int index = (int) head++ & mask;
+				batch[size++] = buffer[index];
+				buffer[index] = null;
+			}
+			lock.notifyAll();
+		}
+		for (int i = 0; i < size; i++) {
+			try {
+				((Consumer<GameEventListener>) batch[i]).accept(target);
+			} catch (RuntimeException e) {
+				LOG.error("Error in the game event listener {}", target, e);
+			}
+			batch[i] = null;
+		}
+		scheduled.set(false);
+		if (getPendingEventCount() > 0) {
+			schedule();
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "AsyncGameEventDispatcher [target=" + target + ", capacity=" + capacity + ", overflowPolicy="
+				+ overflowPolicy + "]";
+	}
+}
@@ -0,0 +1,344 @@
+package com.revenat.game.gomoku.domain.impl;
+
+import java.util.Objects;
+
+import com.revenat.game.gomoku.domain.BoardGeometry;
+import com.revenat.game.gomoku.domain.BoardSymmetry;
+import com.revenat.game.gomoku.domain.GameTable;
+import com.revenat.game.gomoku.domain.Mark;
+import com.revenat.game.gomoku.domain.Position;
+
+/**
+ * Represents game table (grid) for Gomoku game which stores
+ * cells marked by each player as packed bitboards.
+ * <p>
+ * Cell with {@link Position} ordinal {@code n} is represented by bit
+ * {@code (n - 1) % 64} of the word {@code (n - 1) / 64}, so cells of each
+ * player fit into {@link #getBitboardWords()} {@code long} words, 4 words
+ * for the {@link BoardGeometry#STANDARD standard} 15x15 table.
+ * Raw bitboards are exposed for engines which detect lines by shifting and
+ * masking them.
+ *
+ * @author Vitaly Dragun
+ *
+ */
+public class BitboardGameTable implements GameTable {
+	private final BoardGeometry geometry;
+	private final GomokuTableTopology topology;
+	private final int totalCells;
+	private final int bitboardWords;
+	/**
+	 * Mask of the bits in the last bitboard word that represent game table cells
+	 */
+	private final long lastWordMask;
+
+	private final long[] xCells;
+	private final long[] oCells;
+	/**
+	 * Ordinals of the cells of the pushed moves, from the first to the last one
+	 */
+	private final int[] moveStack;
+	private final SymmetricZobristKeys zobristKeys;
+	private int moveCount;
+	private int markedCellsCount;
+
+	/**
+	 * Constructs empty game table of the standard geometry
+	 */
+	public BitboardGameTable() {
+		this(BoardGeometry.STANDARD);
+	}
+
+	/**
+	 * Constructs empty game table of the specified geometry
+	 */
+	public BitboardGameTable(BoardGeometry geometry) {
+		Objects.requireNonNull(geometry, "BoardGeometry can not be null.");
+		this.geometry = geometry;
+		this.topology = GomokuTableTopology.of(geometry);
+		this.totalCells = geometry.totalCells();
+		this.bitboardWords = (totalCells + Long.SIZE - 1) / Long.SIZE;
+		this.lastWordMask = -1L >>> (bitboardWords * Long.SIZE - totalCells);
+		this.xCells = new long[bitboardWords];
+		this.oCells = new long[bitboardWords];
+		this.moveStack = new int[totalCells];
+		this.zobristKeys = new SymmetricZobristKeys(topology);
+	}
+
+	/**
+	 * Constructs game table which is a copy of the specified one
+	 */
+	public BitboardGameTable(BitboardGameTable other) {
+		this(other.geometry);
+		copyFrom(other);
+	}
+
+	/**
+	 * Makes this game table a copy of the specified one of the same geometry
+	 * without allocating any memory.
+	 */
+	public void copyFrom(BitboardGameTable other) {
+		Objects.requireNonNull(other, "Game table to copy from can not be null");
+		if (other.geometry != geometry) {
+			throw new IllegalArgumentException("Can not copy game table of geometry " + other.geometry
+					+ " into game table of geometry " + geometry);
+		}
+		System.arraycopy(other.xCells, 0, xCells, 0, bitboardWords);
+		System.arraycopy(other.oCells, 0, oCells, 0, bitboardWords);
+		System.arraycopy(other.moveStack, 0, moveStack, 0, other.moveCount);
+		moveCount = other.moveCount;
+		markedCellsCount = other.markedCellsCount;
+		zobristKeys.copyFrom(other.zobristKeys);
+	}
+
+	@Override
+	public void clear() {
+		for (int word = 0; word < bitboardWords; word++) {
+			xCells[word] = 0L;
+			oCells[word] = 0L;
+		}
+		moveCount = 0;
+		markedCellsCount = 0;
+		zobristKeys.clear();
+	}
+
+	@Override
+	public boolean isCellEmpty(Position position) {
+		return isCellEmpty(ordinalOf(position));
+	}
+
+	@Override
+	public boolean isCellEmpty(int ordinal) {
+		int index = indexOf(ordinal);
+		return ((xCells[index >>> 6] | oCells[index >>> 6]) & (1L << index)) == 0;
+	}
+
+	@Override
+	public boolean isCellMarked(Position position, Mark mark) {
+		return isCellMarked(ordinalOf(position), mark);
+	}
+
+	@Override
+	public boolean isCellMarked(int ordinal, Mark mark) {
+		int index = indexOf(ordinal);
+		Objects.requireNonNull(mark,  "Mark to check can not be null");
+
+		return getCodeAt(index) == mark.code();
+	}
+
+	@Override
+	public void markCellAt(Position position, Mark mark) {
+		markCellAt(ordinalOf(position), mark);
+	}
+
+	@Override
+	public void markCellAt(int ordinal, Mark mark) {
+		int index = indexOf(ordinal);
+		Objects.requireNonNull(mark,  "Mark can not be null");
+
+		int word = index >>> 6;
+		long bit = 1L << index;
+		byte previous = getCodeAt(index);
+		if (previous != Mark.EMPTY_CODE) {
+			markedCellsCount--;
+		}
+		xCells[word] &= ~bit;
+		oCells[word] &= ~bit;
+		if (mark != Mark.EMPTY) {
+			markedCellsCount++;
+		}
+		zobristKeys.update(ordinal, Mark.fromCode(previous), mark);
+		if (mark == Mark.X) {
+			xCells[word] |= bit;
+		} else if (mark == Mark.O) {
+			oCells[word] |= bit;
+		}
+	}
+
+	@Override
+	public void pushMove(int ordinal, Mark mark) {
+		int index = indexOf(ordinal);
+		Objects.requireNonNull(mark,  "Mark can not be null");
+
+		int word = index >>> 6;
+		long bit = 1L << index;
+		if (((xCells[word] | oCells[word]) & bit) != 0) {
+			throw new IllegalStateException("Can not make move to already marked cell " + ordinal);
+		}
+		if (mark == Mark.X) {
+			xCells[word] |= bit;
+		} else if (mark == Mark.O) {
+			oCells[word] |= bit;
+		} else {
+			throw new IllegalArgumentException("Move can not be made with 'EMPTY' mark");
+		}
+		markedCellsCount++;
+		zobristKeys.update(ordinal, Mark.EMPTY, mark);
+		moveStack[moveCount++] = ordinal;
+	}
+
+	@Override
+	public int popMove() {
+		if (moveCount == 0) {
+			throw new IllegalStateException("There is no move to undo");
+		}
+		int ordinal = moveStack[--moveCount];
+		markCellAt(ordinal, Mark.EMPTY);
+		return ordinal;
+	}
+
+	@Override
+	public int peekMove() {
+		return moveCount == 0 ? 0 : moveStack[moveCount - 1];
+	}
+
+	@Override
+	public int getMoveCount() {
+		return moveCount;
+	}
+
+	@Override
+	public Mark getCellMark(Position position) {
+		return Mark.fromCode(getCellCode(ordinalOf(position)));
+	}
+
+	@Override
+	public byte getCellCode(int ordinal) {
+		return getCodeAt(indexOf(ordinal));
+	}
+
+	private byte getCodeAt(int index) {
+		long bit = 1L << index;
+		if ((xCells[index >>> 6] & bit) != 0) {
+			return Mark.X_CODE;
+		}
+		if ((oCells[index >>> 6] & bit) != 0) {
+			return Mark.O_CODE;
+		}
+		return Mark.EMPTY_CODE;
+	}
+
+	private int ordinalOf(Position position) {
+		Objects.requireNonNull(position,  "Position can not be null");
+		if (!position.isValid() || geometry.position(position.row(), position.column()) != position) {
+			throw new InvalidPositionException("Position is invalid: " + position +
+					". Valid coordinates: row 0 - " + (geometry.rows() - 1)
+					+ ", columns 0 - " + (geometry.columns() - 1));
+		}
+		return position.ordinal();
+	}
+
+	/**
+	 * Returns zero-based bit index of the cell with specified ordinal.
+	 * Only ordinal range is validated here, which is enough to guard bitboard bounds.
+	 */
+	private int indexOf(int ordinal) {
+		int index = ordinal - 1;
+		if (index < 0 || index >= totalCells) {
+			throw new InvalidPositionException("Cell ordinal is invalid: " + ordinal +
+					". Valid ordinals: 1 - " + totalCells);
+		}
+		return index;
+	}
+
+	@Override
+	public Position[] getAdjacentCellsPositionsFor(Position position) {
+		return topology.adjacentCellsOf(position);
+	}
+
+	@Override
+	public BoardGeometry getGeometry() {
+		return geometry;
+	}
+
+	@Override
+	public int getTotalRows() {
+		return geometry.rows();
+	}
+
+	@Override
+	public int getTotalColumns() {
+		return geometry.columns();
+	}
+
+	@Override
+	public int getTotalCells() {
+		return totalCells;
+	}
+
+	/**
+	 * Returns number of {@code long} words in bitboard of a single player.
+	 */
+	public int getBitboardWords() {
+		return bitboardWords;
+	}
+
+	@Override
+	public int getMarkedCellsCount() {
+		return markedCellsCount;
+	}
+
+	@Override
+	public long getZobristKey() {
+		return zobristKeys.key();
+	}
+
+	@Override
+	public long getZobristKey(BoardSymmetry symmetry) {
+		Objects.requireNonNull(symmetry,  "BoardSymmetry can not be null");
+		return zobristKeys.key(symmetry);
+	}
+
+	@Override
+	public BoardSymmetry getCanonicalSymmetry() {
+		return zobristKeys.canonicalSymmetry();
+	}
+
+	@Override
+	public long getCanonicalKey() {
+		return zobristKeys.canonicalKey();
+	}
+
+	/**
+	 * Returns specified word of the bitboard for cells marked with specified mark.
+	 * For {@link Mark#EMPTY} it's a bitboard of the empty cells.
+	 *
+	 * @param mark mark which cells bitboard should be returned
+	 * @param word zero-based index of the word, from 0 to {@code getBitboardWords() - 1}
+	 */
+	public long getBitboardWord(Mark mark, int word) {
+		Objects.requireNonNull(mark,  "Mark can not be null");
+
+		if (mark == Mark.X) {
+			return xCells[word];
+		}
+		if (mark == Mark.O) {
+			return oCells[word];
+		}
+		long empty = ~(xCells[word] | oCells[word]);
+		return word == bitboardWords - 1 ? empty & lastWordMask : empty;
+	}
+
+	/**
+	 * Copies bitboard for cells marked with specified mark into given array
+	 * without allocating any memory.
+	 *
+	 * @param mark mark which cells bitboard should be copied
+	 * @param target array with at least {@link #getBitboardWords()} elements
+	 */
+	public void copyBitboard(Mark mark, long[] target) {
+		for (int word = 0; word < bitboardWords; word++) {
+			target[word] = getBitboardWord(mark, word);
+		}
+	}
+
+	/**
+	 * Returns copy of the bitboard for cells marked with specified mark.
+	 */
+	public long[] getBitboard(Mark mark) {
+		long[] bitboard = new long[bitboardWords];
+		copyBitboard(mark, bitboard);
+		return bitboard;
+	}
+
+}
@@ -4,6 +4,7 @@ import java.util.Objects;
 import java.util.Random;
 
 import com.revenat.game.gomoku.domain.AIGameOpponent;
+import com.revenat.game.gomoku.domain.BoardGeometry;
 import com.revenat.game.gomoku.domain.DifficultyLevel;
 import com.revenat.game.gomoku.domain.GameTable;
 import com.revenat.game.gomoku.domain.Mark;
@@ -11,7 +12,7 @@ import com.revenat.game.gomoku.domain.Position;
 
 /**
  * Represents default implementation of the AI opponent in Gomoku game which is capable of making the best
- * possible turn against its opponent.
+ * possible turn against its opponent. Supports only {@link BoardGeometry#STANDARD standard} game table.
  * 
  * @author Vitaly Dragun
  *
@@ -27,13 +28,16 @@ public class DefaultGomokuAIGameOpponent implements AIGameOpponent {
 	 * to get next adjacent {@link Position} in some secondary diagonal on {@link GameTable}
 	 */
 	private static final int NEXT_IN_SECOND_DIAG_INCREMENT = 14;
-	private static final Position NOT_FOUND = Position.from(-1);
+	private static final Position NOT_FOUND = Position.NOT_FOUND;
 
 	private final GameTable gameTable;
 	private DifficultyLevel level = DifficultyLevel.EASY;
 
 	public DefaultGomokuAIGameOpponent(GameTable gameTable) {
 		Objects.requireNonNull(gameTable, "GameTable can not be null.");
+		if (gameTable.getGeometry() != BoardGeometry.STANDARD) {
+			throw new IllegalArgumentException("Only standard game table is supported, not " + gameTable.getGeometry());
+		}
 		this.gameTable = gameTable;
 	}
 	
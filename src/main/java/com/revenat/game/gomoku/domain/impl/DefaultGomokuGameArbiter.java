@@ -3,6 +3,7 @@ package com.revenat.game.gomoku.domain.impl;
 import java.util.Arrays;
 import java.util.Objects;
 
+import com.revenat.game.gomoku.domain.BoardGeometry;
 import com.revenat.game.gomoku.domain.GameArbiter;
 import com.revenat.game.gomoku.domain.GameTable;
 import com.revenat.game.gomoku.domain.Mark;
@@ -10,7 +11,8 @@ import com.revenat.game.gomoku.domain.Position;
 
 /**
  * Default implementation of {@link GameArbiter} specific to
- * Gomoku game.
+ * Gomoku game. Supports only {@link BoardGeometry#STANDARD standard}
+ * game table.
  * 
  * @author Vitaly Dragun
  *
@@ -50,6 +52,9 @@ public class DefaultGomokuGameArbiter implements GameArbiter {
 	
 	public DefaultGomokuGameArbiter(GameTable gameTable) {
 		Objects.requireNonNull(gameTable, "GameTable can not be null.");
+		if (gameTable.getGeometry() != BoardGeometry.STANDARD) {
+			throw new IllegalArgumentException("Only standard game table is supported, not " + gameTable.getGeometry());
+		}
 		this.gameTable = gameTable;
 	}
 
@@ -115,7 +120,7 @@ public class DefaultGomokuGameArbiter implements GameArbiter {
 	
 	private CheckResult checkForDraw() {
 		for (int ordinal = 1; ordinal <= gameTable.getTotalCells(); ordinal++) {
-			if (gameTable.isCellEmpty(Position.from(ordinal))) {
+			if (gameTable.isCellEmpty(ordinal)) {
 				return CheckResult.keepOnPlaying();
 			}
 		}
@@ -1,6 +1,7 @@
 package com.revenat.game.gomoku.domain.impl;
 
 import java.util.Objects;
+import java.util.concurrent.Executor;
 
 import com.revenat.game.gomoku.domain.AIGameOpponent;
 import com.revenat.game.gomoku.domain.GameMode;
@@ -41,4 +42,20 @@ public final class GameMods {
 		
 		return new AIOpponentGameMode(gameSession, opponent);
 	}
+	
+	/**
+	 * Return {@link GameMode} implementation for playing against AI computer
+	 * opponent which determines its turns asynchronously.
+	 * 
+	 * @param gameSession    reference to specific {@link GameSession} for which given
+	 *                       game mode will be applied.
+	 * @param opponent       realization of the {@link AIGameOpponent} which contains
+	 *                       an algorithm to help AI opponent to play against player.
+	 * @param searchExecutor executor to determine AI turns on
+	 * @param resultExecutor executor to make determined AI turns on
+	 */
+	public static GameMode asyncComputerOpponent(GameSession gameSession, AIGameOpponent opponent,
+			Executor searchExecutor, Executor resultExecutor) {
+		return new AIOpponentGameMode(gameSession, opponent, searchExecutor, resultExecutor);
+	}
 }
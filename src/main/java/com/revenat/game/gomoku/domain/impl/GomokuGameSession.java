@@ -2,6 +2,8 @@ package com.revenat.game.gomoku.domain.impl;
 
 import static java.util.Objects.requireNonNull;
 
+import java.util.function.Consumer;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -13,11 +15,15 @@ import com.revenat.game.gomoku.domain.GameTable;
 import com.revenat.game.gomoku.domain.Mark;
 import com.revenat.game.gomoku.domain.Position;
 import com.revenat.game.gomoku.domain.GameArbiter.CheckResult;
-import com.revenat.game.gomoku.infra.Announcer;
+import com.revenat.game.gomoku.infra.ConcurrentAnnouncer;
 
 /**
  * Implementation of {@link GameSession}, responsible for managing Gomoku game
  * session.
+ * <p>
+ * Exception thrown by a listener is logged and neither stops the other listeners
+ * from being notified nor interrupts the turn, so that the game mode always learns
+ * its result, e.g. when {@link AsyncGameEventDispatcher} fails on a full buffer.
  * 
  * @author Vitaly Dragun
  *
@@ -27,12 +33,13 @@ public class GomokuGameSession implements GameSession {
 	
 	private final GameTable gameTable;
 	private final GameArbiter arbiter;
-	private final Announcer<GameEventListener> listeners = Announcer.to(GameEventListener.class);
+	private final ConcurrentAnnouncer<GameEventListener> listeners = new ConcurrentAnnouncer<>();
 	
 	/**
 	 * Default game mode - against another player
 	 */
 	private GameMode gameMode = GameMods.playerOpponent();
+	private boolean gameOver;
 
 	public GomokuGameSession(GameTable gameTable, GameArbiter arbiter) {
 		requireNonNull(gameTable, "GameTable can not be null.");
@@ -48,6 +55,11 @@ public class GomokuGameSession implements GameSession {
 		listeners.addListener(listener);
 	}
 	
+	@Override
+	public void removeListener(GameEventListener listener) {
+		listeners.removeListener(listener);
+	}
+	
 	@Override
 	public void setGameMode(GameMode gameMode) {
 		requireNonNull(gameMode, "GameMode can not be null");
@@ -56,7 +68,9 @@ public class GomokuGameSession implements GameSession {
 	
 	@Override
 	public void startNewGame() {
+		gameMode.cancelTurn();
 		clearGameTable();
+		gameOver = false;
 		gameMode.startGame();
 		LOG.info("Start new game session.");
 	}
@@ -64,42 +78,94 @@ public class GomokuGameSession implements GameSession {
 	@Override
 	public void processPlayerTurn(Position position) {
 		requireNonNull(position, "Turn position can not be null.");
+		if (!gameMode.isAwaitingPlayer()) {
+			LOG.debug("Turn to position {} is ignored while {} determines the turn", position, gameMode);
+			return;
+		}
+		if (gameOver) {
+			LOG.debug("Turn to position {} is ignored as the game is over", position);
+			return;
+		}
 		LOG.debug("Player '{}' chooses position {} to make turn to", gameMode.getCurrentPlayer(), position);
 		
 		if (isCellOccupied(position)) {
 			LOG.warn("Player '{}' chose already occupied position {} to make turn to.",
 					gameMode.getCurrentPlayer(), position);
-			listeners.announce().invalidTurnPosition(position);
+			announce(listener -> listener.invalidTurnPosition(position));
 			return;
 		}
 		
-		boolean gameOver = handleTurnTo(position);
+		gameOver = handleTurnTo(position);
 		gameMode.handleTurnResult(gameOver);
 	}	
 	
+	@Override
+	public boolean undoLastTurn() {
+		if (!gameMode.isAwaitingPlayer()) {
+			LOG.debug("Undo is ignored while {} determines the turn", gameMode);
+			return false;
+		}
+		if (gameTable.getMoveCount() == 0) {
+			LOG.debug("There is no turn to undo.");
+			return false;
+		}
+		Position position = gameTable.getGeometry().position(gameTable.peekMove());
+		Mark playerMark = gameTable.getCellMark(position);
+		gameTable.popMove();
+		gameOver = false;
+		announce(listener -> listener.turnIsUndone(position, playerMark));
+		LOG.info("Turn of the player '{}' to position {} is undone", playerMark, position);
+		
+		gameMode.handleTurnUndone();
+		return true;
+	}
+	
+	@Override
+	public void abortTurn() {
+		gameMode.abortTurn();
+	}
+	
+	@Override
+	public void reportTurnFailure(Mark player, String reason) {
+		requireNonNull(player, "Player mark can not be null.");
+		requireNonNull(reason, "Failure reason can not be null.");
+		LOG.warn("Player '{}' failed to make turn: {}", player, reason);
+		announce(listener -> listener.turnIsFailed(player, reason));
+	}
+	
 	private boolean handleTurnTo(Position position) {
 		Mark currentPlayer = gameMode.getCurrentPlayer();
 		takeTurn(position, currentPlayer);
-		listeners.announce().turnIsMade(position, currentPlayer);
+		announce(listener -> listener.turnIsMade(position, currentPlayer));
 		LOG.info("Player '{}' made turn to position {}", currentPlayer, position);
 		
-		CheckResult checkResult = arbiter.checkForGameOver();
+		CheckResult checkResult = arbiter.checkForGameOver(position);
 		if (checkResult.isWinner()) {
 			Position[] winningCombination = checkResult.getWinningCombination();
 			LOG.info("Game over. Winner: '{}' with winning combination {}", currentPlayer, winningCombination);
-			listeners.announce().winnerIsFound(currentPlayer, winningCombination);
+			announce(listener -> listener.winnerIsFound(currentPlayer, winningCombination));
 			return true;
 		} else if (checkResult.isDraw()) {
 			LOG.info("Game over. Is is a draw.");
-			listeners.announce().draw();
+			announce(GameEventListener::draw);
 			return true;
 		}
 		
 		return false;
 	}
 
+	private void announce(Consumer<GameEventListener> event) {
+		listeners.announce(listener -> {
+			try {
+				event.accept(listener);
+			} catch (RuntimeException e) {
+				LOG.error("Error in the game event listener {}", listener, e);
+			}
+		});
+	}
+
 	private void takeTurn(Position position, Mark playerMark) {
-		gameTable.markCellAt(position, playerMark);
+		gameTable.pushMove(position.ordinal(), playerMark);
 	}
 
 	private void clearGameTable() {
@@ -1,38 +1,61 @@
 package com.revenat.game.gomoku.domain.impl;
 
+import java.util.Arrays;
 import java.util.Objects;
 
+import com.revenat.game.gomoku.domain.BoardGeometry;
+import com.revenat.game.gomoku.domain.BoardSymmetry;
 import com.revenat.game.gomoku.domain.GameTable;
 import com.revenat.game.gomoku.domain.Mark;
 import com.revenat.game.gomoku.domain.Position;
 
 /**
- * Represents game table (grid) for 15x15 Gomoku game.
+ * Represents game table (grid) for Gomoku game which stores
+ * cell marks in array indexed by {@link Position} ordinal.
  * 
  * @author Vitaly Dragun
  *
  */
 public class GomokuGameTable implements GameTable {
-	private static final int TOTAL_ROWS = 15;
-	private static final int TOTAL_COLUMNS = 15;
-	private static final int TOTAL_CELLS = 225;
-	
-	private final Mark[][] gameTable = new Mark[TOTAL_ROWS][TOTAL_COLUMNS];
+	private final BoardGeometry geometry;
+	private final GomokuTableTopology topology;
+	/**
+	 * Cell marks indexed by position ordinal, element 0 is not used
+	 */
+	private final Mark[] gameTable;
+	/**
+	 * Ordinals of the cells of the pushed moves, from the first to the last one
+	 */
+	private final int[] moveStack;
+	private final SymmetricZobristKeys zobristKeys;
+	private int moveCount;
+	private int markedCellsCount;
 	
 	/**
-	 * Constructs game table with specific number of rows
-	 * and columns
+	 * Constructs game table of the standard geometry
 	 */
 	public GomokuGameTable() {	
+		this(BoardGeometry.STANDARD);
+	}
+	
+	/**
+	 * Constructs game table of the specified geometry
+	 */
+	public GomokuGameTable(BoardGeometry geometry) {
+		Objects.requireNonNull(geometry, "BoardGeometry can not be null.");
+		this.geometry = geometry;
+		this.topology = GomokuTableTopology.of(geometry);
+		this.gameTable = new Mark[geometry.totalCells() + 1];
+		this.moveStack = new int[geometry.totalCells()];
+		this.zobristKeys = new SymmetricZobristKeys(topology);
 		buildEmptyGameTable();
 	}
 
 	private void buildEmptyGameTable() {
-		for (int row = 0; row < TOTAL_ROWS; row++) {
-			for (int column = 0; column < TOTAL_COLUMNS; column++) {
-				gameTable[row][column] = Mark.EMPTY;
-			}
-		}
+		Arrays.fill(gameTable, Mark.EMPTY);
+		moveCount = 0;
+		markedCellsCount = 0;
+		zobristKeys.clear();
 	}
 
 	@Override
@@ -42,158 +65,167 @@ public class GomokuGameTable implements GameTable {
 	
 	@Override
 	public boolean isCellEmpty(Position position) {
-		checkPosition(position);
+		return isCellEmpty(ordinalOf(position));
+	}
+	
+	@Override
+	public boolean isCellEmpty(int ordinal) {
+		checkOrdinal(ordinal);
 		
-		return getCellAt(position) == Mark.EMPTY;
+		return gameTable[ordinal] == Mark.EMPTY;
 	}
 	
-	private static void checkPosition(Position position) {
+	private int ordinalOf(Position position) {
 		Objects.requireNonNull(position,  "Position can not be null");
-		if (!position.isValid()) {
+		if (!position.isValid() || geometry.position(position.row(), position.column()) != position) {
 			throw new InvalidPositionException("Position is invalid: " + position +
-					". Valid coordinates: row 0 - 14, columns 0 - 14");
+					". Valid coordinates: row 0 - " + (geometry.rows() - 1)
+					+ ", columns 0 - " + (geometry.columns() - 1));
+		}
+		return position.ordinal();
+	}
+	
+	private void checkOrdinal(int ordinal) {
+		if (ordinal < 1 || ordinal >= gameTable.length) {
+			throw new InvalidPositionException("Cell ordinal is invalid: " + ordinal +
+					". Valid ordinals: 1 - " + (gameTable.length - 1));
 		}
 	}
 	
 	@Override
 	public boolean isCellMarked(Position position, Mark mark) {
-		checkPosition(position);
+		return isCellMarked(ordinalOf(position), mark);
+	}
+	
+	@Override
+	public boolean isCellMarked(int ordinal, Mark mark) {
+		checkOrdinal(ordinal);
 		Objects.requireNonNull(mark,  "Mark to check can not be null");
 		
-		return getCellAt(position) == mark;
+		return gameTable[ordinal] == mark;
 	}
 	
-	private Mark getCellAt(Position position) {
-		return gameTable[position.row()][position.column()];
+	@Override
+	public void markCellAt(Position position, Mark mark) {
+		markCellAt(ordinalOf(position), mark);
 	}
 	
 	@Override
-	public void markCellAt(Position position, Mark mark) {
-		checkPosition(position);
+	public void markCellAt(int ordinal, Mark mark) {
+		checkOrdinal(ordinal);
 		Objects.requireNonNull(mark,  "Mark can not be null");
 		
-		gameTable[position.row()][position.column()] = mark;
+		Mark previous = gameTable[ordinal];
+		updateMarkedCellsCount(previous, mark);
+		zobristKeys.update(ordinal, previous, mark);
+		gameTable[ordinal] = mark;
+	}
+	
+	private void updateMarkedCellsCount(Mark previous, Mark current) {
+		if (previous == Mark.EMPTY && current != Mark.EMPTY) {
+			markedCellsCount++;
+		} else if (previous != Mark.EMPTY && current == Mark.EMPTY) {
+			markedCellsCount--;
+		}
+	}
+	
+	@Override
+	public void pushMove(int ordinal, Mark mark) {
+		checkOrdinal(ordinal);
+		Objects.requireNonNull(mark,  "Mark can not be null");
+		if (mark == Mark.EMPTY) {
+			throw new IllegalArgumentException("Move can not be made with 'EMPTY' mark");
+		}
+		if (gameTable[ordinal] != Mark.EMPTY) {
+			throw new IllegalStateException("Can not make move to already marked cell " + ordinal);
+		}
+		
+		gameTable[ordinal] = mark;
+		markedCellsCount++;
+		zobristKeys.update(ordinal, Mark.EMPTY, mark);
+		moveStack[moveCount++] = ordinal;
+	}
+	
+	@Override
+	public int popMove() {
+		if (moveCount == 0) {
+			throw new IllegalStateException("There is no move to undo");
+		}
+		int ordinal = moveStack[--moveCount];
+		markCellAt(ordinal, Mark.EMPTY);
+		return ordinal;
+	}
+	
+	@Override
+	public int peekMove() {
+		return moveCount == 0 ? 0 : moveStack[moveCount - 1];
+	}
+	
+	@Override
+	public int getMoveCount() {
+		return moveCount;
 	}
 	
 	@Override
 	public Mark getCellMark(Position position) {
-		checkPosition(position);
-		return getCellAt(position);
+		return gameTable[ordinalOf(position)];
+	}
+	
+	@Override
+	public byte getCellCode(int ordinal) {
+		checkOrdinal(ordinal);
+		return gameTable[ordinal].code();
 	}
 
 	@Override
 	public Position[] getAdjacentCellsPositionsFor(Position position) {
-		Objects.requireNonNull(position,  "Position can not be null");
-		
-		if (!position.isValid()) {
-			return new Position[0];
-		}
-		
-		if (isCornerCell(position)) {
-			return getAdjacentCellsPositionsForCornerCell(position);
-		}
-		else if (isPerimeterCell(position)) {
-			return getAdjacentCellsPositionsForPerimeterCell(position);
-		}
-		else {
-			return getAdjacentCellsPositionsForInnerCell(position);
-		}
+		return topology.adjacentCellsOf(position);
+	}
+
+	@Override
+	public BoardGeometry getGeometry() {
+		return geometry;
 	}
 
 	@Override
 	public int getTotalRows() {
-		return TOTAL_ROWS;
+		return geometry.rows();
 	}
 
 	@Override
 	public int getTotalColumns() {
-		return TOTAL_COLUMNS;
+		return geometry.columns();
 	}
 
 	@Override
 	public int getTotalCells() {
-		return TOTAL_CELLS;
-	}
-
-	private static Position[] getAdjacentCellsPositionsForCornerCell(Position position) {
-		if (position.ordinal() == 1) {
-			return new Position[] { Position.from(2), Position.from(17), Position.from(16) };
-		} 
-		else if (position.ordinal() == 15) {
-			return new Position[] { Position.from(14), Position.from(29), Position.from(30) };
-		} 
-		else if (position.ordinal() == 211) {
-			return new Position[] { Position.from(196), Position.from(197), Position.from(212) };
-		}
-		
-		return new Position[] { Position.from(210), Position.from(209), Position.from(224) };
-	}
-	
-	private static Position[] getAdjacentCellsPositionsForPerimeterCell(Position position) {
-		int ordinal = position.ordinal();
-		if (isTopPerimeterCell(position)) {
-			return new Position[] {Position.from(ordinal-1), Position.from(ordinal+1), Position.from(ordinal+14),
-								   Position.from(ordinal+15), Position.from(ordinal+16)};
-		} else if (isBottomPerimeterCell(position)) {
-			return new Position[] {Position.from(ordinal-1), Position.from(ordinal+1), Position.from(ordinal-16),
-								   Position.from(ordinal-15), Position.from(ordinal-14)};
-		} else if (isLeftPerimeterCell(position)) {
-			return new Position[] {Position.from(ordinal-15), Position.from(ordinal+15), Position.from(ordinal-14),
-								   Position.from(ordinal+1), Position.from(ordinal+16)};
-		} else {
-			return new Position[] {Position.from(ordinal-15), Position.from(ordinal+15), Position.from(ordinal-16),
-								   Position.from(ordinal-1), Position.from(ordinal+14)};
-		}
+		return geometry.totalCells();
 	}
 	
-	private static Position[] getAdjacentCellsPositionsForInnerCell(Position position) {
-		int ordinal = position.ordinal();
-		return new Position[] {Position.from(ordinal-16), Position.from(ordinal-15), Position.from(ordinal-14),
-							   Position.from(ordinal+1), Position.from(ordinal+16), Position.from(ordinal+15),
-							   Position.from(ordinal+14), Position.from(ordinal-1)};
-	}
-
-	private static boolean isCornerCell(Position position) {
-		int ordinal = position.ordinal();
-		return ordinal == 1 || ordinal == 15
-				|| ordinal == 211 || ordinal == 225;
+	@Override
+	public int getMarkedCellsCount() {
+		return markedCellsCount;
 	}
 	
-	private static boolean isPerimeterCell(Position position) {
-		return isTopPerimeterCell(position) || isBottomPerimeterCell(position)
-				|| isLeftPerimeterCell(position) || isRightPerimeterCell(position);
+	@Override
+	public long getZobristKey() {
+		return zobristKeys.key();
 	}
 
-	private static boolean isTopPerimeterCell(Position position) {
-		int ordinal = position.ordinal();
-		return ordinal >= 2 && ordinal <= 14;
-	}
-	
-	private static boolean isBottomPerimeterCell(Position position) {
-		int ordinal = position.ordinal();
-		return ordinal >= 212 && ordinal <= 224;
+	@Override
+	public long getZobristKey(BoardSymmetry symmetry) {
+		Objects.requireNonNull(symmetry,  "BoardSymmetry can not be null");
+		return zobristKeys.key(symmetry);
 	}
-	
-	private static boolean isLeftPerimeterCell(Position position) {
-		int[] ordinals = {16, 31, 46, 61, 76, 91, 106, 121, 136, 151, 166, 181, 196};
-		int ordinal = position.ordinal();
-		for (int perimeterOrdinal : ordinals) {
-			if (ordinal == perimeterOrdinal) {
-				return true;
-			}
-		}
-		return false;
+
+	@Override
+	public BoardSymmetry getCanonicalSymmetry() {
+		return zobristKeys.canonicalSymmetry();
 	}
-	
-	private static boolean isRightPerimeterCell(Position position) {
-		int[] ordinals = {30, 45, 60, 75, 90, 105, 120, 135, 150, 165, 180, 195, 210};
-		int ordinal = position.ordinal();
-		for (int perimeterOrdinal : ordinals) {
-			if (ordinal == perimeterOrdinal) {
-				return true;
-			}
-		}
-		return false;
+
+	@Override
+	public long getCanonicalKey() {
+		return zobristKeys.canonicalKey();
 	}
 
 }
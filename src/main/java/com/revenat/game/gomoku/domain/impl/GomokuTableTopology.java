@@ -0,0 +1,251 @@
+package com.revenat.game.gomoku.domain.impl;
+
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.revenat.game.gomoku.domain.BoardGeometry;
+import com.revenat.game.gomoku.domain.BoardSymmetry;
+import com.revenat.game.gomoku.domain.GameTable;
+import com.revenat.game.gomoku.domain.LineDirection;
+import com.revenat.game.gomoku.domain.Position;
+
+/**
+ * Topology index of the Gomoku {@link GameTable} of specific {@link BoardGeometry},
+ * built once per geometry and shared.
+ * <p>
+ * Provides adjacent cells of every cell, all segments of the winning length cells in
+ * a row where winning combination can be built (by rows, columns and both diagonals)
+ * and, for every cell, segments that pass through it and cells it is mapped to by
+ * {@link BoardSymmetry symmetries} of the table. Segments are identified by
+ * zero-based index. Arrays returned by this class are shared and must not be modified.
+ *
+ * @author Vitaly Dragun
+ *
+ */
+public final class GomokuTableTopology {
+	private static final Position[] NO_POSITIONS = new Position[0];
+	private static final int[] NO_SEGMENTS = new int[0];
+	private static final LineDirection[] DIRECTIONS = LineDirection.values();
+	private static final ConcurrentMap<BoardGeometry, GomokuTableTopology> TOPOLOGIES = new ConcurrentHashMap<>();
+
+	private final BoardGeometry geometry;
+	private final int winningCount;
+	private final Position[][] adjacentCells;
+	private final Position[][] segmentCells;
+	private final LineDirection[] segmentDirections;
+	private final int[][] segmentsByDirection = new int[DIRECTIONS.length][];
+	private final int[][] segmentsThroughCell;
+	/**
+	 * Ordinals of the cells every cell is mapped to by each applicable symmetry,
+	 * indexed by symmetry ordinal
+	 */
+	private final int[][] symmetricOrdinals = new int[BoardSymmetry.values().length][];
+
+	private GomokuTableTopology(BoardGeometry geometry) {
+		this.geometry = geometry;
+		this.winningCount = geometry.winLength();
+		this.adjacentCells = new Position[geometry.totalCells() + 1][];
+		this.segmentsThroughCell = new int[geometry.totalCells() + 1][];
+		buildAdjacentCells();
+
+		int totalSegments = 0;
+		for (LineDirection direction : DIRECTIONS) {
+			totalSegments += countSegmentsAlong(direction);
+		}
+		segmentCells = new Position[totalSegments][];
+		segmentDirections = new LineDirection[totalSegments];
+
+		int segment = 0;
+		for (LineDirection direction : DIRECTIONS) {
+			segment = buildSegmentsAlong(direction, segment);
+		}
+		buildSegmentsThroughCells();
+		buildSymmetricOrdinals();
+	}
+
+	/**
+	 * Returns topology of the table with specified geometry.
+	 */
+	public static GomokuTableTopology of(BoardGeometry geometry) {
+		Objects.requireNonNull(geometry, "BoardGeometry can not be null.");
+		return TOPOLOGIES.computeIfAbsent(geometry, GomokuTableTopology::new);
+	}
+
+	private void buildAdjacentCells() {
+		Position[] buffer = new Position[8];
+		for (int ordinal = 1; ordinal <= geometry.totalCells(); ordinal++) {
+			Position position = geometry.position(ordinal);
+			int count = 0;
+			for (int rowOffset = -1; rowOffset <= 1; rowOffset++) {
+				for (int columnOffset = -1; columnOffset <= 1; columnOffset++) {
+					Position adjacent = geometry.position(position.row() + rowOffset, position.column() + columnOffset);
+					if (adjacent.isValid() && adjacent != position) {
+						buffer[count++] = adjacent;
+					}
+				}
+			}
+			Position[] cells = new Position[count];
+			System.arraycopy(buffer, 0, cells, 0, count);
+			adjacentCells[ordinal] = cells;
+		}
+	}
+
+	private int countSegmentsAlong(LineDirection direction) {
+		int count = 0;
+		for (int ordinal = 1; ordinal <= geometry.totalCells(); ordinal++) {
+			if (isSegmentStart(geometry.position(ordinal), direction)) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Builds segments along specified direction, ordered by row and then by column
+	 * of the rows and diagonals start cell, and by column and then by row for columns.
+	 */
+	private int buildSegmentsAlong(LineDirection direction, int firstSegment) {
+		int[] segments = new int[countSegmentsAlong(direction)];
+		int segment = firstSegment;
+		boolean byColumns = direction == LineDirection.COLUMN;
+		int outerSize = byColumns ? geometry.columns() : geometry.rows();
+		int innerSize = byColumns ? geometry.rows() : geometry.columns();
+		for (int outer = 0; outer < outerSize; outer++) {
+			for (int inner = 0; inner < innerSize; inner++) {
+				Position start = byColumns
+						? geometry.position(inner, outer)
+						: geometry.position(outer, inner);
+				if (isSegmentStart(start, direction)) {
+					segmentCells[segment] = segmentFrom(start, direction);
+					segmentDirections[segment] = direction;
+					segments[segment - firstSegment] = segment;
+					segment++;
+				}
+			}
+		}
+		segmentsByDirection[direction.ordinal()] = segments;
+		return segment;
+	}
+
+	private boolean isSegmentStart(Position start, LineDirection direction) {
+		int lastRow = start.row() + (winningCount - 1) * direction.rowIncrement();
+		int lastColumn = start.column() + (winningCount - 1) * direction.columnIncrement();
+		return geometry.contains(lastRow, lastColumn);
+	}
+
+	private Position[] segmentFrom(Position start, LineDirection direction) {
+		Position[] cells = new Position[winningCount];
+		for (int i = 0; i < winningCount; i++) {
+			cells[i] = geometry.position(start.row() + i * direction.rowIncrement(),
+					start.column() + i * direction.columnIncrement());
+		}
+		return cells;
+	}
+
+	private void buildSegmentsThroughCells() {
+		int[] counts = new int[geometry.totalCells() + 1];
+		for (Position[] cells : segmentCells) {
+			for (Position cell : cells) {
+				counts[cell.ordinal()]++;
+			}
+		}
+		for (int ordinal = 1; ordinal <= geometry.totalCells(); ordinal++) {
+			segmentsThroughCell[ordinal] = new int[counts[ordinal]];
+			counts[ordinal] = 0;
+		}
+		for (int segment = 0; segment < segmentCells.length; segment++) {
+			for (Position cell : segmentCells[segment]) {
+				int ordinal = cell.ordinal();
+				segmentsThroughCell[ordinal][counts[ordinal]++] = segment;
+			}
+		}
+	}
+
+	private void buildSymmetricOrdinals() {
+		for (BoardSymmetry symmetry : BoardSymmetry.applicableTo(geometry)) {
+			int[] ordinals = new int[geometry.totalCells() + 1];
+			for (int ordinal = 1; ordinal <= geometry.totalCells(); ordinal++) {
+				ordinals[ordinal] = symmetry.apply(geometry, ordinal);
+			}
+			symmetricOrdinals[symmetry.ordinal()] = ordinals;
+		}
+	}
+
+	/**
+	 * Returns geometry of the table this topology describes.
+	 */
+	public BoardGeometry geometry() {
+		return geometry;
+	}
+
+	/**
+	 * Returns how many adjacent cells should be marked with the same not {@code EMPTY}
+	 * mark to represent a winning combination, which is also the length of every segment.
+	 */
+	public int winningCount() {
+		return winningCount;
+	}
+
+	/**
+	 * Returns {@link Position}s for all cells adjacent to the cell at specified position,
+	 * or empty array if position is invalid.
+	 */
+	public Position[] adjacentCellsOf(Position position) {
+		Objects.requireNonNull(position,  "Position can not be null");
+		return position.isValid() ? adjacentCells[position.ordinal()] : NO_POSITIONS;
+	}
+
+	/**
+	 * Returns total number of segments where winning combination can be built.
+	 */
+	public int segmentCount() {
+		return segmentCells.length;
+	}
+
+	/**
+	 * Returns {@link Position}s of the cells that form specified segment, in order
+	 * along the segment's direction.
+	 */
+	public Position[] segmentCells(int segment) {
+		return segmentCells[segment];
+	}
+
+	/**
+	 * Returns direction of the specified segment.
+	 */
+	public LineDirection segmentDirection(int segment) {
+		return segmentDirections[segment];
+	}
+
+	/**
+	 * Returns all segments that go along specified direction.
+	 */
+	public int[] segmentsAlong(LineDirection direction) {
+		return segmentsByDirection[direction.ordinal()];
+	}
+
+	/**
+	 * Returns ordinals of the cells every cell is mapped to by specified symmetry,
+	 * indexed by cell ordinal.
+	 *
+	 * @throws IllegalArgumentException if symmetry is not applicable to the table
+	 */
+	public int[] symmetricOrdinals(BoardSymmetry symmetry) {
+		Objects.requireNonNull(symmetry,  "BoardSymmetry can not be null");
+		int[] ordinals = symmetricOrdinals[symmetry.ordinal()];
+		if (ordinals == null) {
+			throw new IllegalArgumentException(symmetry + " is not applicable to table " + geometry);
+		}
+		return ordinals;
+	}
+
+	/**
+	 * Returns all segments that pass through the cell at specified position,
+	 * or empty array if position is invalid.
+	 */
+	public int[] segmentsThrough(Position position) {
+		Objects.requireNonNull(position,  "Position can not be null");
+		return position.isValid() ? segmentsThroughCell[position.ordinal()] : NO_SEGMENTS;
+	}
+}
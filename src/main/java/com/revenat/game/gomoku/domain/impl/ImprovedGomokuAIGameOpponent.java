@@ -2,15 +2,16 @@ package com.revenat.game.gomoku.domain.impl;
 
 import static java.util.Objects.requireNonNull;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Random;
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.revenat.game.gomoku.domain.AIGameOpponent;
+import com.revenat.game.gomoku.domain.BoardGeometry;
 import com.revenat.game.gomoku.domain.GameTable;
+import com.revenat.game.gomoku.domain.LineDirection;
 import com.revenat.game.gomoku.domain.Mark;
 import com.revenat.game.gomoku.domain.Position;
 
@@ -24,15 +25,44 @@ import com.revenat.game.gomoku.domain.Position;
 public class ImprovedGomokuAIGameOpponent implements AIGameOpponent {
 	private static final Logger LOG = LoggerFactory.getLogger(ImprovedGomokuAIGameOpponent.class);
 	
-	private static final int WINNING_COUNT = 5;
-	private static final int TABLE_SIZE = 15;
-	private static final Position NOT_FOUND = Position.from(-1);
+	private static final LineDirection[] DIRECTIONS = {
+			LineDirection.ROW, LineDirection.COLUMN, LineDirection.SECONDARY_DIAGONAL, LineDirection.MAIN_DIAGONAL
+	};
+	private static final Position NOT_FOUND = Position.NOT_FOUND;
 
 	private final GameTable gameTable;
+	private final GomokuTableTopology topology;
+	/**
+	 * Segments inspected along every direction, indexed by direction ordinal
+	 */
+	private final int[][] inspectedSegments = new int[LineDirection.values().length][];
 
 	public ImprovedGomokuAIGameOpponent(GameTable gameTable) {
 		requireNonNull(gameTable, "GameTable can not be null.");
 		this.gameTable = gameTable;
+		this.topology = GomokuTableTopology.of(gameTable.getGeometry());
+		for (LineDirection direction : LineDirection.values()) {
+			inspectedSegments[direction.ordinal()] = inspectedSegmentsAlong(direction);
+		}
+	}
+
+	/**
+	 * Returns segments along the direction this opponent inspects. It has always stopped
+	 * advancing the window two cells before the last possible start, i.e. start row and
+	 * column in the direction of advance are less than {@code size - winningCount - 1},
+	 * so segments at the bottom and right edges of the table are not inspected.
+	 */
+	private int[] inspectedSegmentsAlong(LineDirection direction) {
+		BoardGeometry geometry = topology.geometry();
+		int rowBound = geometry.rows() - topology.winningCount() - 1;
+		int columnBound = geometry.columns() - topology.winningCount() - 1;
+		return Arrays.stream(topology.segmentsAlong(direction))
+				.filter(segment -> {
+					Position start = topology.segmentCells(segment)[0];
+					return (direction.rowIncrement() == 0 || start.row() < rowBound)
+							&& (direction.columnIncrement() <= 0 || start.column() < columnBound);
+				})
+				.toArray();
 	}
 
 	@Override
@@ -43,7 +73,7 @@ public class ImprovedGomokuAIGameOpponent implements AIGameOpponent {
 		
 		Mark[] players = {playerMark, playerMark.getOpponent()};
 		
-		for (int notEmptyCount = WINNING_COUNT-1; notEmptyCount > 0; notEmptyCount--) {
+		for (int notEmptyCount = topology.winningCount()-1; notEmptyCount > 0; notEmptyCount--) {
 			for (Mark player : players) {
 				Position position = tryMakeTurn(player, notEmptyCount);
 				if (positionIsFound(position)) {
@@ -59,187 +89,70 @@ public class ImprovedGomokuAIGameOpponent implements AIGameOpponent {
 		LOG.trace("AI opponent tries to find a free position among {} cell(s) already marked with {}",
 				notEmptyCount, player);
 		
-		Position position = tryMakeTurnByRow(player, notEmptyCount);
-		if (positionIsFound(position)) {
-			LOG.debug("AI opponent finds a free position {} in a row among {} cell(s) marked with {}",
-					position, notEmptyCount, player);
-			return position;
-		}
-		position = tryMakeTurnByColumn(player, notEmptyCount);
-		if (positionIsFound(position)) {
-			LOG.debug("AI opponent finds a free position {} in a column among {} cell(s) marked with {}",
-					position, notEmptyCount, player);
-			return position;
-		}
-		position = tryMakeTurnBySecondaryDiagonal(player, notEmptyCount);
-		if (positionIsFound(position)) {
-			LOG.debug("AI opponent finds a free position {} in a secondary diagonal among {} cell(s) marked with {}",
-					position, notEmptyCount, player);
-			return position;
-		}
-		position = tryMakeTurnByMainDiagonal(player, notEmptyCount);
-		if (positionIsFound(position)) {
-			LOG.debug("AI opponent finds a free position {} in a main diagonal among {} cell(s) marked with {}",
-					position, notEmptyCount, player);
-			return position;
+		for (LineDirection direction : DIRECTIONS) {
+			Position position = tryMakeTurnAlong(direction, player, notEmptyCount);
+			if (positionIsFound(position)) {
+				LOG.debug("AI opponent finds a free position {} in a {} among {} cell(s) marked with {}",
+						position, direction, notEmptyCount, player);
+				return position;
+			}
 		}
 		
 		LOG.trace("AI opponent failes to find any free position among {} cell(s) marked with {}", notEmptyCount, player);
 		return NOT_FOUND;
 	}
 
-
-	private Position tryMakeTurnByRow(Mark player, int notEmptyCount) {
-		LOG.trace("AI opponent tries to find a free position in row among {} cell(s) already marked with {}",
-				notEmptyCount, player);
-		
-		for (int row = 0; row < TABLE_SIZE; row++) {
-			for (int col = 0; col < TABLE_SIZE - WINNING_COUNT - 1; col++) {
-				boolean hasEmptyCells = false;
-				int matchedCount = 0;
-				List<Position> inspectedCells = new ArrayList<>();
-				for (int increment = 0; increment < WINNING_COUNT; increment++) {
-					Position position = Position.from(row, col + increment);
-					inspectedCells.add(position);
-					if (isMarkedWith(position, player)) {
-						matchedCount++;
-					} else if (isEmpty(position)) {
-						hasEmptyCells = true;
-					} else {
-						hasEmptyCells = false;
-						break;
-					}
-				}
-				if (matchedCount == notEmptyCount && hasEmptyCells) {
-					return findEmptyPositionForTurn(inspectedCells);
-				}
-			}
-		}
-		
-		LOG.trace("AI opponent failes to find a free position in row among {} cell(s) already marked with {}",
-				notEmptyCount, player);
-		return NOT_FOUND;
-	}
-	
-	private Position tryMakeTurnByColumn(Mark player, int notEmptyCount) {
-		LOG.trace("AI opponent tries to find a free position in column among {} cell(s) already marked with {}",
-				notEmptyCount, player);
-		
-		for (int col = 0; col < TABLE_SIZE; col++) {
-			for (int row = 0; row < TABLE_SIZE - WINNING_COUNT - 1; row++) {
-				boolean hasEmptyCells = false;
-				int matchedCount = 0;
-				List<Position> inspectedCells = new ArrayList<>();
-				for (int increment = 0; increment < WINNING_COUNT; increment++) {
-					Position position = Position.from(row + increment, col);
-					inspectedCells.add(position);
-					if (isMarkedWith(position, player)) {
-						matchedCount++;
-					} else if (isEmpty(position)) {
-						hasEmptyCells = true;
-					} else {
-						hasEmptyCells = false;
-						break;
-					}
-				}
-				if (matchedCount == notEmptyCount && hasEmptyCells) {
-					return findEmptyPositionForTurn(inspectedCells);
+	private Position tryMakeTurnAlong(LineDirection direction, Mark player, int notEmptyCount) {
+		LOG.trace("AI opponent tries to find a free position in {} among {} cell(s) already marked with {}",
+				direction, notEmptyCount, player);
+		
+		for (int segment : inspectedSegments[direction.ordinal()]) {
+			Position[] inspectedCells = topology.segmentCells(segment);
+			boolean hasEmptyCells = false;
+			int matchedCount = 0;
+			for (Position position : inspectedCells) {
+				if (isMarkedWith(position, player)) {
+					matchedCount++;
+				} else if (isEmpty(position)) {
+					hasEmptyCells = true;
+				} else {
+					hasEmptyCells = false;
+					break;
 				}
 			}
-		}
-		
-		LOG.trace("AI opponent failes to find a free position in row among {} cell(s) already marked with {}",
-				notEmptyCount, player);
-		return NOT_FOUND;
-	}
-	
-	private Position tryMakeTurnByMainDiagonal(Mark player, int notEmptyCount) {
-		LOG.trace("AI opponent tries to find a free position in main diagonal among {} cell(s) already marked with {}",
-				notEmptyCount, player);
-		
-		for (int row = 0; row < TABLE_SIZE - WINNING_COUNT - 1; row++) {
-			for (int col = 0; col < TABLE_SIZE - WINNING_COUNT - 1; col++) {
-				boolean hasEmptyCells = false;
-				int matchedCount = 0;
-				List<Position> inspectedCells = new ArrayList<>();
-				for (int increment = 0; increment < WINNING_COUNT; increment++) {
-					Position position = Position.from(row + increment, col + increment);
-					inspectedCells.add(position);
-					if (isMarkedWith(position, player)) {
-						matchedCount++;
-					} else if (isEmpty(position)) {
-						hasEmptyCells = true;
-					} else {
-						hasEmptyCells = false;
-						break;
-					}
-				}
-				if (matchedCount == notEmptyCount && hasEmptyCells) {
-					return findEmptyPositionForTurn(inspectedCells);
-				}
+			if (matchedCount == notEmptyCount && hasEmptyCells) {
+				return findEmptyPositionForTurn(inspectedCells);
 			}
 		}
 		
-		LOG.trace("AI opponent failes to find a free position in main diagonal among {} cell(s) already marked with {}",
-				notEmptyCount, player);
-		return NOT_FOUND;
-	}
-	
-	private Position tryMakeTurnBySecondaryDiagonal(Mark player, int notEmptyCount) {
-		LOG.trace("AI opponent tries to find a free position in secondary diagonal among {} cell(s) already marked with {}",
-				notEmptyCount, player);
-		
-		for (int row = 0; row < TABLE_SIZE - WINNING_COUNT - 1; row++) {
-			for (int col = WINNING_COUNT - 1; col < TABLE_SIZE; col++) {
-				boolean hasEmptyCells = false;
-				int matchedCount = 0;
-				List<Position> inspectedCells = new ArrayList<>();
-				for (int increment = 0; increment < WINNING_COUNT; increment++) {
-					Position position = Position.from(row + increment, col - increment);
-					inspectedCells.add(position);
-					if (isMarkedWith(position, player)) {
-						matchedCount++;
-					} else if (isEmpty(position)) {
-						hasEmptyCells = true;
-					} else {
-						hasEmptyCells = false;
-						break;
-					}
-				}
-				if (matchedCount == notEmptyCount && hasEmptyCells) {
-					return findEmptyPositionForTurn(inspectedCells);
-				}
-			}
-		}
-		
-		LOG.trace("AI opponent failes to find a free position in secondary diagonal among {} cell(s) already marked with {}",
-				notEmptyCount, player);
+		LOG.trace("AI opponent failes to find a free position in {} among {} cell(s) already marked with {}",
+				direction, notEmptyCount, player);
 		return NOT_FOUND;
 	}
 
-	private Position findEmptyPositionForTurn(List<Position> positions) {
+	private Position findEmptyPositionForTurn(Position[] positions) {
 		
-		for (int i = 0; i < positions.size(); i++) {
-			Position current = positions.get(i);
+		for (int i = 0; i < positions.length; i++) {
+			Position current = positions[i];
 			if (!isEmpty(current)) {
 				if (i == 0) {
-					Position next = positions.get(i + 1);
+					Position next = positions[i + 1];
 					if (isEmpty(next)) {
 						return next;
 					}
-				} else if (i == positions.size() - 1) {
-					Position previous = positions.get(i - 1);
+				} else if (i == positions.length - 1) {
+					Position previous = positions[i - 1];
 					if (isEmpty(previous)) {
 						return previous;
 					}
 				} else {
-					boolean searchDirectionAsc = new Random().nextBoolean();
+					boolean searchDirectionAsc = ThreadLocalRandom.current().nextBoolean();
 					int first = searchDirectionAsc ? i + 1 : i - 1;
 					int second = searchDirectionAsc ? i - 1 : i + 1;
-					if (isEmpty(positions.get(first))) {
-						return positions.get(first);
-					} else if (isEmpty(positions.get(second))) {
-						return positions.get(second);
+					if (isEmpty(positions[first])) {
+						return positions[first];
+					} else if (isEmpty(positions[second])) {
+						return positions[second];
 					}
 				}
 			}
@@ -250,11 +163,11 @@ public class ImprovedGomokuAIGameOpponent implements AIGameOpponent {
 
 
 	private boolean isMarkedWith(Position position, Mark player) {
-		return gameTable.isCellMarked(position, player);
+		return gameTable.isCellMarked(position.ordinal(), player);
 	}
 
 	private boolean isEmpty(Position position) {
-		return gameTable.isCellEmpty(position);
+		return gameTable.isCellEmpty(position.ordinal());
 	}
 
 	private void checkPlayerMark(Mark playerMark) {
@@ -272,18 +185,14 @@ public class ImprovedGomokuAIGameOpponent implements AIGameOpponent {
 		Position[] freeCells = new Position[gameTable.getTotalCells()];
 		int count = 0;
 
-		for (int row = 0; row < gameTable.getTotalRows(); row++) {
-			for (int col = 0; col < gameTable.getTotalColumns(); col++) {
-				Position cellPosition = Position.from(row, col);
-
-				if (gameTable.isCellEmpty(cellPosition)) {
-					freeCells[count++] = cellPosition;
-				}
+		for (int ordinal = 1; ordinal <= gameTable.getTotalCells(); ordinal++) {
+			if (gameTable.isCellEmpty(ordinal)) {
+				freeCells[count++] = gameTable.getGeometry().position(ordinal);
 			}
 		}
 		
 		if (count > 0) {
-			int randomIndex = new Random().nextInt(count);
+			int randomIndex = ThreadLocalRandom.current().nextInt(count);
 			LOG.debug("AI opponent finds random position {} to make a turn to.", freeCells[randomIndex]);
 			return freeCells[randomIndex];
 		}
@@ -0,0 +1,127 @@
+package com.revenat.game.gomoku.domain.impl;
+
+import java.util.Objects;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.revenat.game.gomoku.domain.BoardGeometry;
+import com.revenat.game.gomoku.domain.GameArbiter;
+import com.revenat.game.gomoku.domain.GameTable;
+import com.revenat.game.gomoku.domain.LineDirection;
+import com.revenat.game.gomoku.domain.Mark;
+import com.revenat.game.gomoku.domain.Position;
+
+/**
+ * Implementation of {@link GameArbiter} specific to Gomoku game which, knowing
+ * position of the last turn, inspects only four lines that pass through
+ * that position. Draw is detected using running count of the marked cells
+ * maintained by {@link GameTable}.
+ *
+ * @author Vitaly Dragun
+ *
+ */
+public class IncrementalGomokuGameArbiter implements GameArbiter {
+	private static final Logger LOG = LoggerFactory.getLogger(IncrementalGomokuGameArbiter.class);
+	private static final LineDirection[] DIRECTIONS = LineDirection.values();
+
+	private final GameTable gameTable;
+	/**
+	 * Represents how many adjacent cells on {@link GameTable} should be marked with
+	 * the same not {@code EMPTY} {@link Mark} to represents a winning combination
+	 */
+	private final int winningCount;
+
+	public IncrementalGomokuGameArbiter(GameTable gameTable) {
+		Objects.requireNonNull(gameTable, "GameTable can not be null.");
+		this.gameTable = gameTable;
+		this.winningCount = gameTable.getGeometry().winLength();
+	}
+
+	/**
+	 * Performs full check inspecting lines that pass through every marked cell.
+	 * Prefer {@link #checkForGameOver(Position)} whenever last turn position is known.
+	 */
+	@Override
+	public CheckResult checkForGameOver() {
+		LOG.trace("GameArbiter starts full check for game over");
+		for (int ordinal = 1; ordinal <= gameTable.getTotalCells(); ordinal++) {
+			CheckResult result = lookForWinnerThrough(gameTable.getGeometry().position(ordinal));
+			if (result.isWinner()) {
+				return result;
+			}
+		}
+		return checkForDraw();
+	}
+
+	@Override
+	public CheckResult checkForGameOver(Position lastTurn) {
+		Objects.requireNonNull(lastTurn, "Last turn position can not be null.");
+		LOG.trace("GameArbiter starts checking for game over after turn to {}", lastTurn);
+
+		CheckResult result = lookForWinnerThrough(lastTurn);
+		if (result.isWinner()) {
+			return result;
+		}
+		return checkForDraw();
+	}
+
+	private CheckResult lookForWinnerThrough(Position position) {
+		Mark mark = Mark.fromCode(gameTable.getCellCode(position.ordinal()));
+		if (mark == Mark.EMPTY) {
+			return CheckResult.keepOnPlaying();
+		}
+
+		for (LineDirection direction : DIRECTIONS) {
+			int backward = countMarkedInARow(gameTable, position, mark, direction, -1);
+			int forward = countMarkedInARow(gameTable, position, mark, direction, 1);
+			if (backward + 1 + forward >= winningCount) {
+				LOG.debug("GameArbiter finds the winner by {}", direction);
+				return winnerFound(position, direction, backward);
+			}
+		}
+		return CheckResult.keepOnPlaying();
+	}
+
+	private CheckResult checkForDraw() {
+		if (gameTable.getMarkedCellsCount() == gameTable.getTotalCells()) {
+			LOG.debug("GameArbiter finds the draw");
+			return CheckResult.draw();
+		}
+		return CheckResult.keepOnPlaying();
+	}
+
+	private CheckResult winnerFound(Position position, LineDirection direction, int backward) {
+		BoardGeometry geometry = gameTable.getGeometry();
+		Position start = geometry.position(position.row() - backward * direction.rowIncrement(),
+				position.column() - backward * direction.columnIncrement());
+		return CheckResult.winner(geometry, start, direction, winningCount);
+	}
+
+	/**
+	 * Counts cells marked with specified mark that go in a row right after the
+	 * cell at specified position, not including that cell itself.
+	 *
+	 * @param sign {@code 1} to move along specified direction, {@code -1} to move
+	 *             in the opposite one
+	 */
+	static int countMarkedInARow(GameTable gameTable, Position position, Mark mark, LineDirection direction,
+			int sign) {
+		int rowIncrement = sign * direction.rowIncrement();
+		int columnIncrement = sign * direction.columnIncrement();
+		int ordinalIncrement = rowIncrement * gameTable.getTotalColumns() + columnIncrement;
+		int row = position.row() + rowIncrement;
+		int column = position.column() + columnIncrement;
+		int ordinal = position.ordinal() + ordinalIncrement;
+		int count = 0;
+
+		while (row >= 0 && row < gameTable.getTotalRows() && column >= 0 && column < gameTable.getTotalColumns()
+				&& gameTable.isCellMarked(ordinal, mark)) {
+			count++;
+			row += rowIncrement;
+			column += columnIncrement;
+			ordinal += ordinalIncrement;
+		}
+		return count;
+	}
+}
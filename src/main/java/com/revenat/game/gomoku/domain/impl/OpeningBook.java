@@ -0,0 +1,244 @@
+package com.revenat.game.gomoku.domain.impl;
+
+import static java.util.Objects.requireNonNull;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.revenat.game.gomoku.domain.BoardGeometry;
+import com.revenat.game.gomoku.domain.BoardSymmetry;
+import com.revenat.game.gomoku.domain.GameTable;
+import com.revenat.game.gomoku.domain.Mark;
+import com.revenat.game.gomoku.domain.Position;
+
+/**
+ * Book of the opening moves for Gomoku game, stored in a compact binary file
+ * which is memory-mapped for lookups.
+ * <p>
+ * Positions are keyed by Zobrist hash key of their canonical form, the one with the
+ * smallest key among all its {@link BoardSymmetry symmetric} forms, so symmetric
+ * positions share the same entry, with the key of the player to move mixed in,
+ * see {@link #keyOf(GameTable, Mark)}. Move of the entry is stored in the canonical
+ * form as well and is mapped back to the looked up position. Position which is
+ * symmetric itself has several equivalent moves, the one with the smallest ordinal
+ * stands for all of them, see {@link #canonicalMoveOf(GameTable, int)}.
+ * <p>
+ * File starts with a header: magic number, format version, table rows, columns and
+ * winning length, maximum number of marked cells in the book positions and number of
+ * entries. It is followed by entries sorted by key, each made of the {@code long}
+ * key, {@code short} move ordinal and {@code short} weight (number of won games the
+ * move was played in). Lookup is a binary search over the mapped entries, which does
+ * not copy or allocate.
+ * <p>
+ * Instances are immutable and thread-safe. Books opened by {@link #open(Path)} are
+ * shared by all engines in the JVM.
+ *
+ * @author Vitaly Dragun
+ *
+ */
+public final class OpeningBook {
+	private static final Logger LOG = LoggerFactory.getLogger(OpeningBook.class);
+
+	private static final int MAGIC = 0x474D4B42;
+	private static final int VERSION = 2;
+	private static final int HEADER_SIZE = 7 * Integer.BYTES;
+	private static final int ENTRY_SIZE = Long.BYTES + 2 * Short.BYTES;
+	private static final int MOVE_OFFSET = Long.BYTES;
+	private static final int WEIGHT_OFFSET = Long.BYTES + Short.BYTES;
+	private static final ConcurrentMap<Path, OpeningBook> OPENED_BOOKS = new ConcurrentHashMap<>();
+
+	private final ByteBuffer entries;
+	private final BoardGeometry geometry;
+	private final int maxMarkedCells;
+	private final int size;
+
+	private OpeningBook(ByteBuffer buffer) {
+		if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+			throw new IllegalArgumentException("Not an opening book file");
+		}
+		if (buffer.getInt(Integer.BYTES) != VERSION) {
+			throw new IllegalArgumentException("Unsupported opening book version: " + buffer.getInt(Integer.BYTES));
+		}
+		this.geometry = BoardGeometry.of(buffer.getInt(2 * Integer.BYTES), buffer.getInt(3 * Integer.BYTES),
+				buffer.getInt(4 * Integer.BYTES));
+		this.maxMarkedCells = buffer.getInt(5 * Integer.BYTES);
+		this.size = buffer.getInt(6 * Integer.BYTES);
+		if ((long) HEADER_SIZE + (long) size * ENTRY_SIZE > buffer.capacity()) {
+			throw new IllegalArgumentException("Opening book file is truncated: " + size + " entries expected");
+		}
+		buffer.position(HEADER_SIZE);
+		this.entries = buffer.slice();
+	}
+
+	/**
+	 * Returns opening book stored in the specified file, mapping it into memory
+	 * on the first call. Subsequent calls for the same file return the same instance,
+	 * so the file should not be changed while the JVM uses it.
+	 */
+	public static OpeningBook open(Path file) throws IOException {
+		requireNonNull(file, "Opening book file can not be null.");
+		try {
+			return OPENED_BOOKS.computeIfAbsent(file.toRealPath(), OpeningBook::map);
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		}
+	}
+
+	private static OpeningBook map(Path file) {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			OpeningBook book = new OpeningBook(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+			LOG.info("Opening book {} with {} positions of {} table is mapped", file, book.size, book.geometry);
+			return book;
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Writes opening book into the specified file.
+	 *
+	 * @param geometry       geometry of the table book positions belong to
+	 * @param maxMarkedCells maximum number of marked cells in book positions
+	 * @param keys           {@link #keyOf(GameTable, Mark) keys} of the positions, in ascending order
+	 * @param moves          {@link #canonicalMoveOf(GameTable, int) canonical} ordinals of the moves
+	 * @param weights        weights of the moves, capped by {@link Short#MAX_VALUE}
+	 */
+	public static void write(Path file, BoardGeometry geometry, int maxMarkedCells, long[] keys, int[] moves,
+			int[] weights) throws IOException {
+		requireNonNull(file, "Opening book file can not be null.");
+		requireNonNull(geometry, "BoardGeometry can not be null.");
+		if (keys.length != moves.length || keys.length != weights.length) {
+			throw new IllegalArgumentException("Keys, moves and weights should be of the same length");
+		}
+		for (int i = 1; i < keys.length; i++) {
+			if (keys[i - 1] >= keys[i]) {
+				throw new IllegalArgumentException("Keys should be unique and sorted in ascending order");
+			}
+		}
+		try (OutputStream stream = Files.newOutputStream(file);
+				DataOutputStream output = new DataOutputStream(new BufferedOutputStream(stream))) {
+			output.writeInt(MAGIC);
+			output.writeInt(VERSION);
+			output.writeInt(geometry.rows());
+			output.writeInt(geometry.columns());
+			output.writeInt(geometry.winLength());
+			output.writeInt(maxMarkedCells);
+			output.writeInt(keys.length);
+			for (int i = 0; i < keys.length; i++) {
+				output.writeLong(keys[i]);
+				output.writeShort(moves[i]);
+				output.writeShort(Math.min(weights[i], Short.MAX_VALUE));
+			}
+		}
+	}
+
+	/**
+	 * Returns key of the position on the specified game table with specified player to
+	 * move, the same for all symmetric forms of the position.
+	 */
+	public static long keyOf(GameTable gameTable, Mark player) {
+		requireNonNull(gameTable, "GameTable can not be null.");
+		requireNonNull(player, "Player mark can not be null.");
+		return gameTable.getCanonicalKey() ^ ZobristKeys.sideToMoveKey(player);
+	}
+
+	/**
+	 * Returns ordinal of the move to the cell with specified ordinal in canonical form of
+	 * the position on the specified game table. Every symmetry which maps the position
+	 * onto its canonical form is considered, so moves equivalent by symmetry of the
+	 * position itself, e.g. any of the four cells next to the only mark in the center,
+	 * get the same, smallest, ordinal.
+	 */
+	public static int canonicalMoveOf(GameTable gameTable, int ordinal) {
+		requireNonNull(gameTable, "GameTable can not be null.");
+		BoardGeometry tableGeometry = gameTable.getGeometry();
+		long canonicalKey = gameTable.getCanonicalKey();
+		int canonicalMove = Integer.MAX_VALUE;
+		for (BoardSymmetry symmetry : BoardSymmetry.applicableTo(tableGeometry)) {
+			if (gameTable.getZobristKey(symmetry) == canonicalKey) {
+				canonicalMove = Math.min(canonicalMove, symmetry.apply(tableGeometry, ordinal));
+			}
+		}
+		return canonicalMove;
+	}
+
+	/**
+	 * Returns book move of the specified player for the position on the specified game
+	 * table or {@link Position#NOT_FOUND} if there is no such position in this book.
+	 */
+	public Position lookup(GameTable gameTable, Mark player) {
+		requireNonNull(gameTable, "GameTable can not be null.");
+		requireNonNull(player, "Player mark can not be null.");
+		if (gameTable.getGeometry() != geometry || gameTable.getMarkedCellsCount() > maxMarkedCells) {
+			return Position.NOT_FOUND;
+		}
+		int entry = find(keyOf(gameTable, player));
+		if (entry < 0) {
+			return Position.NOT_FOUND;
+		}
+		BoardSymmetry symmetry = gameTable.getCanonicalSymmetry();
+		int move = symmetry.inverse().apply(geometry, entries.getShort(entry * ENTRY_SIZE + MOVE_OFFSET));
+		if (!geometry.contains(move) || !gameTable.isCellEmpty(move)) {
+			return Position.NOT_FOUND;
+		}
+		return geometry.position(move);
+	}
+
+	/**
+	 * Returns weight of the entry with specified {@link #keyOf(GameTable, Mark) key}
+	 * or {@code 0} if there is no such entry.
+	 */
+	public int weightOf(long key) {
+		int entry = find(key);
+		return entry < 0 ? 0 : entries.getShort(entry * ENTRY_SIZE + WEIGHT_OFFSET);
+	}
+
+	private int find(long key) {
+		int low = 0;
+		int high = size - 1;
+		while (low <= high) {
+			int middle = (low + high) >>> 1;
+			long middleKey = entries.getLong(middle * ENTRY_SIZE);
+			if (middleKey < key) {
+				low = middle + 1;
+			} else if (middleKey > key) {
+				high = middle - 1;
+			} else {
+				return middle;
+			}
+		}
+		return -1;
+	}
+
+	public BoardGeometry getGeometry() {
+		return geometry;
+	}
+
+	/**
+	 * Returns maximum number of marked cells in positions of this book,
+	 * positions with more marked cells are not looked up.
+	 */
+	public int getMaxMarkedCells() {
+		return maxMarkedCells;
+	}
+
+	/**
+	 * Returns number of positions in this book.
+	 */
+	public int size() {
+		return size;
+	}
+}
@@ -0,0 +1,71 @@
+package com.revenat.game.gomoku.domain.impl;
+
+import static java.util.Objects.requireNonNull;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.revenat.game.gomoku.domain.AIGameOpponent;
+import com.revenat.game.gomoku.domain.CancellationToken;
+import com.revenat.game.gomoku.domain.GameTable;
+import com.revenat.game.gomoku.domain.Mark;
+import com.revenat.game.gomoku.domain.Position;
+
+/**
+ * Represents AI opponent in Gomoku game which plays moves from the {@link OpeningBook}
+ * while the position on the game table is in the book, and asks another AI opponent
+ * to determine turn position otherwise.
+ *
+ * @author Vitaly Dragun
+ *
+ */
+public class OpeningBookAIGameOpponent implements AIGameOpponent {
+	private static final Logger LOG = LoggerFactory.getLogger(OpeningBookAIGameOpponent.class);
+
+	private final GameTable gameTable;
+	private final OpeningBook openingBook;
+	private final AIGameOpponent opponent;
+
+	/**
+	 * @param gameTable   game table to determine next turn position on
+	 * @param openingBook book of the opening moves
+	 * @param opponent    AI opponent which determines turn position when position
+	 *                    on the game table is not in the book
+	 */
+	public OpeningBookAIGameOpponent(GameTable gameTable, OpeningBook openingBook, AIGameOpponent opponent) {
+		requireNonNull(gameTable, "GameTable can not be null.");
+		requireNonNull(openingBook, "OpeningBook can not be null.");
+		requireNonNull(opponent, "AIGameOpponent can not be null.");
+		if (gameTable.getGeometry() != openingBook.getGeometry()) {
+			throw new IllegalArgumentException("Opening book of table " + openingBook.getGeometry()
+					+ " can not be used for table " + gameTable.getGeometry());
+		}
+		this.gameTable = gameTable;
+		this.openingBook = openingBook;
+		this.opponent = opponent;
+	}
+
+	@Override
+	public Position determineNextTurnPositionFor(Mark playerMark) {
+		requireNonNull(playerMark, "playerMark can not be null");
+		Position bookMove = lookupBookMove(playerMark);
+		return bookMove.isValid() ? bookMove : opponent.determineNextTurnPositionFor(playerMark);
+	}
+
+	@Override
+	public Position determineNextTurnPositionFor(Mark playerMark, long deadline, CancellationToken token) {
+		requireNonNull(playerMark, "playerMark can not be null");
+		requireNonNull(token, "CancellationToken can not be null.");
+		token.throwIfCancelled();
+		Position bookMove = lookupBookMove(playerMark);
+		return bookMove.isValid() ? bookMove : opponent.determineNextTurnPositionFor(playerMark, deadline, token);
+	}
+
+	private Position lookupBookMove(Mark playerMark) {
+		Position bookMove = openingBook.lookup(gameTable, playerMark);
+		if (bookMove.isValid()) {
+			LOG.debug("AI opponent '{}' chooses book move {}", playerMark, bookMove);
+		}
+		return bookMove;
+	}
+}
@@ -0,0 +1,289 @@
+package com.revenat.game.gomoku.domain.impl;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.revenat.game.gomoku.domain.BoardGeometry;
+import com.revenat.game.gomoku.domain.GameTable;
+import com.revenat.game.gomoku.domain.LineDirection;
+import com.revenat.game.gomoku.domain.Mark;
+
+/**
+ * Static evaluator of the Gomoku position which scores open and closed twos,
+ * threes and fours of both players using precomputed pattern table.
+ * <p>
+ * Every line of the table (row, column or diagonal) is covered by overlapping
+ * windows of the winning length plus one cells, including windows which stick
+ * one cell out of the table at both ends of the line. Window is encoded as a
+ * bit-pair index: two bits per cell holding {@link Mark#code() code} of its mark,
+ * or {@value #WALL_CODE} for the cell outside of the table. Score of every
+ * possible window is looked up in the table built once per winning length.
+ * <p>
+ * Window scores and their sum are maintained incrementally while turns are made
+ * and undone, so each turn updates only windows passing through its cell and
+ * {@link #evaluate(Mark)} costs O(1).
+ * <p>
+ * Pattern table grows as 4 to the power of the window length, so winning length
+ * is limited by {@value #MAX_WIN_LENGTH}. Instances are not thread-safe.
+ *
+ * @author Vitaly Dragun
+ *
+ */
+public final class PatternEvaluator {
+	/**
+	 * Maximum winning length of the game table this evaluator supports
+	 */
+	public static final int MAX_WIN_LENGTH = 8;
+
+	private static final int WALL_CODE = 3;
+	private static final int BITS_PER_CELL = 2;
+	private static final int CELL_MASK = 3;
+	/**
+	 * How many bits of the window entry hold shift of the cell within window
+	 */
+	private static final int SHIFT_BITS = 5;
+	private static final int SHIFT_MASK = (1 << SHIFT_BITS) - 1;
+
+	private static final int FIVE_SCORE = 1_000_000;
+	/**
+	 * Scores of the open and closed patterns by how many marks one player lacks to
+	 * complete the winning line, starting from the one lacking a single mark (four).
+	 * Open three is found in two open windows, so closed four is scored above both
+	 * of them together.
+	 */
+	private static final int[] OPEN_SCORES_BY_LACKING = {100_000, 5_000, 200, 10};
+	private static final int[] CLOSED_SCORES_BY_LACKING = {10_000, 200, 10, 1};
+
+	private static final ConcurrentMap<BoardGeometry, Layout> LAYOUTS = new ConcurrentHashMap<>();
+	private static final ConcurrentMap<Integer, int[]> PATTERN_SCORES = new ConcurrentHashMap<>();
+
+	private final BoardGeometry geometry;
+	private final Layout layout;
+	/**
+	 * Score of every possible window from the point of view of {@link Mark#X}
+	 */
+	private final int[] patternScores;
+	private final int[] windowCodes;
+	private int score;
+
+	/**
+	 * @param geometry geometry of the game table to evaluate, with winning length
+	 *                 not greater than {@value #MAX_WIN_LENGTH}
+	 */
+	public PatternEvaluator(BoardGeometry geometry) {
+		requireNonNull(geometry, "BoardGeometry can not be null.");
+		if (!supports(geometry)) {
+			throw new IllegalArgumentException("Winning length should be from 1 to " + MAX_WIN_LENGTH + ": " + geometry);
+		}
+		this.geometry = geometry;
+		this.layout = LAYOUTS.computeIfAbsent(geometry, Layout::new);
+		this.patternScores = PATTERN_SCORES.computeIfAbsent(geometry.winLength(), PatternEvaluator::buildPatternScores);
+		this.windowCodes = layout.emptyWindowCodes.clone();
+	}
+
+	/**
+	 * Returns true if game table with specified geometry can be evaluated by this evaluator.
+	 */
+	public static boolean supports(BoardGeometry geometry) {
+		return geometry.winLength() <= MAX_WIN_LENGTH;
+	}
+
+	/**
+	 * Returns evaluated table to its initial state where all cells are empty.
+	 */
+	public void clear() {
+		System.arraycopy(layout.emptyWindowCodes, 0, windowCodes, 0, windowCodes.length);
+		score = 0;
+	}
+
+	/**
+	 * Makes evaluated table a copy of the specified game table.
+	 */
+	public void copyGameTable(GameTable gameTable) {
+		requireNonNull(gameTable, "GameTable can not be null.");
+		if (gameTable.getGeometry() != geometry) {
+			throw new IllegalArgumentException("Game table geometry " + gameTable.getGeometry()
+					+ " differs from evaluated one " + geometry);
+		}
+		clear();
+		for (int ordinal = 1; ordinal <= geometry.totalCells(); ordinal++) {
+			byte code = gameTable.getCellCode(ordinal);
+			if (code != Mark.EMPTY_CODE) {
+				update(ordinal, code);
+			}
+		}
+	}
+
+	/**
+	 * Marks empty cell with specified ordinal by the specified player.
+	 */
+	public void makeTurn(int ordinal, Mark player) {
+		update(ordinal, player.code());
+	}
+
+	/**
+	 * Clears cell with specified ordinal previously marked by the specified player.
+	 */
+	public void undoTurn(int ordinal, Mark player) {
+		update(ordinal, -player.code());
+	}
+
+	/**
+	 * Returns score of the current position from the point of view of the specified player.
+	 */
+	public int evaluate(Mark player) {
+		return player == Mark.X ? score : -score;
+	}
+
+	private void update(int ordinal, int codeDelta) {
+		int[] codes = windowCodes;
+		int[] scores = patternScores;
+		int delta = 0;
+		for (int entry : layout.windowsThroughCell[ordinal]) {
+			int window = entry >>> SHIFT_BITS;
+			int oldCode = codes[window];
+			int newCode = oldCode + (codeDelta << (entry & SHIFT_MASK));
+			codes[window] = newCode;
+			delta += scores[newCode] - scores[oldCode];
+		}
+		score += delta;
+	}
+
+	/**
+	 * Builds scores of all windows of the winning length plus one cells from the
+	 * point of view of {@link Mark#X}.
+	 */
+	private static int[] buildPatternScores(int winLength) {
+		int windowLength = winLength + 1;
+		int[] scores = new int[1 << (BITS_PER_CELL * windowLength)];
+		int[] cells = new int[windowLength];
+		for (int code = 0; code < scores.length; code++) {
+			for (int i = 0; i < windowLength; i++) {
+				cells[i] = (code >>> (BITS_PER_CELL * i)) & CELL_MASK;
+			}
+			scores[code] = scoreWindow(cells, Mark.X_CODE, Mark.O_CODE) - scoreWindow(cells, Mark.O_CODE, Mark.X_CODE);
+		}
+		return scores;
+	}
+
+	/**
+	 * Scores window for the player with specified mark code: window is open if both
+	 * its end cells are empty and the cells between them are not blocked, otherwise
+	 * it is scored by the better of its two unblocked segments of the winning length.
+	 */
+	private static int scoreWindow(int[] cells, int own, int opponent) {
+		int winLength = cells.length - 1;
+		int innerCount = 0;
+		boolean innerBlocked = false;
+		for (int i = 1; i < winLength; i++) {
+			if (cells[i] == own) {
+				innerCount++;
+			} else if (cells[i] != Mark.EMPTY_CODE) {
+				innerBlocked = true;
+			}
+		}
+		int first = segmentCount(cells[0], innerCount, innerBlocked, own);
+		int last = segmentCount(cells[winLength], innerCount, innerBlocked, own);
+		int best = Math.max(first, last);
+		if (best == winLength) {
+			return FIVE_SCORE;
+		}
+		if (best <= 0) {
+			return 0;
+		}
+		int lacking = winLength - best;
+		boolean open = !innerBlocked && cells[0] == Mark.EMPTY_CODE && cells[winLength] == Mark.EMPTY_CODE;
+		int[] scoresByLacking = open ? OPEN_SCORES_BY_LACKING : CLOSED_SCORES_BY_LACKING;
+		return lacking > scoresByLacking.length ? 0 : scoresByLacking[lacking - 1];
+	}
+
+	/**
+	 * Returns number of own marks in the segment made of inner window cells and
+	 * specified end cell, or -1 if the segment is blocked.
+	 */
+	private static int segmentCount(int endCell, int innerCount, boolean innerBlocked, int own) {
+		if (innerBlocked) {
+			return -1;
+		}
+		if (endCell == own) {
+			return innerCount + 1;
+		}
+		return endCell == Mark.EMPTY_CODE ? innerCount : -1;
+	}
+
+	/**
+	 * Windows of the game table with specific geometry, shared by all evaluators of it.
+	 */
+	private static final class Layout {
+		/**
+		 * Codes of all windows when all cells are empty, with cells outside of the table
+		 * marked as walls
+		 */
+		private final int[] emptyWindowCodes;
+		/**
+		 * For every cell, windows passing through it: window index shifted left by
+		 * {@value PatternEvaluator#SHIFT_BITS} bits combined with the shift of the
+		 * cell code within window code
+		 */
+		private final int[][] windowsThroughCell;
+
+		Layout(BoardGeometry geometry) {
+			int winLength = geometry.winLength();
+			int[] windowCodes = new int[16];
+			int windowCount = 0;
+			int[][] entries = new int[geometry.totalCells() + 1][4 * (winLength + 1)];
+			int[] entryCounts = new int[geometry.totalCells() + 1];
+
+			for (LineDirection direction : LineDirection.values()) {
+				for (int ordinal = 1; ordinal <= geometry.totalCells(); ordinal++) {
+					int row = (ordinal - 1) / geometry.columns();
+					int column = (ordinal - 1) % geometry.columns();
+					if (geometry.contains(row - direction.rowIncrement(), column - direction.columnIncrement())) {
+						continue;
+					}
+					int[] line = lineFrom(geometry, row, column, direction);
+					if (line.length < winLength) {
+						continue;
+					}
+					// windows start from one cell before the line up to the last cell
+					// where winning length segment fits
+					for (int start = -1; start <= line.length - winLength; start++) {
+						if (windowCount == windowCodes.length) {
+							windowCodes = Arrays.copyOf(windowCodes, 2 * windowCount);
+						}
+						int code = 0;
+						for (int i = 0; i <= winLength; i++) {
+							int offset = start + i;
+							if (offset < 0 || offset >= line.length) {
+								code |= WALL_CODE << (BITS_PER_CELL * i);
+							} else {
+								int cell = line[offset];
+								entries[cell][entryCounts[cell]++] = (windowCount << SHIFT_BITS) | (BITS_PER_CELL * i);
+							}
+						}
+						windowCodes[windowCount++] = code;
+					}
+				}
+			}
+			this.emptyWindowCodes = Arrays.copyOf(windowCodes, windowCount);
+			this.windowsThroughCell = new int[entries.length][];
+			for (int ordinal = 0; ordinal < entries.length; ordinal++) {
+				windowsThroughCell[ordinal] = Arrays.copyOf(entries[ordinal], entryCounts[ordinal]);
+			}
+		}
+
+		private static int[] lineFrom(BoardGeometry geometry, int row, int column, LineDirection direction) {
+			int[] buffer = new int[Math.max(geometry.rows(), geometry.columns())];
+			int length = 0;
+			while (geometry.contains(row, column)) {
+				buffer[length++] = geometry.position(row, column).ordinal();
+				row += direction.rowIncrement();
+				column += direction.columnIncrement();
+			}
+			return Arrays.copyOf(buffer, length);
+		}
+	}
+}
@@ -40,6 +40,11 @@ public class PlayerOpponentGameMode implements GameMode {
 		finishPlayerTurn();
 	}
 	
+	@Override
+	public void handleTurnUndone() {
+		finishPlayerTurn();
+	}
+	
 	private void finishPlayerTurn() {
 		xTurn = !xTurn;
 	}
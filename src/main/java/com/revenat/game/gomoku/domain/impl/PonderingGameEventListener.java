@@ -0,0 +1,66 @@
+package com.revenat.game.gomoku.domain.impl;
+
+import static java.util.Objects.requireNonNull;
+
+import com.revenat.game.gomoku.domain.GameEventListener;
+import com.revenat.game.gomoku.domain.Mark;
+import com.revenat.game.gomoku.domain.Position;
+
+/**
+ * Makes {@link SearchGomokuAIGameOpponent} ponder during its opponent's time:
+ * pondering starts as soon as AI player has made a turn and stops when the other
+ * player has made a turn, a turn is undone or the game is over.
+ * <p>
+ * Listener should be added to the game session before listeners which may block
+ * on game over, e.g. asking user whether to play again, so that AI stops pondering first.
+ *
+ * @author Vitaly Dragun
+ *
+ */
+public class PonderingGameEventListener implements GameEventListener {
+	private final SearchGomokuAIGameOpponent opponent;
+	private final Mark aiPlayer;
+
+	/**
+	 * @param opponent AI opponent to ponder
+	 * @param aiPlayer mark of the player whose turns are determined by the opponent
+	 */
+	public PonderingGameEventListener(SearchGomokuAIGameOpponent opponent, Mark aiPlayer) {
+		requireNonNull(opponent, "SearchGomokuAIGameOpponent can not be null.");
+		requireNonNull(aiPlayer, "AI player mark can not be null.");
+		if (aiPlayer == Mark.EMPTY) {
+			throw new IllegalArgumentException("AI player mark should be 'X' or 'O', not 'EMPTY'");
+		}
+		this.opponent = opponent;
+		this.aiPlayer = aiPlayer;
+	}
+
+	@Override
+	public void invalidTurnPosition(Position position) {
+		// turn is not made, so the opponent keeps pondering
+	}
+
+	@Override
+	public void turnIsMade(Position position, Mark mark) {
+		if (mark == aiPlayer) {
+			opponent.startPondering(aiPlayer.getOpponent());
+		} else {
+			opponent.stopPondering();
+		}
+	}
+
+	@Override
+	public void turnIsUndone(Position position, Mark mark) {
+		opponent.stopPondering();
+	}
+
+	@Override
+	public void winnerIsFound(Mark winner, Position[] winningCombination) {
+		opponent.stopPondering();
+	}
+
+	@Override
+	public void draw() {
+		opponent.stopPondering();
+	}
+}
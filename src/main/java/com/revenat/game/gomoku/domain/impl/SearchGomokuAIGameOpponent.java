@@ -0,0 +1,336 @@
+package com.revenat.game.gomoku.domain.impl;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.revenat.game.gomoku.domain.AIGameOpponent;
+import com.revenat.game.gomoku.domain.CancellationToken;
+import com.revenat.game.gomoku.domain.GameTable;
+import com.revenat.game.gomoku.domain.Mark;
+import com.revenat.game.gomoku.domain.Position;
+
+/**
+ * Represents AI opponent in Gomoku game which looks ahead using negamax search
+ * with alpha-beta pruning and iterative deepening.
+ * <p>
+ * Search is bounded by a time budget per move, or by the caller's deadline if it is
+ * earlier: when time is up the best move of the last completed iteration is returned.
+ * Search checks the caller's {@link CancellationToken} along with the time and
+ * abandons the move once the token is cancelled. Only empty cells
+ * near already marked ones are considered as candidate moves, and at most
+ * {@value SearchWorker#MAX_CANDIDATES} most promising of them are searched at every node.
+ * Results of the searched positions are kept in a {@link TranspositionTable},
+ * which is consulted before searching a position again and for move ordering.
+ * <p>
+ * Search may run on several threads in Lazy SMP manner: helper threads search
+ * the same position independently, starting at different depths, and share
+ * transposition table with the calling thread, so they fill it with results
+ * the calling thread can reuse. Turn position is taken from the thread which
+ * completed the deepest iteration.
+ * <p>
+ * Opponent may ponder: search the position while the other player chooses a turn,
+ * so that the transposition table is warm with results of the likely replies by the
+ * time the turn is to be determined. See {@link PonderingGameEventListener}.
+ * <p>
+ * Before the search a {@link ThreatSpaceSolver} looks for forced win by continuous
+ * fours, and if there is one its first turn is chosen immediately. Otherwise it looks
+ * for forced win by continuous threats, which assumes only some of the defences and
+ * may be refuted, so its first turn is searched first rather than chosen blindly.
+ * <p>
+ * Instances are not thread-safe. Opponents that use helper threads or ponder should be
+ * {@link #shutdown() shut down} when they are no longer needed.
+ *
+ * @author Vitaly Dragun
+ *
+ */
+public class SearchGomokuAIGameOpponent implements AIGameOpponent {
+	private static final Logger LOG = LoggerFactory.getLogger(SearchGomokuAIGameOpponent.class);
+	private static final AtomicInteger HELPER_THREAD_COUNTER = new AtomicInteger();
+	private static final AtomicInteger PONDER_THREAD_COUNTER = new AtomicInteger();
+
+	private static final long DEFAULT_MOVE_TIME_MILLIS = 1000;
+	private static final int DEFAULT_MAX_DEPTH = 20;
+	private static final int DEFAULT_TRANSPOSITION_TABLE_MEGABYTES = 16;
+	/**
+	 * Pondering is bounded by the maximum depth and by stopping it, not by time
+	 */
+	private static final long PONDER_TIME_NANOS = TimeUnit.DAYS.toNanos(1);
+	private static final Position NOT_FOUND = Position.NOT_FOUND;
+
+	private final GameTable gameTable;
+	private final long moveTimeNanos;
+	private final TranspositionTable transpositionTable;
+	private final SearchWorker[] workers;
+	private final ExecutorService helperExecutor;
+	private final ThreatSpaceSolver threatSpaceSolver = new ThreatSpaceSolver();
+
+	private volatile SearchStatistics lastSearchStatistics = SearchStatistics.NONE;
+
+	private ExecutorService ponderExecutor;
+	private Future<?> ponderSearch;
+	private CancellationToken ponderToken;
+	/**
+	 * Whether search results of the pondering belong to the current search
+	 * of the transposition table
+	 */
+	private boolean searchIsPondered;
+
+	public SearchGomokuAIGameOpponent(GameTable gameTable) {
+		this(gameTable, DEFAULT_MOVE_TIME_MILLIS);
+	}
+
+	public SearchGomokuAIGameOpponent(GameTable gameTable, long moveTimeMillis) {
+		this(gameTable, moveTimeMillis, DEFAULT_MAX_DEPTH);
+	}
+
+	/**
+	 * @param gameTable      game table to determine next turn position on
+	 * @param moveTimeMillis time budget in milliseconds for determining single turn position
+	 * @param maxDepth       maximum depth (in turns) of the search
+	 */
+	public SearchGomokuAIGameOpponent(GameTable gameTable, long moveTimeMillis, int maxDepth) {
+		this(gameTable, moveTimeMillis, maxDepth, new TranspositionTable(DEFAULT_TRANSPOSITION_TABLE_MEGABYTES));
+	}
+
+	/**
+	 * @param gameTable          game table to determine next turn position on
+	 * @param moveTimeMillis     time budget in milliseconds for determining single turn position
+	 * @param maxDepth           maximum depth (in turns) of the search
+	 * @param transpositionTable table to store results of the searched positions in
+	 */
+	public SearchGomokuAIGameOpponent(GameTable gameTable, long moveTimeMillis, int maxDepth,
+			TranspositionTable transpositionTable) {
+		this(gameTable, moveTimeMillis, maxDepth, transpositionTable, 1);
+	}
+
+	/**
+	 * @param gameTable          game table to determine next turn position on
+	 * @param moveTimeMillis     time budget in milliseconds for determining single turn position
+	 * @param maxDepth           maximum depth (in turns) of the search
+	 * @param transpositionTable table to store results of the searched positions in,
+	 *                           shared by all search threads
+	 * @param threads            number of threads to search on, including the calling one
+	 */
+	public SearchGomokuAIGameOpponent(GameTable gameTable, long moveTimeMillis, int maxDepth,
+			TranspositionTable transpositionTable, int threads) {
+		requireNonNull(gameTable, "GameTable can not be null.");
+		requireNonNull(transpositionTable, "TranspositionTable can not be null.");
+		if (moveTimeMillis <= 0) {
+			throw new IllegalArgumentException("Move time should be positive: " + moveTimeMillis);
+		}
+		if (maxDepth <= 0 || maxDepth > SearchWorker.MAX_PLY) {
+			throw new IllegalArgumentException("Max depth should be from 1 to " + SearchWorker.MAX_PLY + ": " + maxDepth);
+		}
+		if (threads <= 0) {
+			throw new IllegalArgumentException("Number of search threads should be positive: " + threads);
+		}
+		this.gameTable = gameTable;
+		this.transpositionTable = transpositionTable;
+		this.moveTimeNanos = TimeUnit.MILLISECONDS.toNanos(moveTimeMillis);
+		this.workers = new SearchWorker[threads];
+		for (int i = 0; i < threads; i++) {
+			workers[i] = new SearchWorker(gameTable.getGeometry(), maxDepth, transpositionTable);
+		}
+		this.helperExecutor = threads > 1 ? Executors.newFixedThreadPool(threads - 1, helperThreadFactory()) : null;
+	}
+
+	@Override
+	public Position determineNextTurnPositionFor(final Mark playerMark) {
+		return determineNextTurnPositionFor(playerMark, System.nanoTime() + moveTimeNanos, CancellationToken.NONE);
+	}
+
+	@Override
+	public Position determineNextTurnPositionFor(final Mark playerMark, long deadline, CancellationToken token) {
+		requireNonNull(playerMark, "playerMark can not be null");
+		requireNonNull(token, "CancellationToken can not be null.");
+		checkPlayerMark(playerMark);
+		token.throwIfCancelled();
+		stopPondering();
+		long startTime = System.nanoTime();
+		long searchDeadline = startTime + moveTimeNanos;
+		if (deadline - searchDeadline < 0) {
+			searchDeadline = deadline;
+		}
+		if (searchIsPondered) {
+			searchIsPondered = false;
+		} else {
+			transpositionTable.newSearch();
+		}
+
+		for (SearchWorker worker : workers) {
+			worker.copyGameTable(gameTable);
+		}
+		if (workers[0].isBoardEmpty()) {
+			return gameTable.getGeometry().center();
+		}
+		Position[] forcedWin = threatSpaceSolver.findVictoryByContinuousFours(gameTable, playerMark);
+		if (forcedWin.length > 0) {
+			long elapsedNanos = System.nanoTime() - startTime;
+			lastSearchStatistics = new SearchStatistics(1, forcedWin.length, 0, elapsedNanos);
+			LOG.debug("AI opponent '{}' chooses {} starting forced win in {} turns found in {} ms",
+					playerMark, forcedWin[0], (forcedWin.length + 1) / 2, TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+			return forcedWin[0];
+		}
+		Position[] threatWin = threatSpaceSolver.findVictoryByContinuousThreats(gameTable, playerMark);
+		Position firstMove = threatWin.length > 0 ? threatWin[0] : NOT_FOUND;
+		if (firstMove.isValid()) {
+			LOG.debug("AI opponent '{}' searches {} first, it starts likely forced win in {} turns",
+					playerMark, firstMove, (threatWin.length + 1) / 2);
+		}
+
+		AtomicBoolean stopSignal = new AtomicBoolean();
+		Future<?>[] helpers = startHelpers(playerMark, searchDeadline, stopSignal, token, firstMove);
+		workers[0].search(playerMark, 1, searchDeadline, stopSignal, token, firstMove);
+		stopSignal.set(true);
+		awaitHelpers(helpers);
+		if (token.isCancelled()) {
+			LOG.debug("AI opponent '{}' search is cancelled after {} ms", playerMark,
+					TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime));
+			token.throwIfCancelled();
+		}
+
+		SearchWorker best = workers[0];
+		long nodes = 0;
+		for (SearchWorker worker : workers) {
+			nodes += worker.nodes();
+			if (worker.completedDepth() > best.completedDepth()) {
+				best = worker;
+			}
+		}
+		long elapsedNanos = System.nanoTime() - startTime;
+		lastSearchStatistics = new SearchStatistics(workers.length, best.completedDepth(), nodes, elapsedNanos);
+
+		Position bestPosition = best.bestPosition();
+		if (!bestPosition.isValid()) {
+			LOG.trace("AI opponent '{}' can not find any free position to make a turn to", playerMark);
+			return NOT_FOUND;
+		}
+		LOG.debug("AI opponent '{}' chooses {} with score {} at depth {} after {} nodes in {} ms on {} thread(s)",
+				playerMark, bestPosition, best.bestScore(), best.completedDepth(), nodes,
+				TimeUnit.NANOSECONDS.toMillis(elapsedNanos), workers.length);
+		return bestPosition;
+	}
+
+	private Future<?>[] startHelpers(Mark playerMark, long deadline, AtomicBoolean stopSignal,
+			CancellationToken token, Position firstMove) {
+		Future<?>[] helpers = new Future<?>[workers.length - 1];
+		for (int i = 1; i < workers.length; i++) {
+			SearchWorker helper = workers[i];
+			int firstDepth = 1 + (i & 1);
+			helpers[i - 1] = helperExecutor.submit(
+					() -> helper.search(playerMark, firstDepth, deadline, stopSignal, token, firstMove));
+		}
+		return helpers;
+	}
+
+	private static void awaitHelpers(Future<?>[] helpers) {
+		for (Future<?> helper : helpers) {
+			try {
+				helper.get();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException("Interrupted while waiting for search helper threads", e);
+			} catch (ExecutionException e) {
+				throw new IllegalStateException("Search helper thread failed", e.getCause());
+			}
+		}
+	}
+
+	/**
+	 * Returns statistics of the last search performed by this opponent.
+	 */
+	public SearchStatistics getLastSearchStatistics() {
+		return lastSearchStatistics;
+	}
+
+	/**
+	 * Starts pondering: searching the position on the game table for the player who
+	 * is to make a turn, the opponent of this AI, on a background thread until pondering
+	 * is {@link #stopPondering() stopped}. Results are kept in the transposition table,
+	 * where the search of this AI's reply finds them. The game table is copied before
+	 * this method returns, so it may be changed while the opponent ponders.
+	 */
+	public void startPondering(Mark playerMark) {
+		requireNonNull(playerMark, "playerMark can not be null");
+		checkPlayerMark(playerMark);
+		stopPondering();
+		SearchWorker worker = workers[0];
+		worker.copyGameTable(gameTable);
+		if (worker.isBoardEmpty()) {
+			return;
+		}
+		if (ponderExecutor == null) {
+			ponderExecutor = Executors.newSingleThreadExecutor(ponderThreadFactory());
+		}
+		transpositionTable.newSearch();
+		searchIsPondered = true;
+		CancellationToken token = new CancellationToken();
+		long deadline = System.nanoTime() + PONDER_TIME_NANOS;
+		ponderToken = token;
+		ponderSearch = ponderExecutor.submit(() -> worker.search(playerMark, 1, deadline, new AtomicBoolean(), token));
+		LOG.debug("AI opponent ponders while '{}' chooses a turn", playerMark);
+	}
+
+	/**
+	 * Stops pondering, if the opponent ponders, and waits for the pondering thread
+	 * to leave the search, which takes a fraction of a millisecond.
+	 */
+	public void stopPondering() {
+		if (ponderSearch == null) {
+			return;
+		}
+		ponderToken.cancel();
+		awaitHelpers(new Future<?>[] {ponderSearch});
+		ponderSearch = null;
+		ponderToken = null;
+		SearchWorker worker = workers[0];
+		LOG.debug("AI opponent stops pondering at depth {} after {} nodes, expected reply {}",
+				worker.completedDepth(), worker.nodes(), worker.bestPosition());
+	}
+
+	/**
+	 * Stops pondering and helper threads of this opponent, if there are any.
+	 */
+	public void shutdown() {
+		stopPondering();
+		if (helperExecutor != null) {
+			helperExecutor.shutdownNow();
+		}
+		if (ponderExecutor != null) {
+			ponderExecutor.shutdownNow();
+		}
+	}
+
+	private void checkPlayerMark(Mark playerMark) {
+		if (playerMark == Mark.EMPTY) {
+			throw new IllegalArgumentException("Player mark should be 'X' or 'O', not 'EMPTY'");
+		}
+	}
+
+	private static ThreadFactory ponderThreadFactory() {
+		return runnable -> {
+			Thread thread = new Thread(runnable, "gomoku-search-ponder-" + PONDER_THREAD_COUNTER.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		};
+	}
+
+	private static ThreadFactory helperThreadFactory() {
+		return runnable -> {
+			Thread thread = new Thread(runnable, "gomoku-search-helper-" + HELPER_THREAD_COUNTER.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		};
+	}
+}
@@ -0,0 +1,66 @@
+package com.revenat.game.gomoku.domain.impl;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Value type which describes a single search performed by {@link SearchGomokuAIGameOpponent}.
+ *
+ * @author Vitaly Dragun
+ *
+ */
+public final class SearchStatistics {
+	/**
+	 * Statistics of the search which has not been performed yet
+	 */
+	public static final SearchStatistics NONE = new SearchStatistics(0, 0, 0, 0);
+
+	private final int threads;
+	private final int depth;
+	private final long nodes;
+	private final long elapsedNanos;
+
+	public SearchStatistics(int threads, int depth, long nodes, long elapsedNanos) {
+		this.threads = threads;
+		this.depth = depth;
+		this.nodes = nodes;
+		this.elapsedNanos = elapsedNanos;
+	}
+
+	/**
+	 * Returns number of threads the search was performed on.
+	 */
+	public int threads() {
+		return threads;
+	}
+
+	/**
+	 * Returns depth of the deepest completed iteration.
+	 */
+	public int depth() {
+		return depth;
+	}
+
+	/**
+	 * Returns number of nodes searched by all threads.
+	 */
+	public long nodes() {
+		return nodes;
+	}
+
+	public long elapsedNanos() {
+		return elapsedNanos;
+	}
+
+	/**
+	 * Returns number of nodes searched per second by all threads.
+	 */
+	public long nodesPerSecond() {
+		return elapsedNanos == 0 ? 0 : nodes * TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+	}
+
+	@Override
+	public String toString() {
+		return "[threads=" + threads + ", depth=" + depth + ", nodes=" + nodes
+				+ ", elapsedMillis=" + TimeUnit.NANOSECONDS.toMillis(elapsedNanos) + "]";
+	}
+}
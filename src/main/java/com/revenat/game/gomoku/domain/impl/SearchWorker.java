@@ -0,0 +1,498 @@
+package com.revenat.game.gomoku.domain.impl;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.revenat.game.gomoku.domain.BoardGeometry;
+import com.revenat.game.gomoku.domain.BoardSymmetry;
+import com.revenat.game.gomoku.domain.CancellationToken;
+import com.revenat.game.gomoku.domain.GameTable;
+import com.revenat.game.gomoku.domain.Mark;
+import com.revenat.game.gomoku.domain.Position;
+
+/**
+ * Performs negamax search with alpha-beta pruning and iterative deepening on its
+ * own copy of the game table for {@link SearchGomokuAIGameOpponent}.
+ * <p>
+ * Several workers may search the same position in parallel sharing single
+ * {@link TranspositionTable}, each of them on its own thread.
+ *
+ * @author Vitaly Dragun
+ *
+ */
+final class SearchWorker {
+	static final int MAX_CANDIDATES = 12;
+	/**
+	 * Upper bound of the search depth, so winning scores are always greater than
+	 * {@code WIN_SCORE - MAX_PLY}
+	 */
+	static final int MAX_PLY = 255;
+	/**
+	 * How far from already marked cells candidate moves are looked for
+	 */
+	private static final int CANDIDATE_RADIUS = 2;
+	/**
+	 * How many nodes are searched between two checks of the time budget
+	 */
+	private static final int TIME_CHECK_INTERVAL_MASK = 0x3F;
+
+	private static final int WIN_SCORE = 100_000_000;
+	private static final int INFINITY = Integer.MAX_VALUE - 1;
+	/**
+	 * Scores of the segment by how many marks one player lacks to complete it,
+	 * starting from the one lacking a single mark
+	 */
+	private static final int[] SEGMENT_SCORES_BY_LACKING = {8_000, 400, 20, 1};
+	private static final int[] ATTACK_SCORES_BY_LACKING = {1_000_000, 4_000, 200, 10};
+	private static final int[] DEFENCE_SCORES_BY_LACKING = {500_000, 3_000, 150, 8};
+	private static final Position NOT_FOUND = Position.NOT_FOUND;
+
+	private final int maxDepth;
+	private final TranspositionTable transpositionTable;
+
+	private final BoardGeometry geometry;
+	private final GomokuTableTopology topology;
+	private final int winningCount;
+	private final int totalCells;
+	/**
+	 * Score of the segment which contains specified number of cells marked by one
+	 * player only.
+	 */
+	private final int[] segmentScores;
+	private final int[] attackScores;
+	private final int[] defenceScores;
+	private final int[][] nearbyCells;
+
+	private final BitboardGameTable board;
+	private final int[] xCounts;
+	private final int[] oCounts;
+	private final int[] nearbyMarkedCounts;
+	/**
+	 * Incremental evaluator of the board or {@code null} if winning length is too
+	 * long for it, in which case segments are rescanned on every evaluation
+	 */
+	private final PatternEvaluator patternEvaluator;
+	private final Position[][] candidatesByPly;
+	private final int[][] candidateScoresByPly;
+
+	private long deadline;
+	private AtomicBoolean stopSignal;
+	private CancellationToken cancellationToken;
+	private long nodes;
+	private boolean timeIsUp;
+
+	private Position bestPosition = NOT_FOUND;
+	private int bestScore;
+	private int completedDepth;
+
+	SearchWorker(BoardGeometry geometry, int maxDepth, TranspositionTable transpositionTable) {
+		this.maxDepth = maxDepth;
+		this.transpositionTable = transpositionTable;
+		this.geometry = geometry;
+		this.topology = GomokuTableTopology.of(geometry);
+		this.winningCount = geometry.winLength();
+		this.totalCells = geometry.totalCells();
+		this.segmentScores = buildScores(winningCount, SEGMENT_SCORES_BY_LACKING, 0, WIN_SCORE);
+		this.attackScores = buildScores(winningCount, ATTACK_SCORES_BY_LACKING, 1, 0);
+		this.defenceScores = buildScores(winningCount, DEFENCE_SCORES_BY_LACKING, 1, 0);
+		this.nearbyCells = buildNearbyCells(geometry);
+		this.board = new BitboardGameTable(geometry);
+		this.xCounts = new int[topology.segmentCount()];
+		this.oCounts = new int[topology.segmentCount()];
+		this.nearbyMarkedCounts = new int[totalCells + 1];
+		this.patternEvaluator = PatternEvaluator.supports(geometry) ? new PatternEvaluator(geometry) : null;
+		this.candidatesByPly = new Position[maxDepth + 1][MAX_CANDIDATES];
+		this.candidateScoresByPly = new int[maxDepth + 1][MAX_CANDIDATES];
+	}
+
+	/**
+	 * Returns true if there is no marked cells on the board of this worker.
+	 */
+	boolean isBoardEmpty() {
+		return board.getMarkedCellsCount() == 0;
+	}
+
+	/**
+	 * Searches for the best turn position for specified player deepening iteratively
+	 * until maximum depth is reached, the deadline is passed, the stop signal is raised
+	 * or the cancellation token is cancelled.
+	 * Results are available via {@link #bestPosition()}, {@link #bestScore()} and
+	 * {@link #completedDepth()}.
+	 *
+	 * @param firstDepth depth of the first iteration
+	 * @param deadline   value of the {@link System#nanoTime()} when search should be stopped
+	 * @param stopSignal signal shared by workers searching the same position in parallel
+	 * @param token      token of the caller which cancels the search
+	 */
+	void search(Mark player, int firstDepth, long deadline, AtomicBoolean stopSignal, CancellationToken token) {
+		search(player, firstDepth, deadline, stopSignal, token, NOT_FOUND);
+	}
+
+	/**
+	 * Searches like {@link #search(Mark, int, long, AtomicBoolean, CancellationToken)},
+	 * trying the specified turn position first at the root, e.g. the first turn of the
+	 * forced win which may be refuted, so that the search confirms or refutes it first.
+	 *
+	 * @param firstMove empty cell to try first or {@link Position#NOT_FOUND}
+	 */
+	void search(Mark player, int firstDepth, long deadline, AtomicBoolean stopSignal, CancellationToken token,
+			Position firstMove) {
+		this.deadline = deadline;
+		this.stopSignal = stopSignal;
+		this.cancellationToken = token;
+		nodes = 0;
+		timeIsUp = false;
+		bestScore = 0;
+		completedDepth = 0;
+
+		Position[] rootCandidates = candidatesByPly[0];
+		int candidateCount = generateCandidates(player, 0);
+		if (firstMove.isValid()) {
+			candidateCount = insertFirst(rootCandidates, firstMove, candidateCount);
+		}
+		bestPosition = candidateCount > 0 ? rootCandidates[0] : NOT_FOUND;
+
+		for (int depth = firstDepth; depth <= maxDepth && candidateCount > 1; depth++) {
+			moveToFront(rootCandidates, bestPosition, candidateCount);
+			int alpha = -INFINITY;
+			Position iterationBest = NOT_FOUND;
+			for (int i = 0; i < candidateCount; i++) {
+				Position candidate = rootCandidates[i];
+				int score = scoreTurn(candidate, player, depth, 0, -INFINITY, -alpha);
+				if (timeIsUp) {
+					break;
+				}
+				if (score > alpha) {
+					alpha = score;
+					iterationBest = candidate;
+				}
+			}
+			if (timeIsUp) {
+				break;
+			}
+			bestPosition = iterationBest;
+			bestScore = alpha;
+			completedDepth = depth;
+			if (Math.abs(bestScore) >= WIN_SCORE - MAX_PLY) {
+				break;
+			}
+		}
+	}
+
+	Position bestPosition() {
+		return bestPosition;
+	}
+
+	int bestScore() {
+		return bestScore;
+	}
+
+	int completedDepth() {
+		return completedDepth;
+	}
+
+	long nodes() {
+		return nodes;
+	}
+
+	/**
+	 * Returns score of the turn to specified position from the point of view of the
+	 * player who makes it.
+	 */
+	private int scoreTurn(Position position, Mark player, int depth, int ply, int alpha, int beta) {
+		makeTurn(position, player);
+		int score;
+		if (isWinningTurn(position, player)) {
+			score = WIN_SCORE - ply;
+		} else {
+			score = -negamax(player.getOpponent(), depth - 1, ply + 1, alpha, beta);
+		}
+		undoTurn(position, player);
+		return score;
+	}
+
+	private int negamax(Mark player, int depth, int ply, int alpha, int beta) {
+		if ((++nodes & TIME_CHECK_INTERVAL_MASK) == 0
+				&& (System.nanoTime() - deadline > 0 || stopSignal.get() || cancellationToken.isCancelled())) {
+			timeIsUp = true;
+		}
+		if (timeIsUp) {
+			return 0;
+		}
+		if (depth == 0) {
+			return evaluate(player);
+		}
+
+		// symmetric positions share entries: key and move are stored in canonical form
+		BoardSymmetry symmetry = board.getCanonicalSymmetry();
+		long key = board.getZobristKey(symmetry) ^ ZobristKeys.sideToMoveKey(player);
+		long entry = transpositionTable.probe(key);
+		Position storedMove = NOT_FOUND;
+		if (entry != TranspositionTable.MISS) {
+			int storedOrdinal = TranspositionTable.moveOrdinal(entry);
+			if (storedOrdinal != 0) {
+				storedMove = geometry.position(topology.symmetricOrdinals(symmetry.inverse())[storedOrdinal]);
+			}
+			if (TranspositionTable.depth(entry) >= depth) {
+				int storedScore = fromStoredScore(TranspositionTable.score(entry), ply);
+				int bound = TranspositionTable.bound(entry);
+				if (bound == TranspositionTable.EXACT) {
+					return storedScore;
+				} else if (bound == TranspositionTable.LOWER_BOUND && storedScore > alpha) {
+					alpha = storedScore;
+				} else if (bound == TranspositionTable.UPPER_BOUND && storedScore < beta) {
+					beta = storedScore;
+				}
+				if (alpha >= beta) {
+					return storedScore;
+				}
+			}
+		}
+
+		int candidateCount = generateCandidates(player, ply);
+		if (candidateCount == 0) {
+			return 0;
+		}
+
+		Position[] candidates = candidatesByPly[ply];
+		moveToFront(candidates, storedMove, candidateCount);
+		int originalAlpha = alpha;
+		int best = -INFINITY;
+		Position bestMove = NOT_FOUND;
+		for (int i = 0; i < candidateCount; i++) {
+			int score = scoreTurn(candidates[i], player, depth, ply, -beta, -alpha);
+			if (timeIsUp) {
+				return 0;
+			}
+			if (score > best) {
+				best = score;
+				bestMove = candidates[i];
+			}
+			if (score > alpha) {
+				alpha = score;
+			}
+			if (alpha >= beta) {
+				break;
+			}
+		}
+
+		int bound = best <= originalAlpha ? TranspositionTable.UPPER_BOUND
+				: best >= beta ? TranspositionTable.LOWER_BOUND : TranspositionTable.EXACT;
+		int canonicalMove = bestMove.isValid() ? topology.symmetricOrdinals(symmetry)[bestMove.ordinal()] : 0;
+		transpositionTable.store(key, depth, toStoredScore(best, ply), bound, canonicalMove);
+		return best;
+	}
+
+	/**
+	 * Converts winning score relative to the root of the search into the score relative
+	 * to the current node, so it stays valid when the node is reached at another ply.
+	 */
+	private static int toStoredScore(int score, int ply) {
+		if (score >= WIN_SCORE - MAX_PLY) {
+			return score + ply;
+		} else if (score <= -WIN_SCORE + MAX_PLY) {
+			return score - ply;
+		}
+		return score;
+	}
+
+	private static int fromStoredScore(int score, int ply) {
+		if (score >= WIN_SCORE - MAX_PLY) {
+			return score - ply;
+		} else if (score <= -WIN_SCORE + MAX_PLY) {
+			return score + ply;
+		}
+		return score;
+	}
+
+	/**
+	 * Statically evaluates current position from the point of view of the specified player
+	 * with {@link PatternEvaluator}, or by rescanning segments of the winning length.
+	 */
+	private int evaluate(Mark player) {
+		if (patternEvaluator != null) {
+			return patternEvaluator.evaluate(player);
+		}
+		int score = 0;
+		for (int segment = 0; segment < xCounts.length; segment++) {
+			if (oCounts[segment] == 0) {
+				score += segmentScores[xCounts[segment]];
+			} else if (xCounts[segment] == 0) {
+				score -= segmentScores[oCounts[segment]];
+			}
+		}
+		return player == Mark.X ? score : -score;
+	}
+
+	/**
+	 * Fills candidates of the specified ply with most promising empty cells near
+	 * already marked ones, ordered from the best to the worst.
+	 *
+	 * @return number of found candidates
+	 */
+	private int generateCandidates(Mark player, int ply) {
+		Position[] candidates = candidatesByPly[ply];
+		int[] scores = candidateScoresByPly[ply];
+		int count = 0;
+
+		for (int ordinal = 1; ordinal <= totalCells; ordinal++) {
+			if (nearbyMarkedCounts[ordinal] == 0) {
+				continue;
+			}
+			if (!board.isCellEmpty(ordinal)) {
+				continue;
+			}
+			Position position = geometry.position(ordinal);
+			int score = scoreCandidate(position, player);
+			if (count < MAX_CANDIDATES) {
+				count++;
+			} else if (score <= scores[count - 1]) {
+				continue;
+			}
+			int index = count - 1;
+			while (index > 0 && scores[index - 1] < score) {
+				scores[index] = scores[index - 1];
+				candidates[index] = candidates[index - 1];
+				index--;
+			}
+			scores[index] = score;
+			candidates[index] = position;
+		}
+		return count;
+	}
+
+	private int scoreCandidate(Position position, Mark player) {
+		int[] own = player == Mark.X ? xCounts : oCounts;
+		int[] opponent = player == Mark.X ? oCounts : xCounts;
+		int score = 0;
+		for (int segment : topology.segmentsThrough(position)) {
+			if (opponent[segment] == 0) {
+				score += attackScores[own[segment]];
+			} else if (own[segment] == 0) {
+				score += defenceScores[opponent[segment]];
+			}
+		}
+		return score;
+	}
+
+	private boolean isWinningTurn(Position position, Mark player) {
+		int[] own = player == Mark.X ? xCounts : oCounts;
+		for (int segment : topology.segmentsThrough(position)) {
+			if (own[segment] == winningCount) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private void makeTurn(Position position, Mark player) {
+		board.pushMove(position.ordinal(), player);
+		updateCounts(position, player, 1);
+		if (patternEvaluator != null) {
+			patternEvaluator.makeTurn(position.ordinal(), player);
+		}
+	}
+
+	private void undoTurn(Position position, Mark player) {
+		board.popMove();
+		updateCounts(position, player, -1);
+		if (patternEvaluator != null) {
+			patternEvaluator.undoTurn(position.ordinal(), player);
+		}
+	}
+
+	private void updateCounts(Position position, Mark player, int delta) {
+		int[] counts = player == Mark.X ? xCounts : oCounts;
+		for (int segment : topology.segmentsThrough(position)) {
+			counts[segment] += delta;
+		}
+		for (int ordinal : nearbyCells[position.ordinal()]) {
+			nearbyMarkedCounts[ordinal] += delta;
+		}
+	}
+
+	/**
+	 * Makes the board of this worker a copy of the specified game table.
+	 */
+	void copyGameTable(GameTable gameTable) {
+		board.clear();
+		if (patternEvaluator != null) {
+			patternEvaluator.clear();
+		}
+		Arrays.fill(xCounts, 0);
+		Arrays.fill(oCounts, 0);
+		Arrays.fill(nearbyMarkedCounts, 0);
+		for (int ordinal = 1; ordinal <= totalCells; ordinal++) {
+			byte code = gameTable.getCellCode(ordinal);
+			if (code != Mark.EMPTY_CODE) {
+				makeTurn(geometry.position(ordinal), Mark.fromCode(code));
+			}
+		}
+	}
+
+	static void moveToFront(Position[] positions, Position position, int count) {
+		for (int i = 0; i < count; i++) {
+			if (positions[i] == position) {
+				System.arraycopy(positions, 0, positions, 1, i);
+				positions[0] = position;
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Moves specified position to the front of the positions or inserts it there if it is
+	 * not among them, in which case the last position gives way when there is no room.
+	 *
+	 * @return number of the positions after insertion
+	 */
+	static int insertFirst(Position[] positions, Position position, int count) {
+		int index = 0;
+		while (index < count && positions[index] != position) {
+			index++;
+		}
+		if (index == positions.length) {
+			index--;
+		}
+		System.arraycopy(positions, 0, positions, 1, index);
+		positions[0] = position;
+		return index == count ? count + 1 : count;
+	}
+
+	/**
+	 * Builds scores indexed by number of cells marked by one player in a segment:
+	 * empty segment scores {@code emptyScore}, complete one {@code completeScore},
+	 * and the rest are taken from {@code scoresByLacking}, the lowest of them is used
+	 * for segments lacking more marks than it has scores for.
+	 */
+	private static int[] buildScores(int winningCount, int[] scoresByLacking, int emptyScore, int completeScore) {
+		int[] scores = new int[winningCount + 1];
+		scores[0] = emptyScore;
+		scores[winningCount] = completeScore;
+		for (int marked = 1; marked < winningCount; marked++) {
+			int lacking = winningCount - marked;
+			scores[marked] = scoresByLacking[Math.min(lacking, scoresByLacking.length) - 1];
+		}
+		return scores;
+	}
+
+	private static int[][] buildNearbyCells(BoardGeometry geometry) {
+		int[][] nearbyCells = new int[geometry.totalCells() + 1][];
+		int[] buffer = new int[(2 * CANDIDATE_RADIUS + 1) * (2 * CANDIDATE_RADIUS + 1)];
+		for (int ordinal = 1; ordinal <= geometry.totalCells(); ordinal++) {
+			Position position = geometry.position(ordinal);
+			int count = 0;
+			for (int rowOffset = -CANDIDATE_RADIUS; rowOffset <= CANDIDATE_RADIUS; rowOffset++) {
+				for (int columnOffset = -CANDIDATE_RADIUS; columnOffset <= CANDIDATE_RADIUS; columnOffset++) {
+					Position nearby = geometry.position(position.row() + rowOffset, position.column() + columnOffset);
+					if (nearby.isValid() && nearby != position) {
+						buffer[count++] = nearby.ordinal();
+					}
+				}
+			}
+			nearbyCells[ordinal] = Arrays.copyOf(buffer, count);
+		}
+		return nearbyCells;
+	}
+
+}
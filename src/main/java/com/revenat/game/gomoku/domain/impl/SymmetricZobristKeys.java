@@ -0,0 +1,100 @@
+package com.revenat.game.gomoku.domain.impl;
+
+import java.util.Arrays;
+
+import com.revenat.game.gomoku.domain.BoardSymmetry;
+import com.revenat.game.gomoku.domain.GameTable;
+import com.revenat.game.gomoku.domain.Mark;
+
+/**
+ * Zobrist hash keys of the {@link GameTable} in all its {@link BoardSymmetry symmetric}
+ * forms, updated incrementally in parallel every time a cell is marked or cleared.
+ * <p>
+ * Key of the {@link BoardSymmetry#IDENTITY identity} form is the usual hash key of
+ * the table. Canonical form of the table is the one with the smallest key.
+ *
+ * @author Vitaly Dragun
+ *
+ */
+final class SymmetricZobristKeys {
+	private final BoardSymmetry[] symmetries;
+	/**
+	 * Index of every symmetry in {@link #symmetries} by symmetry ordinal,
+	 * {@code -1} for symmetries not applicable to the table
+	 */
+	private final int[] indexBySymmetry = new int[BoardSymmetry.values().length];
+	private final int[][] symmetricOrdinals;
+	private final long[] keys;
+
+	SymmetricZobristKeys(GomokuTableTopology topology) {
+		this.symmetries = BoardSymmetry.applicableTo(topology.geometry());
+		this.symmetricOrdinals = new int[symmetries.length][];
+		this.keys = new long[symmetries.length];
+		Arrays.fill(indexBySymmetry, -1);
+		for (int i = 0; i < symmetries.length; i++) {
+			indexBySymmetry[symmetries[i].ordinal()] = i;
+			symmetricOrdinals[i] = topology.symmetricOrdinals(symmetries[i]);
+		}
+	}
+
+	void clear() {
+		Arrays.fill(keys, 0L);
+	}
+
+	void copyFrom(SymmetricZobristKeys other) {
+		System.arraycopy(other.keys, 0, keys, 0, keys.length);
+	}
+
+	/**
+	 * Updates keys after the cell with specified ordinal marked with {@code previous}
+	 * mark is marked with {@code current} one.
+	 */
+	void update(int ordinal, Mark previous, Mark current) {
+		for (int i = 0; i < keys.length; i++) {
+			int symmetricOrdinal = symmetricOrdinals[i][ordinal];
+			keys[i] ^= ZobristKeys.keyFor(symmetricOrdinal, previous) ^ ZobristKeys.keyFor(symmetricOrdinal, current);
+		}
+	}
+
+	/**
+	 * Returns hash key of the table in its identity form.
+	 */
+	long key() {
+		return keys[0];
+	}
+
+	/**
+	 * Returns hash key of the table transformed by specified symmetry.
+	 */
+	long key(BoardSymmetry symmetry) {
+		int index = indexBySymmetry[symmetry.ordinal()];
+		if (index < 0) {
+			throw new IllegalArgumentException(symmetry + " is not applicable to the table");
+		}
+		return keys[index];
+	}
+
+	/**
+	 * Returns symmetry which transforms the table into its canonical form.
+	 */
+	BoardSymmetry canonicalSymmetry() {
+		int canonical = 0;
+		for (int i = 1; i < keys.length; i++) {
+			if (keys[i] < keys[canonical]) {
+				canonical = i;
+			}
+		}
+		return symmetries[canonical];
+	}
+
+	/**
+	 * Returns hash key of the canonical form of the table.
+	 */
+	long canonicalKey() {
+		long canonicalKey = keys[0];
+		for (int i = 1; i < keys.length; i++) {
+			canonicalKey = Math.min(canonicalKey, keys[i]);
+		}
+		return canonicalKey;
+	}
+}
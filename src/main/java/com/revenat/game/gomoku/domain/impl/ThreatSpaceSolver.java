@@ -0,0 +1,447 @@
+package com.revenat.game.gomoku.domain.impl;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.Arrays;
+
+import com.revenat.game.gomoku.domain.GameTable;
+import com.revenat.game.gomoku.domain.Mark;
+import com.revenat.game.gomoku.domain.Position;
+
+/**
+ * Threat-space solver which looks for forced wins in Gomoku game.
+ * <p>
+ * Victory by continuous fours (VCF) is a sequence of turns where every attacker's
+ * turn makes a four, so the only answer of the defender is to block it, which
+ * ends with five in a row or with two fours at once. Victory by continuous threats
+ * (VCT) also allows attacker's turns after which the attacker would have VCF if it
+ * were the attacker's turn again, such as open threes. For such turns the defender
+ * is assumed to answer on the cells of the threatened VCF or by making own four,
+ * so found VCT may be refuted by other defence, while found VCF is always sound.
+ * <p>
+ * Positions found to have no VCF are remembered by their Zobrist keys during a single
+ * solving, and solving gives up after the configured number of searched positions,
+ * so it never takes more than a few milliseconds.
+ * <p>
+ * Solver works on its own copy of the game table and can be used independently of
+ * any {@link com.revenat.game.gomoku.domain.AIGameOpponent}. Instances are not
+ * thread-safe, but separate instances can be used on separate threads.
+ *
+ * @author Vitaly Dragun
+ *
+ */
+public class ThreatSpaceSolver {
+	private static final int DEFAULT_MAX_VCF_DEPTH = 20;
+	private static final int DEFAULT_MAX_VCT_DEPTH = 2;
+	private static final int DEFAULT_MAX_NODES = 20_000;
+	private static final int FAILURE_CACHE_SIZE = 1 << 14;
+	private static final Position[] NO_LINE = new Position[0];
+
+	private final int maxVcfDepth;
+	private final int maxVctDepth;
+	private final int maxNodes;
+
+	/**
+	 * Topology of the table being solved, state arrays are reallocated when it changes
+	 */
+	private GomokuTableTopology topology;
+	private int winningCount;
+	private int totalCells;
+	private Mark[] cells;
+	private int[] xCounts;
+	private int[] oCounts;
+	/**
+	 * Number of the segments where player has four marks and the opponent has none,
+	 * indexed by {@link Mark#X} and {@link Mark#O} ordinals
+	 */
+	private final int[] fourCounts = new int[Mark.values().length];
+	private long zobristKey;
+	/**
+	 * Keys of the positions without VCF for the side to move and the depths they were searched to
+	 */
+	private final long[] failureKeys = new long[FAILURE_CACHE_SIZE];
+	private final int[] failureDepths = new int[FAILURE_CACHE_SIZE];
+	private final int[] failureGenerations = new int[FAILURE_CACHE_SIZE];
+	private int generation;
+	private int nodes;
+	/**
+	 * Forcing line currently being built, indexed by ply
+	 */
+	private final Position[] line;
+	private int[] visitedStamps;
+	private int stamp;
+	private int lineLength;
+	/**
+	 * Buffers for the cells to try, indexed by nesting level of the solving: every level
+	 * takes the next buffer while it iterates over its cells, so no array is allocated
+	 * per searched position
+	 */
+	private Position[][] scratchBuffers;
+	private int scratchLevel;
+
+	public ThreatSpaceSolver() {
+		this(DEFAULT_MAX_VCF_DEPTH, DEFAULT_MAX_VCT_DEPTH, DEFAULT_MAX_NODES);
+	}
+
+	/**
+	 * @param maxVcfDepth maximum number of attacker's fours in the searched VCF
+	 * @param maxVctDepth maximum number of attacker's threats other than fours in the searched VCT
+	 * @param maxNodes    maximum number of positions searched during single solving
+	 */
+	public ThreatSpaceSolver(int maxVcfDepth, int maxVctDepth, int maxNodes) {
+		if (maxVcfDepth <= 0 || maxVctDepth < 0 || maxNodes <= 0) {
+			throw new IllegalArgumentException("Invalid solver limits: VCF depth " + maxVcfDepth
+					+ ", VCT depth " + maxVctDepth + ", nodes " + maxNodes);
+		}
+		this.maxVcfDepth = maxVcfDepth;
+		this.maxVctDepth = maxVctDepth;
+		this.maxNodes = maxNodes;
+		this.line = new Position[2 * (maxVcfDepth + 1) * (maxVctDepth + 1) + 2];
+	}
+
+	/**
+	 * Looks for the victory by continuous fours for the specified attacker who is to move.
+	 *
+	 * @return forcing line of turns, alternately attacker's and defender's, starting and
+	 *         ending with attacker's turn, or empty array if there is no such victory
+	 */
+	public Position[] findVictoryByContinuousFours(GameTable gameTable, Mark attacker) {
+		requireNonNull(gameTable, "GameTable can not be null.");
+		checkPlayerMark(attacker);
+		startSolving(gameTable);
+		return vcf(attacker, maxVcfDepth) ? Arrays.copyOf(line, lineLength) : NO_LINE;
+	}
+
+	/**
+	 * Looks for the victory by continuous threats for the specified attacker who is to move.
+	 * Victory by continuous fours is found as well, since every four is a threat.
+	 *
+	 * @return forcing line of turns, alternately attacker's and defender's, starting and
+	 *         ending with attacker's turn, or empty array if there is no such victory
+	 */
+	public Position[] findVictoryByContinuousThreats(GameTable gameTable, Mark attacker) {
+		requireNonNull(gameTable, "GameTable can not be null.");
+		checkPlayerMark(attacker);
+		startSolving(gameTable);
+		if (vcf(attacker, maxVcfDepth)) {
+			return Arrays.copyOf(line, lineLength);
+		}
+		lineLength = 0;
+		if (hasVcf(attacker.getOpponent())) {
+			return NO_LINE;
+		}
+		return vct(attacker, maxVctDepth) ? Arrays.copyOf(line, lineLength) : NO_LINE;
+	}
+
+	private void startSolving(GameTable gameTable) {
+		if (topology == null || topology.geometry() != gameTable.getGeometry()) {
+			allocateFor(GomokuTableTopology.of(gameTable.getGeometry()));
+		}
+		copyGameTable(gameTable);
+		lineLength = 0;
+		scratchLevel = 0;
+		nodes = 0;
+		generation++;
+	}
+
+	private void allocateFor(GomokuTableTopology tableTopology) {
+		topology = tableTopology;
+		winningCount = tableTopology.winningCount();
+		totalCells = tableTopology.geometry().totalCells();
+		cells = new Mark[totalCells + 1];
+		xCounts = new int[tableTopology.segmentCount()];
+		oCounts = new int[tableTopology.segmentCount()];
+		visitedStamps = new int[totalCells + 1];
+		stamp = 0;
+		// every VCT level keeps its threats and defences, under them the deepest VCF keeps its fours
+		scratchBuffers = new Position[2 * maxVctDepth + maxVcfDepth][totalCells];
+	}
+
+	private boolean vcf(Mark attacker, int depth) {
+		Position five = findCellToCompleteFive(attacker);
+		if (five.isValid()) {
+			line[lineLength++] = five;
+			return true;
+		}
+		if (depth == 0 || fourCounts[attacker.getOpponent().ordinal()] > 0 || ++nodes > maxNodes) {
+			return false;
+		}
+		long key = zobristKey ^ ZobristKeys.sideToMoveKey(attacker);
+		int cacheIndex = (int) (key ^ (key >>> 32)) & (FAILURE_CACHE_SIZE - 1);
+		if (failureGenerations[cacheIndex] == generation && failureKeys[cacheIndex] == key
+				&& failureDepths[cacheIndex] >= depth) {
+			return false;
+		}
+
+		Position[] attacks = scratchBuffers[scratchLevel++];
+		int attackCount = collectFourMakingCells(attacker, attacks);
+		boolean win = false;
+		for (int i = 0; i < attackCount && !win; i++) {
+			Position defence = makeFourAndFindDefence(attacks[i], attacker);
+			win = !defence.isValid() || defendAndContinueVcf(defence, attacker, depth);
+			mark(attacks[i], attacker, Mark.EMPTY);
+		}
+		scratchLevel--;
+		if (win) {
+			return true;
+		}
+		failureGenerations[cacheIndex] = generation;
+		failureKeys[cacheIndex] = key;
+		failureDepths[cacheIndex] = depth;
+		return false;
+	}
+
+	/**
+	 * Marks the cell making a four and returns the only cell the defender can block it at,
+	 * or {@link Position#NOT_FOUND} if four can not be blocked with a single turn.
+	 */
+	private Position makeFourAndFindDefence(Position attack, Mark attacker) {
+		mark(attack, Mark.EMPTY, attacker);
+		line[lineLength++] = attack;
+		Position defence = Position.NOT_FOUND;
+		int[] own = countsOf(attacker);
+		int[] opponent = countsOf(attacker.getOpponent());
+		for (int segment : topology.segmentsThrough(attack)) {
+			if (own[segment] == winningCount - 1 && opponent[segment] == 0) {
+				Position empty = emptyCellOf(segment);
+				if (defence.isValid() && defence != empty) {
+					return Position.NOT_FOUND;
+				}
+				defence = empty;
+			}
+		}
+		return defence;
+	}
+
+	private boolean defendAndContinueVcf(Position defence, Mark attacker, int depth) {
+		Mark defender = attacker.getOpponent();
+		mark(defence, Mark.EMPTY, defender);
+		line[lineLength++] = defence;
+		boolean win = !isFive(defence, defender) && vcf(attacker, depth - 1);
+		mark(defence, defender, Mark.EMPTY);
+		if (!win) {
+			lineLength -= 2;
+		}
+		return win;
+	}
+
+	private boolean hasVcf(Mark attacker) {
+		int savedLength = lineLength;
+		boolean found = vcf(attacker, maxVcfDepth);
+		lineLength = savedLength;
+		return found;
+	}
+
+	private boolean vct(Mark attacker, int depth) {
+		if (vcf(attacker, maxVcfDepth)) {
+			return true;
+		}
+		if (depth == 0 || nodes > maxNodes) {
+			return false;
+		}
+
+		Position[] threats = scratchBuffers[scratchLevel++];
+		int threatCount = collectThreeMakingCells(attacker, threats);
+		boolean win = false;
+		for (int i = 0; i < threatCount && !win; i++) {
+			mark(threats[i], Mark.EMPTY, attacker);
+			int threatIndex = lineLength;
+			line[lineLength++] = threats[i];
+			win = refutesAllDefences(attacker, depth);
+			mark(threats[i], attacker, Mark.EMPTY);
+			if (!win) {
+				lineLength = threatIndex;
+			}
+		}
+		scratchLevel--;
+		return win;
+	}
+
+	/**
+	 * Checks that the last attacker's turn is a threat and that attacker keeps VCT
+	 * whatever the defender answers to it. The line of the first answer is kept as
+	 * the forcing line.
+	 */
+	private boolean refutesAllDefences(Mark attacker, int depth) {
+		Mark defender = attacker.getOpponent();
+		int lineStart = lineLength;
+		if (!vcf(attacker, maxVcfDepth)) {
+			lineLength = lineStart;
+			return false;
+		}
+		if (hasVcf(defender)) {
+			lineLength = lineStart;
+			return false;
+		}
+		Position[] defences = scratchBuffers[scratchLevel++];
+		int defenceCount = collectDefences(lineStart, defender, defences);
+		lineLength = lineStart;
+
+		int keptLength = -1;
+		Position[] keptLine = null;
+		boolean win = defenceCount > 0;
+		for (int i = 0; i < defenceCount && win; i++) {
+			mark(defences[i], Mark.EMPTY, defender);
+			line[lineLength++] = defences[i];
+			win = vct(attacker, depth - 1);
+			mark(defences[i], defender, Mark.EMPTY);
+			if (win && keptLine == null) {
+				keptLength = lineLength;
+				keptLine = Arrays.copyOfRange(line, lineStart, lineLength);
+			}
+			lineLength = lineStart;
+		}
+		scratchLevel--;
+		if (!win) {
+			return false;
+		}
+		System.arraycopy(keptLine, 0, line, lineStart, keptLine.length);
+		lineLength = keptLength;
+		return true;
+	}
+
+	/**
+	 * Collects defender's answers to a threat into the buffer: cells where defender makes
+	 * own four and empty cells of the threatened VCF line starting at specified index.
+	 *
+	 * @return number of collected cells
+	 */
+	private int collectDefences(int lineStart, Mark defender, Position[] buffer) {
+		int count = collectCellsToExtend(defender, winningCount - 2, buffer);
+		for (int i = lineStart; i < lineLength; i++) {
+			int ordinal = line[i].ordinal();
+			if (visitedStamps[ordinal] != stamp) {
+				visitedStamps[ordinal] = stamp;
+				buffer[count++] = line[i];
+			}
+		}
+		return count;
+	}
+
+	private int collectFourMakingCells(Mark attacker, Position[] buffer) {
+		return collectCellsToExtend(attacker, winningCount - 2, buffer);
+	}
+
+	private int collectThreeMakingCells(Mark attacker, Position[] buffer) {
+		return collectCellsToExtend(attacker, winningCount - 3, buffer);
+	}
+
+	/**
+	 * Collects into the buffer empty cells of the segments free from opponent's marks
+	 * which already contain specified number of the player's marks.
+	 *
+	 * @return number of collected cells
+	 */
+	private int collectCellsToExtend(Mark player, int markedCount, Position[] buffer) {
+		nextStamp();
+		int[] own = countsOf(player);
+		int[] opponent = countsOf(player.getOpponent());
+		int count = 0;
+		for (int segment = 0; segment < own.length; segment++) {
+			if (own[segment] != markedCount || opponent[segment] != 0) {
+				continue;
+			}
+			for (Position cell : topology.segmentCells(segment)) {
+				int ordinal = cell.ordinal();
+				if (cells[ordinal] == Mark.EMPTY && visitedStamps[ordinal] != stamp) {
+					visitedStamps[ordinal] = stamp;
+					buffer[count++] = cell;
+				}
+			}
+		}
+		return count;
+	}
+
+	private Position findCellToCompleteFive(Mark player) {
+		if (fourCounts[player.ordinal()] == 0) {
+			return Position.NOT_FOUND;
+		}
+		int[] own = countsOf(player);
+		int[] opponent = countsOf(player.getOpponent());
+		for (int segment = 0; segment < own.length; segment++) {
+			if (own[segment] == winningCount - 1 && opponent[segment] == 0) {
+				return emptyCellOf(segment);
+			}
+		}
+		return Position.NOT_FOUND;
+	}
+
+	private boolean isFive(Position position, Mark player) {
+		int[] own = countsOf(player);
+		for (int segment : topology.segmentsThrough(position)) {
+			if (own[segment] == winningCount) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private Position emptyCellOf(int segment) {
+		for (Position cell : topology.segmentCells(segment)) {
+			if (cells[cell.ordinal()] == Mark.EMPTY) {
+				return cell;
+			}
+		}
+		return Position.NOT_FOUND;
+	}
+
+	private void mark(Position position, Mark previous, Mark mark) {
+		cells[position.ordinal()] = mark;
+		zobristKey ^= ZobristKeys.keyFor(position, previous) ^ ZobristKeys.keyFor(position, mark);
+		for (int segment : topology.segmentsThrough(position)) {
+			countFours(segment, -1);
+			if (previous == Mark.X) {
+				xCounts[segment]--;
+			} else if (previous == Mark.O) {
+				oCounts[segment]--;
+			}
+			if (mark == Mark.X) {
+				xCounts[segment]++;
+			} else if (mark == Mark.O) {
+				oCounts[segment]++;
+			}
+			countFours(segment, 1);
+		}
+	}
+
+	private void countFours(int segment, int delta) {
+		if (xCounts[segment] == winningCount - 1 && oCounts[segment] == 0) {
+			fourCounts[Mark.X.ordinal()] += delta;
+		} else if (oCounts[segment] == winningCount - 1 && xCounts[segment] == 0) {
+			fourCounts[Mark.O.ordinal()] += delta;
+		}
+	}
+
+	private int[] countsOf(Mark player) {
+		return player == Mark.X ? xCounts : oCounts;
+	}
+
+	private void nextStamp() {
+		stamp++;
+		if (stamp == Integer.MAX_VALUE) {
+			Arrays.fill(visitedStamps, 0);
+			stamp = 1;
+		}
+	}
+
+	private void copyGameTable(GameTable gameTable) {
+		Arrays.fill(xCounts, 0);
+		Arrays.fill(oCounts, 0);
+		Arrays.fill(cells, Mark.EMPTY);
+		Arrays.fill(fourCounts, 0);
+		zobristKey = 0L;
+		for (int ordinal = 1; ordinal <= totalCells; ordinal++) {
+			byte code = gameTable.getCellCode(ordinal);
+			if (code != Mark.EMPTY_CODE) {
+				mark(topology.geometry().position(ordinal), Mark.EMPTY, Mark.fromCode(code));
+			}
+		}
+	}
+
+	private static void checkPlayerMark(Mark playerMark) {
+		requireNonNull(playerMark, "playerMark can not be null");
+		if (playerMark == Mark.EMPTY) {
+			throw new IllegalArgumentException("Player mark should be 'X' or 'O', not 'EMPTY'");
+		}
+	}
+}
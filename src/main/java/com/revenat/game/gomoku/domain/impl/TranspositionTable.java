@@ -0,0 +1,168 @@
+package com.revenat.game.gomoku.domain.impl;
+
+import java.util.Arrays;
+
+import com.revenat.game.gomoku.domain.AIGameOpponent;
+
+/**
+ * Fixed-size transposition table which stores results of the searches performed by
+ * {@link AIGameOpponent}s, keyed by Zobrist hash keys.
+ * <p>
+ * The table is lock-free and may be shared by several searching threads: each
+ * entry is kept in two {@code long}s, the packed data and the key XOR-ed with
+ * the data, and is accepted on probe only if both words are consistent with
+ * each other, so entries torn by concurrent writes are simply treated as
+ * misses. When two positions compete for the same slot the one searched
+ * to the greater depth is preferred, unless the stored entry is left from
+ * one of the previous searches.
+ * <p>
+ * Entries are returned by {@link #probe(long)} as packed {@code long}s to avoid
+ * allocation, and are decoded with static accessors of this class.
+ *
+ * @author Vitaly Dragun
+ *
+ */
+public class TranspositionTable {
+	private static final int BYTES_PER_ENTRY = 2 * Long.BYTES;
+	private static final int BYTES_PER_MEGABYTE = 1 << 20;
+
+	/**
+	 * Returned by {@link #probe(long)} if there is no entry for the key
+	 */
+	public static final long MISS = 0L;
+	/**
+	 * Stored score is the exact score of the position
+	 */
+	public static final int EXACT = 1;
+	/**
+	 * Stored score is the lower bound of the position's score
+	 */
+	public static final int LOWER_BOUND = 2;
+	/**
+	 * Stored score is the upper bound of the position's score
+	 */
+	public static final int UPPER_BOUND = 3;
+
+	private static final int MOVE_SHIFT = 32;
+	private static final int DEPTH_SHIFT = 48;
+	private static final int BOUND_SHIFT = 56;
+	private static final int AGE_SHIFT = 58;
+	private static final long MOVE_MASK = 0xFFFFL;
+	private static final long DEPTH_MASK = 0xFFL;
+	private static final long BOUND_MASK = 0x3L;
+	private static final long AGE_MASK = 0x3FL;
+
+	private final long[] entries;
+	private final int indexMask;
+	private int age;
+
+	/**
+	 * Creates transposition table which occupies at most specified amount of memory.
+	 *
+	 * @param sizeInMegabytes memory footprint of the table in megabytes
+	 */
+	public TranspositionTable(int sizeInMegabytes) {
+		if (sizeInMegabytes <= 0) {
+			throw new IllegalArgumentException("Transposition table size should be positive: " + sizeInMegabytes);
+		}
+		long maxEntries = (long) sizeInMegabytes * BYTES_PER_MEGABYTE / BYTES_PER_ENTRY;
+		int capacity = Integer.highestOneBit((int) Math.min(maxEntries, 1 << 29));
+		entries = new long[2 * capacity];
+		indexMask = capacity - 1;
+	}
+
+	/**
+	 * Returns number of entries this table can hold.
+	 */
+	public int capacity() {
+		return indexMask + 1;
+	}
+
+	/**
+	 * Marks start of the new search, so entries left from previous searches
+	 * can be replaced regardless of their depth.
+	 */
+	public void newSearch() {
+		age = (age + 1) & (int) AGE_MASK;
+	}
+
+	/**
+	 * Removes all entries from this table.
+	 */
+	public void clear() {
+		Arrays.fill(entries, 0L);
+	}
+
+	/**
+	 * Returns packed entry stored for the specified key or {@link #MISS}.
+	 */
+	public long probe(long key) {
+		int slot = slotFor(key);
+		long data = entries[slot + 1];
+		if ((entries[slot] ^ data) != key) {
+			return MISS;
+		}
+		return data;
+	}
+
+	/**
+	 * Stores result of the search for position with specified key.
+	 *
+	 * @param key         Zobrist key of the position
+	 * @param depth       depth of the search, from 0 to 255
+	 * @param score       score of the position
+	 * @param bound       one of {@link #EXACT}, {@link #LOWER_BOUND} or {@link #UPPER_BOUND}
+	 * @param moveOrdinal ordinal of the best move found or 0 if there is no such move
+	 */
+	public void store(long key, int depth, int score, int bound, int moveOrdinal) {
+		int slot = slotFor(key);
+		long storedData = entries[slot + 1];
+		long storedKey = entries[slot] ^ storedData;
+		if (storedData != MISS && storedKey != key && age(storedData) == age && depth(storedData) > depth) {
+			return;
+		}
+		long data = (score & 0xFFFFFFFFL)
+				| ((moveOrdinal & MOVE_MASK) << MOVE_SHIFT)
+				| ((depth & DEPTH_MASK) << DEPTH_SHIFT)
+				| ((bound & BOUND_MASK) << BOUND_SHIFT)
+				| ((age & AGE_MASK) << AGE_SHIFT);
+		entries[slot] = key ^ data;
+		entries[slot + 1] = data;
+	}
+
+	private int slotFor(long key) {
+		return ((int) (key ^ (key >>> 32)) & indexMask) << 1;
+	}
+
+	/**
+	 * Returns score stored in the specified entry.
+	 */
+	public static int score(long entry) {
+		return (int) entry;
+	}
+
+	/**
+	 * Returns ordinal of the best move stored in the specified entry or 0.
+	 */
+	public static int moveOrdinal(long entry) {
+		return (int) ((entry >>> MOVE_SHIFT) & MOVE_MASK);
+	}
+
+	/**
+	 * Returns depth of the search stored in the specified entry.
+	 */
+	public static int depth(long entry) {
+		return (int) ((entry >>> DEPTH_SHIFT) & DEPTH_MASK);
+	}
+
+	/**
+	 * Returns kind of the score bound stored in the specified entry.
+	 */
+	public static int bound(long entry) {
+		return (int) ((entry >>> BOUND_SHIFT) & BOUND_MASK);
+	}
+
+	private static int age(long entry) {
+		return (int) ((entry >>> AGE_SHIFT) & AGE_MASK);
+	}
+}
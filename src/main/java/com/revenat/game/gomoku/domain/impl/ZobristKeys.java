@@ -0,0 +1,70 @@
+package com.revenat.game.gomoku.domain.impl;
+
+import java.util.SplittableRandom;
+
+import com.revenat.game.gomoku.domain.BoardGeometry;
+import com.revenat.game.gomoku.domain.Mark;
+import com.revenat.game.gomoku.domain.Position;
+
+/**
+ * Random 64-bit keys used for Zobrist hashing of the Gomoku game table.
+ * <p>
+ * Hash key of the table is XOR of the keys of all its marked cells, so it can be
+ * updated incrementally when a single cell is marked or cleared. Keys are generated
+ * from a fixed seed, so they are the same in every JVM and hash keys can be persisted.
+ * Keys are indexed by cell ordinal and cover tables of any {@link BoardGeometry} up to
+ * {@value BoardGeometry#MAX_TOTAL_CELLS} cells.
+ *
+ * @author Vitaly Dragun
+ *
+ */
+public final class ZobristKeys {
+	private static final int TOTAL_CELLS = BoardGeometry.MAX_TOTAL_CELLS;
+	private static final long SEED = 0x6A09E667F3BCC908L;
+
+	private static final long[] X_KEYS = new long[TOTAL_CELLS + 1];
+	private static final long[] O_KEYS = new long[TOTAL_CELLS + 1];
+	private static final long O_TO_MOVE_KEY;
+
+	static {
+		SplittableRandom random = new SplittableRandom(SEED);
+		for (int ordinal = 1; ordinal <= TOTAL_CELLS; ordinal++) {
+			X_KEYS[ordinal] = random.nextLong();
+			O_KEYS[ordinal] = random.nextLong();
+		}
+		O_TO_MOVE_KEY = random.nextLong();
+	}
+
+	private ZobristKeys() {
+	}
+
+	/**
+	 * Returns key of the cell with specified ordinal marked with specified mark.
+	 * Key of the {@code EMPTY} cell is always {@code 0}.
+	 */
+	public static long keyFor(int ordinal, Mark mark) {
+		if (mark == Mark.X) {
+			return X_KEYS[ordinal];
+		}
+		if (mark == Mark.O) {
+			return O_KEYS[ordinal];
+		}
+		return 0L;
+	}
+
+	/**
+	 * Returns key of the cell at specified position marked with specified mark.
+	 * Key of the {@code EMPTY} cell is always {@code 0}.
+	 */
+	public static long keyFor(Position position, Mark mark) {
+		return keyFor(position.ordinal(), mark);
+	}
+
+	/**
+	 * Returns key that should be mixed into table hash key to distinguish
+	 * the same table state with different players to move.
+	 */
+	public static long sideToMoveKey(Mark player) {
+		return player == Mark.O ? O_TO_MOVE_KEY : 0L;
+	}
+}
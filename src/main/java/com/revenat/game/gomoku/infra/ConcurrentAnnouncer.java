@@ -0,0 +1,93 @@
+package com.revenat.game.gomoku.infra;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.Arrays;
+import java.util.EventListener;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * Thread-safe counterpart of the {@link Announcer}, which announces events to listeners
+ * from many threads while listeners are added and removed.
+ * <p>
+ * Listeners are kept in an array which is replaced with a modified copy on every
+ * change, so announcement iterates over a snapshot without locks, and listeners
+ * added or removed while it is in flight take part in the next announcements only.
+ * <p>
+ * Events are announced with a lambda which calls the listener, e.g.
+ * {@code announcer.announce(listener -> listener.draw())}, so unlike dynamic proxy
+ * of the {@link Announcer} there is no reflection on the way and the call can be inlined.
+ * <p>
+ * Exception thrown by a listener is propagated to the announcing code, the rest of
+ * the listeners are not notified of that event.
+ *
+ * @author Vitaly Dragun
+ *
+ */
+public final class ConcurrentAnnouncer<T extends EventListener> {
+	private static final Object[] NO_LISTENERS = new Object[0];
+
+	private final AtomicReference<Object[]> listeners = new AtomicReference<>(NO_LISTENERS);
+
+	/**
+	 * Add listener to this announcer, may be called while events are announced
+	 */
+	public void addListener(T listener) {
+		requireNonNull(listener, "Listener can not be null.");
+		Object[] current;
+		Object[] updated;
+		do {
+			current = listeners.get();
+			updated = Arrays.copyOf(current, current.length + 1);
+			updated[current.length] = listener;
+		} while (!listeners.compareAndSet(current, updated));
+	}
+
+	/**
+	 * Remove specified listener from this announcer, may be called while events are announced
+	 *
+	 * @return {@code false} if there is no such listener
+	 */
+	public boolean removeListener(T listener) {
+		Object[] current;
+		Object[] updated;
+		do {
+			current = listeners.get();
+			int index = indexOf(current, listener);
+			if (index < 0) {
+				return false;
+			}
+			updated = new Object[current.length - 1];
+			System.arraycopy(current, 0, updated, 0, index);
+			System.arraycopy(current, index + 1, updated, index, updated.length - index);
+		} while (!listeners.compareAndSet(current, updated));
+		return true;
+	}
+
+	private static int indexOf(Object[] array, Object element) {
+		for (int i = 0; i < array.length; i++) {
+			if (array[i].equals(element)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Returns number of the listeners of this announcer.
+	 */
+	public int size() {
+		return listeners.get().length;
+	}
+
+	/**
+	 * Announces event to every listener by calling the specified lambda with it.
+	 */
+	@SuppressWarnings("unchecked")
+	public void announce(Consumer<? super T> event) {
+		for (Object listener : listeners.get()) {
+			event.accept((T) listener);
+		}
+	}
+}
@@ -0,0 +1,53 @@
+package com.revenat.game.gomoku.net;
+
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pool of the direct {@link ByteBuffer}s of the same capacity. Direct buffers are
+ * expensive to allocate and are released by GC only, so they are reused by connections
+ * instead: acquired when needed and released back once their content is consumed.
+ * <p>
+ * Pool keeps at most the specified number of idle buffers, the rest are left to GC.
+ * Instances are thread-safe.
+ *
+ * @author Vitaly Dragun
+ *
+ */
+final class ByteBufferPool {
+	private final int bufferCapacity;
+	private final int maxIdleBuffers;
+	private final Queue<ByteBuffer> idleBuffers = new ConcurrentLinkedQueue<>();
+	private final AtomicInteger idleCount = new AtomicInteger();
+
+	ByteBufferPool(int bufferCapacity, int maxIdleBuffers) {
+		this.bufferCapacity = bufferCapacity;
+		this.maxIdleBuffers = maxIdleBuffers;
+	}
+
+	/**
+	 * Returns cleared buffer, taken from the pool or allocated if the pool is empty.
+	 */
+	ByteBuffer acquire() {
+		ByteBuffer buffer = idleBuffers.poll();
+		if (buffer == null) {
+			return ByteBuffer.allocateDirect(bufferCapacity);
+		}
+		idleCount.decrementAndGet();
+		buffer.clear();
+		return buffer;
+	}
+
+	/**
+	 * Returns buffer to the pool. Buffer must not be used after that.
+	 */
+	void release(ByteBuffer buffer) {
+		if (idleCount.incrementAndGet() <= maxIdleBuffers) {
+			idleBuffers.add(buffer);
+		} else {
+			idleCount.decrementAndGet();
+		}
+	}
+}
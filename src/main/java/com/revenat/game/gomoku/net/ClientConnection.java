@@ -0,0 +1,376 @@
+package com.revenat.game.gomoku.net;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.revenat.game.gomoku.domain.GameEventListener;
+import com.revenat.game.gomoku.domain.Mark;
+import com.revenat.game.gomoku.domain.Position;
+import com.revenat.game.gomoku.server.GameNotFoundException;
+import com.revenat.game.gomoku.server.GameServer;
+
+/**
+ * Connection of the remote client to the {@link GameNetServer}, which plays one game
+ * at a time on the {@link GameServer}.
+ * <p>
+ * Reading, parsing of the commands and writing are done on the selector thread only.
+ * Events of the game arrive on the game threads and are only queued as lines, then the
+ * connection asks the server to flush it on the selector thread. Buffers are taken from
+ * the pool only while there is something to read or write, so idle connections hold none.
+ *
+ * @author Vitaly Dragun
+ *
+ */
+final class ClientConnection {
+	private static final Logger LOG = LoggerFactory.getLogger(ClientConnection.class);
+
+	private final GameNetServer netServer;
+	private final GameServer gameServer;
+	private final SocketChannel channel;
+	private final SelectionKey key;
+	private final ByteBufferPool bufferPool;
+	private final byte[] lineBytes = new byte[GameProtocol.MAX_LINE_LENGTH];
+	private final Queue<String> outbound = new ConcurrentLinkedQueue<>();
+	private final AtomicBoolean flushScheduled = new AtomicBoolean();
+
+	/**
+	 * Buffer with the beginning of the line which is not received completely yet
+	 */
+	private ByteBuffer readBuffer;
+	/**
+	 * Buffer with the bytes which are not written yet because socket is full
+	 */
+	private ByteBuffer writeBuffer;
+	private GameChannel game;
+	private volatile boolean closed;
+
+	ClientConnection(GameNetServer netServer, GameServer gameServer, SocketChannel channel, SelectionKey key,
+			ByteBufferPool bufferPool) {
+		this.netServer = netServer;
+		this.gameServer = gameServer;
+		this.channel = channel;
+		this.key = key;
+		this.bufferPool = bufferPool;
+	}
+
+	/**
+	 * Reads available bytes and executes every complete command received.
+	 * Called on the selector thread when the channel is readable.
+	 */
+	void read() throws IOException {
+		ByteBuffer buffer = readBuffer != null ? readBuffer : bufferPool.acquire();
+		readBuffer = null;
+		int read = channel.read(buffer);
+		if (read < 0) {
+			bufferPool.release(buffer);
+			close();
+			return;
+		}
+		buffer.flip();
+		int lineStart = 0;
+		for (int i = 0; i < buffer.limit(); i++) {
+			if (buffer.get(i) == GameProtocol.LINE_END) {
+				if (!executeLine(buffer, lineStart, i)) {
+					bufferPool.release(buffer);
+					return;
+				}
+				lineStart = i + 1;
+			}
+		}
+		if (buffer.limit() - lineStart > GameProtocol.MAX_LINE_LENGTH) {
+			bufferPool.release(buffer);
+			closeOnLongLine();
+			return;
+		}
+		if (lineStart == buffer.limit()) {
+			bufferPool.release(buffer);
+		} else {
+			buffer.position(lineStart);
+			buffer.compact();
+			readBuffer = buffer;
+		}
+	}
+
+	/**
+	 * @return {@code false} if connection is closed by the line
+	 */
+	private boolean executeLine(ByteBuffer buffer, int start, int end) throws IOException {
+		int length = end - start;
+		if (length > 0 && buffer.get(end - 1) == '\r') {
+			length--;
+		}
+		if (length > GameProtocol.MAX_LINE_LENGTH) {
+			closeOnLongLine();
+			return false;
+		}
+		for (int i = 0; i < length; i++) {
+			lineBytes[i] = buffer.get(start + i);
+		}
+		execute(new String(lineBytes, 0, length, GameProtocol.CHARSET).trim().split(" +"));
+		return !closed;
+	}
+
+	/**
+	 * Tells the client why it is disconnected, since lines can not be parsed once
+	 * a line is too long.
+	 */
+	private void closeOnLongLine() throws IOException {
+		send(GameProtocol.error("Line is longer than " + GameProtocol.MAX_LINE_LENGTH + " characters"));
+		flush();
+		close();
+	}
+
+	private void execute(String[] command) {
+		try {
+			switch (command[0].toUpperCase()) {
+			case GameProtocol.NEW:
+				newGame(command);
+				break;
+			case GameProtocol.MOVE:
+				move(command);
+				break;
+			case GameProtocol.UNDO:
+				reportFailure(gameServer.undoTurn(gameId()));
+				break;
+			case GameProtocol.RESTART:
+				reportFailure(gameServer.restartGame(gameId()));
+				announce(game);
+				break;
+			default:
+				send(GameProtocol.error("Unknown command: " + command[0]));
+			}
+		} catch (IllegalArgumentException | IllegalStateException | GameNotFoundException e) {
+			send(GameProtocol.error(e.getMessage()));
+		}
+	}
+
+	private void newGame(String[] command) {
+		if (command.length != 2) {
+			throw new IllegalArgumentException("Usage: NEW AI|PLAYERS");
+		}
+		boolean againstAI;
+		if (command[1].equalsIgnoreCase(GameProtocol.AI)) {
+			againstAI = true;
+		} else if (command[1].equalsIgnoreCase(GameProtocol.PLAYERS)) {
+			againstAI = false;
+		} else {
+			throw new IllegalArgumentException("Unknown game: " + command[1]);
+		}
+		closeGame();
+		GameChannel newGame = new GameChannel();
+		long gameId = againstAI ? gameServer.createAIGame(newGame) : gameServer.createPlayersGame(newGame);
+		newGame.id = gameId;
+		game = newGame;
+		announce(newGame);
+	}
+
+	/**
+	 * Sends {@code GAME} line once the game tells its current player.
+	 */
+	private void announce(GameChannel gameChannel) {
+		gameServer.getCurrentPlayer(gameChannel.id).whenComplete((currentPlayer, failure) -> {
+			if (failure == null) {
+				gameChannel.announce(currentPlayer);
+			}
+		});
+	}
+
+	private void move(String[] command) {
+		if (command.length != 3) {
+			throw new IllegalArgumentException("Usage: MOVE <row> <column>");
+		}
+		Position position;
+		try {
+			position = Position.from(Integer.parseInt(command[1]), Integer.parseInt(command[2]));
+		} catch (NumberFormatException e) {
+			throw new IllegalArgumentException("Row and column should be numbers");
+		}
+		if (!position.isValid()) {
+			throw new IllegalArgumentException("Position is out of the table: " + command[1] + ' ' + command[2]);
+		}
+		reportFailure(gameServer.makeTurn(gameId(), position));
+	}
+
+	private long gameId() {
+		if (game == null) {
+			throw new IllegalStateException("No game is started, use NEW AI|PLAYERS");
+		}
+		return game.id;
+	}
+
+	private void reportFailure(CompletableFuture<?> request) {
+		request.whenComplete((result, failure) -> {
+			if (failure != null) {
+				Throwable cause = failure instanceof CompletionException ? failure.getCause() : failure;
+				LOG.warn("Request of the client {} has failed", this, cause);
+				send(GameProtocol.error(String.valueOf(cause.getMessage())));
+			}
+		});
+	}
+
+	/**
+	 * Queues line to be sent to the client, may be called on any thread.
+	 */
+	void send(String line) {
+		if (closed) {
+			return;
+		}
+		outbound.add(line);
+		if (flushScheduled.compareAndSet(false, true)) {
+			netServer.scheduleFlush(this);
+		}
+	}
+
+	/**
+	 * Writes queued lines until they are all written or socket is full. In the latter
+	 * case the rest is written when the channel becomes writable. Called on the selector thread.
+	 */
+	void flush() throws IOException {
+		flushScheduled.set(false);
+		if (closed) {
+			return;
+		}
+		while (true) {
+			if (writeBuffer == null) {
+				if (outbound.isEmpty()) {
+					break;
+				}
+				writeBuffer = bufferPool.acquire();
+			}
+			fillWriteBuffer();
+			writeBuffer.flip();
+			channel.write(writeBuffer);
+			if (writeBuffer.hasRemaining()) {
+				writeBuffer.compact();
+				key.interestOps(key.interestOps() | SelectionKey.OP_WRITE);
+				return;
+			}
+			bufferPool.release(writeBuffer);
+			writeBuffer = null;
+		}
+		key.interestOps(key.interestOps() & ~SelectionKey.OP_WRITE);
+	}
+
+	/**
+	 * Lines are built by {@link GameProtocol} to fit its maximum length, so there is
+	 * always room for the next line while more than that is remaining.
+	 */
+	private void fillWriteBuffer() {
+		String line;
+		while (writeBuffer.remaining() > GameProtocol.MAX_LINE_LENGTH && (line = outbound.poll()) != null) {
+			byte[] bytes = line.getBytes(GameProtocol.CHARSET);
+			if (bytes.length > GameProtocol.MAX_LINE_LENGTH) {
+				throw new IllegalStateException("Line is longer than " + GameProtocol.MAX_LINE_LENGTH
+						+ " characters: " + line.substring(0, GameProtocol.MAX_LINE_LENGTH));
+			}
+			writeBuffer.put(bytes);
+			writeBuffer.put(GameProtocol.LINE_END);
+		}
+	}
+
+	/**
+	 * Closes the channel and the game of the connection and returns buffers to the pool.
+	 * Called on the selector thread.
+	 */
+	void close() {
+		if (closed) {
+			return;
+		}
+		closed = true;
+		closeGame();
+		key.cancel();
+		try {
+			channel.close();
+		} catch (IOException e) {
+			LOG.debug("Channel of the client {} can not be closed", this, e);
+		}
+		if (readBuffer != null) {
+			bufferPool.release(readBuffer);
+			readBuffer = null;
+		}
+		if (writeBuffer != null) {
+			bufferPool.release(writeBuffer);
+			writeBuffer = null;
+		}
+		outbound.clear();
+		LOG.debug("Client {} is disconnected", this);
+	}
+
+	private void closeGame() {
+		if (game != null) {
+			game.close();
+			gameServer.closeGame(game.id);
+			game = null;
+		}
+	}
+
+	@Override
+	public String toString() {
+		return String.valueOf(channel.socket().getRemoteSocketAddress());
+	}
+
+	/**
+	 * Listener of one game of the connection, which sends its events to the client.
+	 * Events of the game which is closed or replaced with a new one are dropped.
+	 * Methods are called on the game threads and, for the announcement, on whatever
+	 * thread completes the request of the current player.
+	 */
+	private final class GameChannel implements GameEventListener {
+		private volatile long id;
+		private volatile boolean closed;
+
+		void announce(Mark currentPlayer) {
+			event(GameProtocol.game(id, currentPlayer));
+		}
+
+		void close() {
+			closed = true;
+		}
+
+		private void event(String line) {
+			if (!closed) {
+				send(line);
+			}
+		}
+
+		@Override
+		public void invalidTurnPosition(Position position) {
+			event(GameProtocol.invalid(position));
+		}
+
+		@Override
+		public void turnIsMade(Position position, Mark mark) {
+			event(GameProtocol.turn(GameProtocol.TURN, mark, position));
+		}
+
+		@Override
+		public void turnIsUndone(Position position, Mark mark) {
+			event(GameProtocol.turn(GameProtocol.UNDONE, mark, position));
+		}
+
+		@Override
+		public void winnerIsFound(Mark winner, Position[] winningCombination) {
+			event(GameProtocol.win(winner, winningCombination));
+		}
+
+		@Override
+		public void draw() {
+			event(GameProtocol.DRAW);
+		}
+
+		@Override
+		public void turnIsFailed(Mark mark, String reason) {
+			event(GameProtocol.error(mark.name() + " can not make a turn: " + reason));
+		}
+	}
+}
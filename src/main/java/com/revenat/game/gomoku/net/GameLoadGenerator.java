@@ -0,0 +1,232 @@
+package com.revenat.game.gomoku.net;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import com.revenat.game.gomoku.domain.BoardGeometry;
+import com.revenat.game.gomoku.domain.Mark;
+import com.revenat.game.gomoku.domain.impl.AIOpponentGameMode;
+
+/**
+ * Load generator for the {@link GameNetServer}: opens many connections, each playing
+ * against AI with random turns as soon as AI replies and starting the game again when
+ * it is over. All connections are served by a single thread with NIO {@link Selector},
+ * so that the generator itself needs few resources. Reports throughput of the player
+ * turns and latency from sending a turn to receiving the AI reply.
+ * <p>
+ * Usage: {@code GameLoadGenerator [host] [port] [connections] [seconds]}
+ *
+ * @author Vitaly Dragun
+ *
+ */
+public final class GameLoadGenerator {
+	private static final int DEFAULT_PORT = 7777;
+	private static final int DEFAULT_CONNECTIONS = 1_000;
+	private static final int DEFAULT_SECONDS = 10;
+	private static final int BUFFER_CAPACITY = 4 * 1024;
+	private static final long SELECT_TIMEOUT_MILLIS = 100;
+	private static final String HUMAN = AIOpponentGameMode.HUMAN_PLAYER.name();
+	private static final String AI = AIOpponentGameMode.AI_PLAYER.name();
+
+	private GameLoadGenerator() {
+	}
+
+	public static void main(String[] args) throws IOException {
+		String host = args.length > 0 ? args[0] : "localhost";
+		int port = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_PORT;
+		int connections = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_CONNECTIONS;
+		int seconds = args.length > 3 ? Integer.parseInt(args[3]) : DEFAULT_SECONDS;
+		System.out.printf("Load: %d connection(s) to %s:%d for %d s%n", connections, host, port, seconds);
+
+		List<SimulatedClient> clients = new ArrayList<>(connections);
+		try (Selector selector = Selector.open()) {
+			InetSocketAddress address = new InetSocketAddress(host, port);
+			for (int i = 0; i < connections; i++) {
+				SocketChannel channel = SocketChannel.open(address);
+				channel.configureBlocking(false);
+				channel.socket().setTcpNoDelay(true);
+				SimulatedClient client = new SimulatedClient(channel);
+				client.key = channel.register(selector, SelectionKey.OP_READ, client);
+				clients.add(client);
+			}
+			for (SimulatedClient client : clients) {
+				client.send(GameProtocol.NEW + ' ' + GameProtocol.AI);
+			}
+			long startTime = System.nanoTime();
+			long endTime = startTime + TimeUnit.SECONDS.toNanos(seconds);
+			while (System.nanoTime() < endTime) {
+				selector.select(SELECT_TIMEOUT_MILLIS);
+				Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+				while (keys.hasNext()) {
+					SelectionKey key = keys.next();
+					keys.remove();
+					((SimulatedClient) key.attachment()).handle();
+				}
+			}
+			report(clients, System.nanoTime() - startTime);
+			for (SimulatedClient client : clients) {
+				client.channel.close();
+			}
+		}
+	}
+
+	private static void report(List<SimulatedClient> clients, long elapsedNanos) {
+		long turns = 0;
+		long finishedGames = 0;
+		long errors = 0;
+		long[] latencies = clients.stream()
+				.flatMapToLong(client -> Arrays.stream(client.latencies, 0, client.latencyCount))
+				.sorted()
+				.toArray();
+		for (SimulatedClient client : clients) {
+			turns += client.latencyCount;
+			finishedGames += client.finishedGames;
+			errors += client.errors;
+		}
+		double seconds = elapsedNanos / 1e9;
+		System.out.printf("%12s %14s %8s %12s %12s %12s%n",
+				"moves/s", "games finished", "errors", "p50 ms", "p99 ms", "max ms");
+		System.out.printf("%12.0f %14d %8d %12.3f %12.3f %12.3f%n", turns / seconds, finishedGames, errors,
+				percentileMillis(latencies, 0.5), percentileMillis(latencies, 0.99), percentileMillis(latencies, 1.0));
+	}
+
+	private static double percentileMillis(long[] sortedNanos, double percentile) {
+		if (sortedNanos.length == 0) {
+			return 0;
+		}
+		int index = (int) Math.min(sortedNanos.length - 1, Math.ceil(percentile * sortedNanos.length) - 1);
+		return sortedNanos[Math.max(0, index)] / 1e6;
+	}
+
+	/**
+	 * Client which plays {@link AIOpponentGameMode#HUMAN_PLAYER} with random turns. It makes
+	 * a turn when the game tells it is the player's turn before any turn is made, or when
+	 * AI makes a turn.
+	 */
+	private static final class SimulatedClient {
+		private final SocketChannel channel;
+		private final BoardGeometry geometry = BoardGeometry.STANDARD;
+		private final boolean[] occupied = new boolean[geometry.totalCells() + 1];
+		private final ByteBuffer readBuffer = ByteBuffer.allocate(BUFFER_CAPACITY);
+		private final ByteBuffer writeBuffer = ByteBuffer.allocate(BUFFER_CAPACITY);
+		private final StringBuilder line = new StringBuilder();
+		private SelectionKey key;
+		private int markedCells;
+		private long turnSentNanos;
+
+		private long finishedGames;
+		private long errors;
+		private long[] latencies = new long[64];
+		private int latencyCount;
+
+		SimulatedClient(SocketChannel channel) {
+			this.channel = channel;
+		}
+
+		void handle() throws IOException {
+			if (key.isWritable()) {
+				write();
+			}
+			if (key.isReadable()) {
+				read();
+			}
+		}
+
+		private void read() throws IOException {
+			if (channel.read(readBuffer) < 0) {
+				throw new IOException("Server has closed the connection");
+			}
+			readBuffer.flip();
+			while (readBuffer.hasRemaining()) {
+				char character = (char) readBuffer.get();
+				if (character == GameProtocol.LINE_END) {
+					receive(line.toString().split(" "));
+					line.setLength(0);
+				} else {
+					line.append(character);
+				}
+			}
+			readBuffer.clear();
+		}
+
+		private void receive(String[] event) throws IOException {
+			switch (event[0]) {
+			case GameProtocol.GAME:
+				if (event[2].equals(HUMAN) && markedCells == 0) {
+					makeTurn();
+				}
+				break;
+			case GameProtocol.TURN:
+				occupied[geometry.position(Integer.parseInt(event[2]), Integer.parseInt(event[3])).ordinal()] = true;
+				markedCells++;
+				if (event[1].equals(AI)) {
+					if (markedCells > 1) {
+						recordLatency(System.nanoTime() - turnSentNanos);
+					}
+					makeTurn();
+				}
+				break;
+			case GameProtocol.INVALID:
+				makeTurn();
+				break;
+			case GameProtocol.WIN:
+			case GameProtocol.DRAW:
+				finishedGames++;
+				Arrays.fill(occupied, false);
+				markedCells = 0;
+				send(GameProtocol.RESTART);
+				break;
+			case GameProtocol.ERROR:
+				errors++;
+				break;
+			default:
+				throw new IOException("Unknown event: " + String.join(" ", event));
+			}
+		}
+
+		private void makeTurn() throws IOException {
+			if (markedCells == occupied.length - 1) {
+				return;
+			}
+			int ordinal;
+			do {
+				ordinal = 1 + ThreadLocalRandom.current().nextInt(occupied.length - 1);
+			} while (occupied[ordinal]);
+			turnSentNanos = System.nanoTime();
+			send(GameProtocol.MOVE + ' ' + geometry.position(ordinal).row() + ' ' + geometry.position(ordinal).column());
+		}
+
+		private void recordLatency(long nanos) {
+			if (latencyCount == latencies.length) {
+				latencies = Arrays.copyOf(latencies, latencyCount * 2);
+			}
+			latencies[latencyCount++] = nanos;
+		}
+
+		void send(String command) throws IOException {
+			writeBuffer.put(command.getBytes(GameProtocol.CHARSET)).put(GameProtocol.LINE_END);
+			write();
+		}
+
+		private void write() throws IOException {
+			writeBuffer.flip();
+			channel.write(writeBuffer);
+			writeBuffer.compact();
+			int interestOps = writeBuffer.position() > 0 ? SelectionKey.OP_READ | SelectionKey.OP_WRITE
+					: SelectionKey.OP_READ;
+			if (key.interestOps() != interestOps) {
+				key.interestOps(interestOps);
+			}
+		}
+	}
+}
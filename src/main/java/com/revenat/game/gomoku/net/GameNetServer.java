@@ -0,0 +1,248 @@
+package com.revenat.game.gomoku.net;
+
+import static java.util.Objects.requireNonNull;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.revenat.game.gomoku.selfplay.SelfPlayRunner;
+import com.revenat.game.gomoku.server.GameServer;
+
+/**
+ * Network front end of the {@link GameServer}, which lets remote clients play Gomoku
+ * with the line-based {@link GameProtocol} over TCP. Every connection plays one game
+ * at a time, which is closed when the connection is.
+ * <p>
+ * All connections are served by a single thread with NIO {@link Selector}: it accepts
+ * connections, reads and parses commands and writes events. Games run on the executors
+ * of the game server and never block on the network, their events are queued by
+ * connections and written out by the selector thread. Direct buffers for reading and
+ * writing are taken from a {@link ByteBufferPool} shared by all connections.
+ * <p>
+ * Failure to serve one connection, e.g. an unexpected exception while its command is
+ * executed, closes that connection only, and failure to accept a connection, e.g. when
+ * the process is out of file descriptors, is logged. Selector thread stops only when
+ * the server is closed.
+ * <p>
+ * Usage: {@code GameNetServer [port] [gameThreads] [aiThreads] [opponent]}, where
+ * opponent is described the same way as for {@link SelfPlayRunner}.
+ *
+ * @author Vitaly Dragun
+ *
+ */
+public final class GameNetServer implements AutoCloseable {
+	private static final Logger LOG = LoggerFactory.getLogger(GameNetServer.class);
+	private static final int DEFAULT_PORT = 7777;
+	private static final int BUFFER_CAPACITY = 4 * 1024;
+	private static final int MAX_IDLE_BUFFERS = 1024;
+	private static final long AI_TURN_TIME_MILLIS = 1_000;
+	private static final long IDLE_TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis(10);
+
+	private final GameServer gameServer;
+	private final InetSocketAddress address;
+	private final ByteBufferPool bufferPool = new ByteBufferPool(BUFFER_CAPACITY, MAX_IDLE_BUFFERS);
+	private final Queue<ClientConnection> pendingFlushes = new ConcurrentLinkedQueue<>();
+	private Selector selector;
+	private ServerSocketChannel serverChannel;
+	private Thread selectorThread;
+
+	/**
+	 * @param gameServer server to host games of the clients on
+	 * @param address    address to listen on, port {@code 0} picks any free port
+	 */
+	public GameNetServer(GameServer gameServer, InetSocketAddress address) {
+		this.gameServer = requireNonNull(gameServer, "Game server can not be null.");
+		this.address = requireNonNull(address, "Address can not be null.");
+	}
+
+	/**
+	 * Binds to the address and starts serving clients on the selector thread.
+	 */
+	public synchronized void start() throws IOException {
+		if (selector != null) {
+			throw new IllegalStateException("Server is already started");
+		}
+		selector = Selector.open();
+		serverChannel = ServerSocketChannel.open();
+		serverChannel.bind(address);
+		serverChannel.configureBlocking(false);
+		serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+		selectorThread = new Thread(this::serve, "gomoku-net-selector");
+		selectorThread.start();
+		LOG.info("Game server is listening on {}", serverChannel.getLocalAddress());
+	}
+
+	/**
+	 * Returns port server listens on, which is known once it is started.
+	 */
+	public int getLocalPort() {
+		return serverChannel.socket().getLocalPort();
+	}
+
+	private void serve() {
+		try {
+			while (!Thread.currentThread().isInterrupted()) {
+				try {
+					selector.select();
+				} catch (IOException e) {
+					LOG.error("Selection of the ready connections has failed", e);
+					continue;
+				}
+				flushPendingConnections();
+				Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+				while (keys.hasNext()) {
+					SelectionKey key = keys.next();
+					keys.remove();
+					if (key.isValid()) {
+						handle(key);
+					}
+				}
+			}
+		} catch (ClosedSelectorException e) {
+			LOG.debug("Selector is closed");
+		}
+	}
+
+	private void handle(SelectionKey key) {
+		if (key.isAcceptable()) {
+			accept();
+			return;
+		}
+		ClientConnection connection = (ClientConnection) key.attachment();
+		try {
+			if (key.isReadable()) {
+				connection.read();
+			}
+			if (key.isValid() && key.isWritable()) {
+				connection.flush();
+			}
+		} catch (IOException e) {
+			LOG.debug("Client {} is disconnected: {}", connection, e.toString());
+			connection.close();
+		} catch (RuntimeException e) {
+			closeOnFailure(connection, e);
+		}
+	}
+
+	private void accept() {
+		SocketChannel channel;
+		try {
+			channel = serverChannel.accept();
+		} catch (IOException e) {
+			LOG.warn("Client connection can not be accepted: {}", e.toString());
+			return;
+		}
+		if (channel == null) {
+			return;
+		}
+		try {
+			channel.configureBlocking(false);
+			channel.socket().setTcpNoDelay(true);
+			SelectionKey key = channel.register(selector, SelectionKey.OP_READ);
+			ClientConnection connection = new ClientConnection(this, gameServer, channel, key, bufferPool);
+			key.attach(connection);
+			LOG.debug("Client {} is connected", connection);
+		} catch (IOException | RuntimeException e) {
+			LOG.warn("Client connection can not be set up: {}", e.toString());
+			try {
+				channel.close();
+			} catch (IOException closeFailure) {
+				LOG.debug("Client channel can not be closed", closeFailure);
+			}
+		}
+	}
+
+	private void flushPendingConnections() {
+		ClientConnection connection;
+		while ((connection = pendingFlushes.poll()) != null) {
+			try {
+				connection.flush();
+			} catch (IOException e) {
+				LOG.debug("Client {} is disconnected: {}", connection, e.toString());
+				connection.close();
+			} catch (RuntimeException e) {
+				closeOnFailure(connection, e);
+			}
+		}
+	}
+
+	private static void closeOnFailure(ClientConnection connection, RuntimeException failure) {
+		LOG.error("Client {} is disconnected after failure", connection, failure);
+		connection.close();
+	}
+
+	/**
+	 * Asks selector thread to flush the connection, may be called on any thread.
+	 */
+	void scheduleFlush(ClientConnection connection) {
+		pendingFlushes.add(connection);
+		Selector currentSelector = selector;
+		if (currentSelector != null) {
+			currentSelector.wakeup();
+		}
+	}
+
+	/**
+	 * Stops serving clients and closes their connections and games. Game server is not closed.
+	 */
+	@Override
+	public synchronized void close() throws IOException {
+		if (selector == null) {
+			return;
+		}
+		selectorThread.interrupt();
+		selector.wakeup();
+		try {
+			selectorThread.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		for (SelectionKey key : selector.keys()) {
+			if (key.attachment() instanceof ClientConnection) {
+				((ClientConnection) key.attachment()).close();
+			}
+		}
+		serverChannel.close();
+		selector.close();
+		LOG.info("Game server on {} is stopped", address);
+	}
+
+	public static void main(String[] args) throws IOException {
+		int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+		int processors = Runtime.getRuntime().availableProcessors();
+		int gameThreads = args.length > 1 ? Integer.parseInt(args[1]) : processors;
+		int aiThreads = args.length > 2 ? Integer.parseInt(args[2]) : processors;
+		String opponent = args.length > 3 ? args[3] : "IMPROVED";
+
+		ExecutorService gameExecutor = Executors.newFixedThreadPool(gameThreads);
+		ExecutorService aiExecutor = Executors.newFixedThreadPool(aiThreads);
+		GameServer gameServer = new GameServer(gameExecutor, aiExecutor, SelfPlayRunner.opponentFactory(opponent),
+				AI_TURN_TIME_MILLIS, IDLE_TIMEOUT_MILLIS);
+		GameNetServer netServer = new GameNetServer(gameServer, new InetSocketAddress(port));
+		Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+			try {
+				netServer.close();
+			} catch (IOException e) {
+				LOG.warn("Game server can not be stopped", e);
+			}
+			gameServer.close();
+			gameExecutor.shutdownNow();
+			aiExecutor.shutdownNow();
+		}, "gomoku-net-shutdown"));
+		netServer.start();
+	}
+}
@@ -0,0 +1,104 @@
+package com.revenat.game.gomoku.net;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+import com.revenat.game.gomoku.domain.Mark;
+import com.revenat.game.gomoku.domain.Position;
+
+/**
+ * Line-based protocol of the Gomoku games played over the network. Every message is
+ * a line of ASCII words separated by single spaces and terminated by {@code '\n'}.
+ * Positions are sent as zero-based row and column. Lines are at most
+ * {@value #MAX_LINE_LENGTH} characters long, not counting the line end.
+ * <p>
+ * Client sends commands:
+ * <ul>
+ * <li>{@code NEW AI} or {@code NEW PLAYERS}: starts new game against AI or of two players
+ * taking turns on the same connection, closing the previous game of the connection;</li>
+ * <li>{@code MOVE <row> <column>}: makes turn of the current player;</li>
+ * <li>{@code UNDO}: undoes the last turn;</li>
+ * <li>{@code RESTART}: starts the game from the beginning.</li>
+ * </ul>
+ * Server sends events:
+ * <ul>
+ * <li>{@code GAME <id> <player>}: game is started or restarted and {@code player} is
+ * to make a turn, which is {@code O} while AI thinks of the first turn. It is sent
+ * once the game tells its current player, so the first {@code TURN} of AI may come
+ * before it;</li>
+ * <li>{@code TURN <mark> <row> <column>}: turn is made;</li>
+ * <li>{@code UNDONE <mark> <row> <column>}: turn is undone;</li>
+ * <li>{@code INVALID <row> <column>}: turn position is occupied;</li>
+ * <li>{@code WIN <mark> <row> <column> ...}: game is won with the listed combination;</li>
+ * <li>{@code DRAW}: game is over with a draw;</li>
+ * <li>{@code ERROR <message>}: command can not be executed, or AI can not make its
+ * turn, in which case the turn of the player it replies to is undone first.</li>
+ * </ul>
+ *
+ * @author Vitaly Dragun
+ *
+ */
+final class GameProtocol {
+	static final Charset CHARSET = StandardCharsets.US_ASCII;
+	static final byte LINE_END = '\n';
+	static final int MAX_LINE_LENGTH = 256;
+	private static final String TRUNCATION_MARK = "...";
+
+	static final String NEW = "NEW";
+	static final String AI = "AI";
+	static final String PLAYERS = "PLAYERS";
+	static final String MOVE = "MOVE";
+	static final String UNDO = "UNDO";
+	static final String RESTART = "RESTART";
+
+	static final String GAME = "GAME";
+	static final String TURN = "TURN";
+	static final String UNDONE = "UNDONE";
+	static final String INVALID = "INVALID";
+	static final String WIN = "WIN";
+	static final String DRAW = "DRAW";
+	static final String ERROR = "ERROR";
+
+	private GameProtocol() {
+	}
+
+	static String game(long gameId, Mark currentPlayer) {
+		return GAME + ' ' + gameId + ' ' + currentPlayer.name();
+	}
+
+	static String turn(String event, Mark mark, Position position) {
+		return event + ' ' + mark.name() + ' ' + position.row() + ' ' + position.column();
+	}
+
+	static String invalid(Position position) {
+		return INVALID + ' ' + position.row() + ' ' + position.column();
+	}
+
+	/**
+	 * @throws IllegalArgumentException if the combination is too long for a line,
+	 *                                  which winning combinations of the tables up to
+	 *                                  25 cells long are not
+	 */
+	static String win(Mark winner, Position[] winningCombination) {
+		StringBuilder line = new StringBuilder(WIN).append(' ').append(winner.name());
+		for (Position position : winningCombination) {
+			line.append(' ').append(position.row()).append(' ').append(position.column());
+		}
+		if (line.length() > MAX_LINE_LENGTH) {
+			throw new IllegalArgumentException("Winning combination of " + winningCombination.length
+					+ " positions does not fit the line");
+		}
+		return line.toString();
+	}
+
+	/**
+	 * Message is put on a single line, and is cut to fit the line if it is too long.
+	 */
+	static String error(String message) {
+		String line = ERROR + ' ' + message.replace('\r', ' ').replace('\n', ' ');
+		if (line.length() > MAX_LINE_LENGTH) {
+			return line.substring(0, MAX_LINE_LENGTH - TRUNCATION_MARK.length()) + TRUNCATION_MARK;
+		}
+		return line;
+	}
+}
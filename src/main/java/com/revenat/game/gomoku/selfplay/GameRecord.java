@@ -0,0 +1,74 @@
+package com.revenat.game.gomoku.selfplay;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.Arrays;
+
+import com.revenat.game.gomoku.domain.BoardGeometry;
+import com.revenat.game.gomoku.domain.Mark;
+import com.revenat.game.gomoku.domain.Position;
+
+/**
+ * Record of the single finished game: turns in the order they were made,
+ * starting with {@link Mark#X}, and the game result.
+ *
+ * @author Vitaly Dragun
+ *
+ */
+public final class GameRecord {
+	private final BoardGeometry geometry;
+	private final int[] turnOrdinals;
+	private final Mark winner;
+
+	/**
+	 * @param geometry     geometry of the game table the game was played on
+	 * @param turnOrdinals ordinals of the turn positions in the order turns were made
+	 * @param winner       mark of the winner or {@link Mark#EMPTY} if game ended in a draw
+	 */
+	public GameRecord(BoardGeometry geometry, int[] turnOrdinals, Mark winner) {
+		requireNonNull(geometry, "BoardGeometry can not be null.");
+		requireNonNull(turnOrdinals, "turnOrdinals can not be null.");
+		requireNonNull(winner, "winner can not be null.");
+		this.geometry = geometry;
+		this.turnOrdinals = turnOrdinals.clone();
+		this.winner = winner;
+	}
+
+	public BoardGeometry getGeometry() {
+		return geometry;
+	}
+
+	public int getTurnCount() {
+		return turnOrdinals.length;
+	}
+
+	/**
+	 * Returns position of the turn with specified index, starting from 0.
+	 */
+	public Position getTurn(int index) {
+		return geometry.position(turnOrdinals[index]);
+	}
+
+	/**
+	 * Returns mark of the player who made turn with specified index, starting from 0.
+	 */
+	public Mark getPlayerOfTurn(int index) {
+		return (index & 1) == 0 ? Mark.X : Mark.O;
+	}
+
+	/**
+	 * Returns mark of the winner or {@link Mark#EMPTY} if game ended in a draw.
+	 */
+	public Mark getWinner() {
+		return winner;
+	}
+
+	public boolean isDraw() {
+		return winner == Mark.EMPTY;
+	}
+
+	@Override
+	public String toString() {
+		return "[winner=" + winner + ", turns=" + Arrays.toString(turnOrdinals) + "]";
+	}
+}
@@ -0,0 +1,156 @@
+package com.revenat.game.gomoku.selfplay;
+
+import static java.util.Objects.requireNonNull;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.revenat.game.gomoku.domain.BoardGeometry;
+import com.revenat.game.gomoku.domain.Mark;
+import com.revenat.game.gomoku.domain.impl.BitboardGameTable;
+import com.revenat.game.gomoku.domain.impl.OpeningBook;
+
+/**
+ * Builds {@link OpeningBook} from the records of self-play games.
+ * <p>
+ * For every position of the first turns of the won games the move made by the
+ * winner is counted, in canonical form of the position with the winner to move. The book gets the most
+ * frequent winner's move of every position which was won often enough.
+ * <p>
+ * Usage: {@code OpeningBookBuilder <bookFile> [games] [threads] [xOpponent] [oOpponent]
+ * [turns] [minWins] [board]}, where opponents and board are described the same way as for
+ * {@link SelfPlayRunner}, turns is the number of first turns of every game to learn from
+ * and minWins is the number of won games required to put the move into the book.
+ *
+ * @author Vitaly Dragun
+ *
+ */
+public class OpeningBookBuilder {
+	private final BoardGeometry geometry;
+	private final int maxTurns;
+	private final int minWins;
+	private final BitboardGameTable replayTable;
+	/**
+	 * Numbers of the won games by the move ordinal in canonical form, by key of the position
+	 */
+	private final Map<Long, Map<Integer, Integer>> winsByPosition = new HashMap<>();
+	private int learnedGames;
+
+	/**
+	 * @param geometry geometry of the table games are played on
+	 * @param maxTurns number of the first turns of every game to learn from
+	 * @param minWins  number of the won games required to put the move into the book
+	 */
+	public OpeningBookBuilder(BoardGeometry geometry, int maxTurns, int minWins) {
+		requireNonNull(geometry, "BoardGeometry can not be null.");
+		if (maxTurns <= 0) {
+			throw new IllegalArgumentException("Number of turns to learn from should be positive: " + maxTurns);
+		}
+		if (minWins <= 0) {
+			throw new IllegalArgumentException("Minimal number of wins should be positive: " + minWins);
+		}
+		this.geometry = geometry;
+		this.maxTurns = maxTurns;
+		this.minWins = minWins;
+		this.replayTable = new BitboardGameTable(geometry);
+	}
+
+	/**
+	 * Learns moves of the winner of the specified game. Draws are ignored.
+	 * May be called from several threads, e.g. as {@link SelfPlayRunner} record consumer.
+	 */
+	public synchronized void learn(GameRecord record) {
+		requireNonNull(record, "GameRecord can not be null.");
+		if (record.getGeometry() != geometry) {
+			throw new IllegalArgumentException("Game of table " + record.getGeometry()
+					+ " can not be learned by the book of table " + geometry);
+		}
+		if (record.isDraw()) {
+			return;
+		}
+		replayTable.clear();
+		int turns = Math.min(maxTurns, record.getTurnCount());
+		for (int turn = 0; turn < turns; turn++) {
+			Mark player = record.getPlayerOfTurn(turn);
+			int ordinal = record.getTurn(turn).ordinal();
+			if (player == record.getWinner()) {
+				winsByPosition.computeIfAbsent(OpeningBook.keyOf(replayTable, player), key -> new HashMap<>())
+						.merge(OpeningBook.canonicalMoveOf(replayTable, ordinal), 1, Integer::sum);
+			}
+			replayTable.pushMove(ordinal, player);
+		}
+		learnedGames++;
+	}
+
+	/**
+	 * Returns number of won games learned so far.
+	 */
+	public synchronized int getLearnedGames() {
+		return learnedGames;
+	}
+
+	/**
+	 * Writes the book of the learned moves into the specified file.
+	 *
+	 * @return number of positions written
+	 */
+	public synchronized int write(Path file) throws IOException {
+		TreeMap<Long, int[]> bookMoves = new TreeMap<>();
+		for (Map.Entry<Long, Map<Integer, Integer>> position : winsByPosition.entrySet()) {
+			int bestMove = 0;
+			int bestWins = 0;
+			for (Map.Entry<Integer, Integer> move : position.getValue().entrySet()) {
+				if (move.getValue() > bestWins) {
+					bestMove = move.getKey();
+					bestWins = move.getValue();
+				}
+			}
+			if (bestWins >= minWins) {
+				bookMoves.put(position.getKey(), new int[] {bestMove, bestWins});
+			}
+		}
+
+		long[] keys = new long[bookMoves.size()];
+		int[] moves = new int[keys.length];
+		int[] weights = new int[keys.length];
+		int index = 0;
+		for (Map.Entry<Long, int[]> entry : bookMoves.entrySet()) {
+			keys[index] = entry.getKey();
+			moves[index] = entry.getValue()[0];
+			weights[index] = entry.getValue()[1];
+			index++;
+		}
+		OpeningBook.write(file, geometry, maxTurns - 1, keys, moves, weights);
+		return keys.length;
+	}
+
+	public static void main(String[] args) throws IOException {
+		if (args.length == 0) {
+			System.out.println("Usage: OpeningBookBuilder <bookFile> [games] [threads] [xOpponent] [oOpponent]"
+					+ " [turns] [minWins] [board]");
+			return;
+		}
+		Path bookFile = Paths.get(args[0]);
+		int games = args.length > 1 ? Integer.parseInt(args[1]) : 10_000;
+		int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+		String xOpponent = args.length > 3 ? args[3] : "IMPROVED";
+		String oOpponent = args.length > 4 ? args[4] : "IMPROVED";
+		int turns = args.length > 5 ? Integer.parseInt(args[5]) : 8;
+		int minWins = args.length > 6 ? Integer.parseInt(args[6]) : 3;
+		BoardGeometry geometry = args.length > 7 ? SelfPlayRunner.parseGeometry(args[7]) : BoardGeometry.STANDARD;
+
+		OpeningBookBuilder builder = new OpeningBookBuilder(geometry, turns, minWins);
+		SelfPlayRunner runner = new SelfPlayRunner(() -> new BitboardGameTable(geometry),
+				SelfPlayRunner.opponentFactory(xOpponent), SelfPlayRunner.opponentFactory(oOpponent), threads);
+		System.out.printf("Building opening book of %d turns from %d games of %s (X) against %s (O) on %s table%n",
+				turns, games, xOpponent, oOpponent, geometry);
+		System.out.println(runner.run(games, builder::learn));
+		int positions = builder.write(bookFile);
+		System.out.printf("%d positions from %d won games are written to %s%n",
+				positions, builder.getLearnedGames(), bookFile);
+	}
+}
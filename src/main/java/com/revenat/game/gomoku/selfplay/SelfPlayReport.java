@@ -0,0 +1,85 @@
+package com.revenat.game.gomoku.selfplay;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Summary of the games played by {@link SelfPlayRunner}.
+ *
+ * @author Vitaly Dragun
+ *
+ */
+public final class SelfPlayReport {
+	private final int xWins;
+	private final int oWins;
+	private final int draws;
+	private final long elapsedNanos;
+	private final long[] sortedMoveTimesNanos;
+
+	SelfPlayReport(int xWins, int oWins, int draws, long elapsedNanos, long[] moveTimesNanos) {
+		this.xWins = xWins;
+		this.oWins = oWins;
+		this.draws = draws;
+		this.elapsedNanos = elapsedNanos;
+		this.sortedMoveTimesNanos = moveTimesNanos.clone();
+		Arrays.sort(sortedMoveTimesNanos);
+	}
+
+	public int getGames() {
+		return xWins + oWins + draws;
+	}
+
+	public int getXWins() {
+		return xWins;
+	}
+
+	public int getOWins() {
+		return oWins;
+	}
+
+	public int getDraws() {
+		return draws;
+	}
+
+	public int getMoves() {
+		return sortedMoveTimesNanos.length;
+	}
+
+	public long getElapsedNanos() {
+		return elapsedNanos;
+	}
+
+	public double getGamesPerSecond() {
+		return elapsedNanos == 0 ? 0 : getGames() * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+	}
+
+	/**
+	 * Returns time in nanoseconds AI opponents spent on determining a single turn
+	 * position, which is not exceeded by specified percent of the turns.
+	 *
+	 * @param percentile value from 0 to 100
+	 */
+	public long getMoveTimePercentileNanos(double percentile) {
+		if (percentile < 0 || percentile > 100) {
+			throw new IllegalArgumentException("Percentile should be from 0 to 100: " + percentile);
+		}
+		if (sortedMoveTimesNanos.length == 0) {
+			return 0;
+		}
+		int rank = (int) Math.ceil(percentile / 100 * sortedMoveTimesNanos.length);
+		return sortedMoveTimesNanos[Math.max(0, rank - 1)];
+	}
+
+	@Override
+	public String toString() {
+		return String.format("games=%d (X wins %d, O wins %d, draws %d), moves=%d, %.1f games/s, "
+				+ "move time p50=%.3f ms, p90=%.3f ms, p99=%.3f ms, max=%.3f ms",
+				getGames(), xWins, oWins, draws, getMoves(), getGamesPerSecond(),
+				toMillis(getMoveTimePercentileNanos(50)), toMillis(getMoveTimePercentileNanos(90)),
+				toMillis(getMoveTimePercentileNanos(99)), toMillis(getMoveTimePercentileNanos(100)));
+	}
+
+	private static double toMillis(long nanos) {
+		return nanos / 1_000_000.0;
+	}
+}
@@ -0,0 +1,301 @@
+package com.revenat.game.gomoku.selfplay;
+
+import static java.util.Objects.requireNonNull;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import com.revenat.game.gomoku.domain.AIGameOpponent;
+import com.revenat.game.gomoku.domain.BoardGeometry;
+import com.revenat.game.gomoku.domain.GameArbiter;
+import com.revenat.game.gomoku.domain.GameArbiter.CheckResult;
+import com.revenat.game.gomoku.domain.GameTable;
+import com.revenat.game.gomoku.domain.Mark;
+import com.revenat.game.gomoku.domain.Position;
+import com.revenat.game.gomoku.domain.exception.AIOpponentCanNotMakeTurnException;
+import com.revenat.game.gomoku.domain.impl.BitboardGameTable;
+import com.revenat.game.gomoku.domain.impl.DefaultGomokuAIGameOpponent;
+import com.revenat.game.gomoku.domain.impl.ImprovedGomokuAIGameOpponent;
+import com.revenat.game.gomoku.domain.impl.IncrementalGomokuGameArbiter;
+import com.revenat.game.gomoku.domain.impl.OpeningBook;
+import com.revenat.game.gomoku.domain.impl.OpeningBookAIGameOpponent;
+import com.revenat.game.gomoku.domain.impl.SearchGomokuAIGameOpponent;
+
+/**
+ * Plays AI versus AI games without user interface, concurrently on a pool of threads.
+ * <p>
+ * Games are played directly on the game table and arbiter, without game session,
+ * game mode and event listeners. Every thread creates its own game table and
+ * AI opponents once and reuses them for all the games it plays, so opponents
+ * do not have to be thread-safe. {@code X} always makes the first turn.
+ * <p>
+ * Usage: {@code SelfPlayRunner [games] [threads] [xOpponent] [oOpponent] [board]}, where
+ * opponent is one of {@code DEFAULT}, {@code IMPROVED}, {@code SEARCH:<moveTimeMillis>}
+ * or {@code BOOK:<bookFile>:<opponent>} and board is {@code <rows>x<columns>:<winLength>}, standard {@code 15x15:5} by default.
+ *
+ * @author Vitaly Dragun
+ *
+ */
+public class SelfPlayRunner {
+	private static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+	private static final Consumer<GameRecord> NO_RECORDING = record -> {
+	};
+
+	private final Supplier<GameTable> gameTableFactory;
+	private final Function<GameTable, AIGameOpponent> xOpponentFactory;
+	private final Function<GameTable, AIGameOpponent> oOpponentFactory;
+	private final int threads;
+
+	/**
+	 * @param gameTableFactory creates game table for every playing thread
+	 * @param xOpponentFactory creates AI opponent playing with {@code X} on the specified game table
+	 * @param oOpponentFactory creates AI opponent playing with {@code O} on the specified game table
+	 * @param threads          number of threads to play games on
+	 */
+	public SelfPlayRunner(Supplier<GameTable> gameTableFactory, Function<GameTable, AIGameOpponent> xOpponentFactory,
+			Function<GameTable, AIGameOpponent> oOpponentFactory, int threads) {
+		requireNonNull(gameTableFactory, "gameTableFactory can not be null.");
+		requireNonNull(xOpponentFactory, "xOpponentFactory can not be null.");
+		requireNonNull(oOpponentFactory, "oOpponentFactory can not be null.");
+		if (threads <= 0) {
+			throw new IllegalArgumentException("Number of threads should be positive: " + threads);
+		}
+		this.gameTableFactory = gameTableFactory;
+		this.xOpponentFactory = xOpponentFactory;
+		this.oOpponentFactory = oOpponentFactory;
+		this.threads = threads;
+	}
+
+	/**
+	 * Plays specified number of games and returns their summary.
+	 */
+	public SelfPlayReport run(int games) {
+		return run(games, NO_RECORDING);
+	}
+
+	/**
+	 * Plays specified number of games, passing record of every finished game to
+	 * the specified consumer, and returns their summary. Consumer is called
+	 * concurrently from the playing threads, so it should be thread-safe.
+	 */
+	public SelfPlayReport run(int games, Consumer<GameRecord> recordConsumer) {
+		requireNonNull(recordConsumer, "recordConsumer can not be null.");
+		if (games < 0) {
+			throw new IllegalArgumentException("Number of games can not be negative: " + games);
+		}
+		AtomicInteger remainingGames = new AtomicInteger(games);
+		int playingThreads = Math.max(1, Math.min(threads, games));
+		ExecutorService executor = Executors.newFixedThreadPool(playingThreads, threadFactory());
+		try {
+			long startTime = System.nanoTime();
+			List<Future<Player>> futures = new ArrayList<>(playingThreads);
+			for (int i = 0; i < playingThreads; i++) {
+				futures.add(executor.submit(new Player(remainingGames, recordConsumer)));
+			}
+			List<Player> players = new ArrayList<>(playingThreads);
+			for (Future<Player> future : futures) {
+				players.add(await(future));
+			}
+			return summarize(players, System.nanoTime() - startTime);
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private static Player await(Future<Player> future) {
+		try {
+			return future.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while waiting for self-play games", e);
+		} catch (ExecutionException e) {
+			throw new IllegalStateException("Self-play game failed", e.getCause());
+		}
+	}
+
+	private static SelfPlayReport summarize(List<Player> players, long elapsedNanos) {
+		int xWins = 0;
+		int oWins = 0;
+		int draws = 0;
+		int moves = 0;
+		for (Player player : players) {
+			xWins += player.xWins;
+			oWins += player.oWins;
+			draws += player.draws;
+			moves += player.moveCount;
+		}
+		long[] moveTimes = new long[moves];
+		int offset = 0;
+		for (Player player : players) {
+			System.arraycopy(player.moveTimesNanos, 0, moveTimes, offset, player.moveCount);
+			offset += player.moveCount;
+		}
+		return new SelfPlayReport(xWins, oWins, draws, elapsedNanos, moveTimes);
+	}
+
+	/**
+	 * Plays games on a single thread until there are no games left.
+	 */
+	private class Player implements Callable<Player> {
+		private final AtomicInteger remainingGames;
+		private final Consumer<GameRecord> recordConsumer;
+		private long[] moveTimesNanos = new long[1024];
+		private int moveCount;
+		private int xWins;
+		private int oWins;
+		private int draws;
+
+		Player(AtomicInteger remainingGames, Consumer<GameRecord> recordConsumer) {
+			this.remainingGames = remainingGames;
+			this.recordConsumer = recordConsumer;
+		}
+
+		@Override
+		public Player call() {
+			GameTable gameTable = gameTableFactory.get();
+			GameArbiter arbiter = new IncrementalGomokuGameArbiter(gameTable);
+			AIGameOpponent xOpponent = xOpponentFactory.apply(gameTable);
+			AIGameOpponent oOpponent = oOpponentFactory.apply(gameTable);
+			int[] turns = new int[gameTable.getTotalCells()];
+			while (remainingGames.getAndDecrement() > 0 && !Thread.currentThread().isInterrupted()) {
+				gameTable.clear();
+				Mark winner = playGame(gameTable, arbiter, xOpponent, oOpponent, turns);
+				countResult(winner);
+				if (recordConsumer != NO_RECORDING) {
+					recordConsumer.accept(new GameRecord(gameTable.getGeometry(), Arrays.copyOf(turns, gameTable.getMarkedCellsCount()), winner));
+				}
+			}
+			return this;
+		}
+
+		private Mark playGame(GameTable gameTable, GameArbiter arbiter, AIGameOpponent xOpponent,
+				AIGameOpponent oOpponent, int[] turns) {
+			Mark player = Mark.X;
+			int turnCount = 0;
+			while (true) {
+				AIGameOpponent opponent = player == Mark.X ? xOpponent : oOpponent;
+				long startTime = System.nanoTime();
+				Position position = opponent.determineNextTurnPositionFor(player);
+				recordMoveTime(System.nanoTime() - startTime);
+				if (!position.isValid() || !gameTable.isCellEmpty(position)) {
+					throw new AIOpponentCanNotMakeTurnException("AI opponent '" + player
+							+ "' can not make turn to position " + position);
+				}
+				gameTable.markCellAt(position, player);
+				turns[turnCount++] = position.ordinal();
+				CheckResult result = arbiter.checkForGameOver(position);
+				if (result.isWinner()) {
+					return player;
+				}
+				if (result.isDraw()) {
+					return Mark.EMPTY;
+				}
+				player = player.getOpponent();
+			}
+		}
+
+		private void recordMoveTime(long nanos) {
+			if (moveCount == moveTimesNanos.length) {
+				moveTimesNanos = Arrays.copyOf(moveTimesNanos, 2 * moveCount);
+			}
+			moveTimesNanos[moveCount++] = nanos;
+		}
+
+		private void countResult(Mark winner) {
+			if (winner == Mark.X) {
+				xWins++;
+			} else if (winner == Mark.O) {
+				oWins++;
+			} else {
+				draws++;
+			}
+		}
+	}
+
+	private static ThreadFactory threadFactory() {
+		return runnable -> {
+			Thread thread = new Thread(runnable, "gomoku-self-play-" + THREAD_COUNTER.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		};
+	}
+
+	public static void main(String[] args) {
+		int games = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+		int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+		String xOpponent = args.length > 2 ? args[2] : "IMPROVED";
+		String oOpponent = args.length > 3 ? args[3] : "IMPROVED";
+		BoardGeometry geometry = args.length > 4 ? parseGeometry(args[4]) : BoardGeometry.STANDARD;
+
+		SelfPlayRunner runner = new SelfPlayRunner(() -> new BitboardGameTable(geometry), opponentFactory(xOpponent),
+				opponentFactory(oOpponent), threads);
+		System.out.printf("Self-play: %d games of %s (X) against %s (O) on %s table on %d thread(s)%n",
+				games, xOpponent, oOpponent, geometry, threads);
+		System.out.println(runner.run(games));
+	}
+
+	/**
+	 * Parses game table geometry described as {@code <rows>x<columns>:<winLength>},
+	 * e.g. {@code 19x19:5}.
+	 */
+	static BoardGeometry parseGeometry(String description) {
+		String[] parts = description.toLowerCase().split("[x:]");
+		if (parts.length != 3) {
+			throw new IllegalArgumentException("Board should be described as <rows>x<columns>:<winLength>, not " + description);
+		}
+		return BoardGeometry.of(Integer.parseInt(parts[0]), Integer.parseInt(parts[1]), Integer.parseInt(parts[2]));
+	}
+
+	/**
+	 * Returns factory of the AI opponents described as {@code DEFAULT}, {@code IMPROVED},
+	 * {@code SEARCH:<moveTimeMillis>} or {@code BOOK:<bookFile>:<opponent>}, the latter
+	 * plays moves from the {@link OpeningBook} and asks described opponent otherwise.
+	 */
+	public static Function<GameTable, AIGameOpponent> opponentFactory(String description) {
+		requireNonNull(description, "Opponent description can not be null.");
+		String[] parts = description.split(":");
+		switch (parts[0].toUpperCase()) {
+		case "DEFAULT":
+			return DefaultGomokuAIGameOpponent::new;
+		case "IMPROVED":
+			return ImprovedGomokuAIGameOpponent::new;
+		case "SEARCH":
+			long moveTimeMillis = parts.length > 1 ? Long.parseLong(parts[1]) : 100;
+			return gameTable -> new SearchGomokuAIGameOpponent(gameTable, moveTimeMillis);
+		case "BOOK":
+			String[] bookParts = description.split(":", 3);
+			if (bookParts.length < 3) {
+				throw new IllegalArgumentException("Book opponent should be described as BOOK:<bookFile>:<opponent>, not "
+						+ description);
+			}
+			OpeningBook openingBook = openBook(Paths.get(bookParts[1]));
+			Function<GameTable, AIGameOpponent> opponentFactory = opponentFactory(bookParts[2]);
+			return gameTable -> new OpeningBookAIGameOpponent(gameTable, openingBook, opponentFactory.apply(gameTable));
+		default:
+			throw new IllegalArgumentException("Unknown AI opponent: " + description);
+		}
+	}
+
+	private static OpeningBook openBook(Path bookFile) {
+		try {
+			return OpeningBook.open(bookFile);
+		} catch (IOException e) {
+			throw new UncheckedIOException("Can not open opening book " + bookFile, e);
+		}
+	}
+}
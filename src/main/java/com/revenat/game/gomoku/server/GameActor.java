@@ -0,0 +1,98 @@
+package com.revenat.game.gomoku.server;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Executor which runs tasks of a single game one at a time, in order of submission,
+ * on the shared executor. Tasks of different actors run in parallel.
+ * <p>
+ * Actor holds no thread of its own: while it has tasks, it is scheduled on the shared
+ * executor and runs a bounded batch of them, then gives the thread up to other actors.
+ * Each batch happens-before the next one, so the state of the game is safely confined
+ * to its actor.
+ * <p>
+ * Once the actor is closed it rejects new tasks, while the tasks submitted before are
+ * still run. Submission and closing hold a lock just to tell them apart, tasks are run
+ * without it.
+ *
+ * @author Vitaly Dragun
+ *
+ */
+final class GameActor implements GameExecutor {
+	private static final Logger LOG = LoggerFactory.getLogger(GameActor.class);
+	private static final int MAX_TASKS_PER_RUN = 64;
+
+	private final Executor executor;
+	private final Queue<Runnable> mailbox = new ConcurrentLinkedQueue<>();
+	private final AtomicBoolean scheduled = new AtomicBoolean();
+	private final Lock submissionLock = new ReentrantLock();
+	private boolean closed;
+
+	GameActor(Executor executor) {
+		this.executor = executor;
+	}
+
+	@Override
+	public void execute(Runnable task) {
+		requireNonNull(task, "Task can not be null.");
+		submissionLock.lock();
+		try {
+			if (closed) {
+				throw new RejectedExecutionException("Game actor is closed");
+			}
+			mailbox.add(task);
+		} finally {
+			submissionLock.unlock();
+		}
+		schedule();
+	}
+
+	/**
+	 * Actor holds no thread, so there is nothing to release, tasks already submitted
+	 * are run when the actor is scheduled.
+	 */
+	@Override
+	public void close() {
+		submissionLock.lock();
+		try {
+			closed = true;
+		} finally {
+			submissionLock.unlock();
+		}
+	}
+
+	private void schedule() {
+		if (scheduled.compareAndSet(false, true)) {
+			executor.execute(this::run);
+		}
+	}
+
+	private void run() {
+		for (int i = 0; i < MAX_TASKS_PER_RUN; i++) {
+			Runnable task = mailbox.poll();
+			if (task == null) {
+				break;
+			}
+			try {
+				task.run();
+			} catch (RuntimeException e) {
+				LOG.error("Error in the game", e);
+			}
+		}
+		scheduled.set(false);
+		if (!mailbox.isEmpty()) {
+			schedule();
+		}
+	}
+}
@@ -0,0 +1,18 @@
+package com.revenat.game.gomoku.server;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Executor which runs all tasks of a single game one at a time, in order of submission.
+ *
+ * @author Vitaly Dragun
+ *
+ */
+interface GameExecutor extends Executor {
+
+	/**
+	 * Releases resources of the executor once the tasks already submitted are run.
+	 * Tasks submitted after that are rejected with {@link java.util.concurrent.RejectedExecutionException}.
+	 */
+	void close();
+}
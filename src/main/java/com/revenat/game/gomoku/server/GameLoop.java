@@ -0,0 +1,81 @@
+package com.revenat.game.gomoku.server;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Loop of a single game which runs on its own thread for the whole life of the game,
+ * blocking while it waits for the next request, e.g. turn of the remote player, and
+ * running requests one at a time in order of arrival. AI opponent determines its turn
+ * on the thread of the loop as well, right after the player's turn.
+ * <p>
+ * Blocking waits do not use monitors, so the loop does not pin the carrier thread when
+ * it runs on a virtual thread.
+ * <p>
+ * Closing the loop queues a request to stop, so the requests queued before are still run,
+ * and new requests are rejected from then on. Submission and closing hold a lock, which
+ * is never held while waiting, so that no request is queued after the stop one.
+ *
+ * @author Vitaly Dragun
+ *
+ */
+final class GameLoop implements GameExecutor, Runnable {
+	private static final Logger LOG = LoggerFactory.getLogger(GameLoop.class);
+	private static final Runnable STOP = () -> {
+	};
+
+	private final BlockingQueue<Runnable> requests = new LinkedBlockingQueue<>();
+	private final Lock submissionLock = new ReentrantLock();
+	private boolean closed;
+
+	@Override
+	public void execute(Runnable task) {
+		requireNonNull(task, "Task can not be null.");
+		submissionLock.lock();
+		try {
+			if (closed) {
+				throw new RejectedExecutionException("Game loop is closed");
+			}
+			requests.add(task);
+		} finally {
+			submissionLock.unlock();
+		}
+	}
+
+	@Override
+	public void close() {
+		submissionLock.lock();
+		try {
+			if (!closed) {
+				closed = true;
+				requests.add(STOP);
+			}
+		} finally {
+			submissionLock.unlock();
+		}
+	}
+
+	@Override
+	public void run() {
+		try {
+			for (Runnable request = requests.take(); request != STOP; request = requests.take()) {
+				try {
+					request.run();
+				} catch (RuntimeException e) {
+					LOG.error("Error in the game", e);
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			LOG.debug("Game loop is interrupted");
+		}
+	}
+}
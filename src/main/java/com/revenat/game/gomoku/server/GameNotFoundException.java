@@ -0,0 +1,17 @@
+package com.revenat.game.gomoku.server;
+
+/**
+ * Notifies about situation when there is no game with given id on the {@link GameServer},
+ * e.g. because it is closed or evicted as idle.
+ *
+ * @author Vitaly Dragun
+ *
+ */
+public class GameNotFoundException extends RuntimeException {
+	private static final long serialVersionUID = -5437095284917730164L;
+
+	public GameNotFoundException(long gameId) {
+		super("There is no game with id " + gameId);
+	}
+
+}
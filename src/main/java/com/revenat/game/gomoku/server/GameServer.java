@@ -0,0 +1,305 @@
+package com.revenat.game.gomoku.server;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.revenat.game.gomoku.domain.AIGameOpponent;
+import com.revenat.game.gomoku.domain.GameEventListener;
+import com.revenat.game.gomoku.domain.GameMode;
+import com.revenat.game.gomoku.domain.GameSession;
+import com.revenat.game.gomoku.domain.GameTable;
+import com.revenat.game.gomoku.domain.Mark;
+import com.revenat.game.gomoku.domain.Position;
+import com.revenat.game.gomoku.domain.impl.AIOpponentGameMode;
+import com.revenat.game.gomoku.domain.impl.BitboardGameTable;
+import com.revenat.game.gomoku.domain.impl.GomokuGameSession;
+import com.revenat.game.gomoku.domain.impl.IncrementalGomokuGameArbiter;
+import com.revenat.game.gomoku.domain.impl.PlayerOpponentGameMode;
+
+/**
+ * Hosts many concurrent Gomoku games in one process. Every game has its own table,
+ * arbiter, {@link GameSession} and {@link GameMode}, and is identified by the id
+ * assigned on creation.
+ * <p>
+ * Events of a game are processed serially, while different games are processed in
+ * parallel, in one of two ways:
+ * <ul>
+ * <li>by default every game has a {@link GameActor} which runs its events on the shared
+ * game executor. AI opponents determine their turns on the separate AI executor, so they
+ * do not hold game executor threads while thinking, and their turns are bounded by the
+ * AI turn time;</li>
+ * <li>{@link #threadPerGame(Executor, Function, long) thread per game} runs a {@link GameLoop}
+ * of every game on a thread of its own, which blocks waiting for requests and determines
+ * AI turns right after the player's turns. It is intended for virtual threads, see
+ * {@link GameThreads}, so that thousands of games waiting for remote players hold no
+ * platform threads.</li>
+ * </ul>
+ * Listener of the game is notified on the thread which runs the game events, one event at a time.
+ * <p>
+ * Games which receive no requests for the idle timeout are evicted, as if they were
+ * closed. Requests to closed or evicted games fail with {@link GameNotFoundException}.
+ * <p>
+ * Instances are thread-safe.
+ *
+ * @author Vitaly Dragun
+ *
+ */
+public final class GameServer implements AutoCloseable {
+	private static final Logger LOG = LoggerFactory.getLogger(GameServer.class);
+	private static final long MIN_EVICTION_PERIOD_MILLIS = 10;
+
+	/**
+	 * Executor to run events of the games on or {@code null} if games run their own loops
+	 */
+	private final Executor gameExecutor;
+	/**
+	 * Executor to run loops of the games on or {@code null} if games run on actors
+	 */
+	private final Executor gameLoopExecutor;
+	private final Executor aiExecutor;
+	private final Function<GameTable, AIGameOpponent> opponentFactory;
+	private final long aiTurnTimeMillis;
+	private final long idleTimeoutNanos;
+	private final ConcurrentMap<Long, HostedGame> games = new ConcurrentHashMap<>();
+	private final AtomicLong gameIdCounter = new AtomicLong();
+	private final ScheduledExecutorService evictor;
+
+	/**
+	 * @param gameExecutor      executor to process events of the games on
+	 * @param aiExecutor        executor to determine AI turns on
+	 * @param opponentFactory   creates AI opponent for the game table of a new game
+	 * @param aiTurnTimeMillis  time limit in milliseconds for determining single AI turn
+	 * @param idleTimeoutMillis time in milliseconds after the last request to the game
+	 *                          when it is evicted
+	 */
+	public GameServer(Executor gameExecutor, Executor aiExecutor, Function<GameTable, AIGameOpponent> opponentFactory,
+			long aiTurnTimeMillis, long idleTimeoutMillis) {
+		this(requireNonNull(gameExecutor, "Game executor can not be null."), null,
+				requireNonNull(aiExecutor, "AI executor can not be null."), opponentFactory, aiTurnTimeMillis,
+				idleTimeoutMillis);
+	}
+
+	private GameServer(Executor gameExecutor, Executor gameLoopExecutor, Executor aiExecutor,
+			Function<GameTable, AIGameOpponent> opponentFactory, long aiTurnTimeMillis, long idleTimeoutMillis) {
+		requireNonNull(opponentFactory, "AI opponent factory can not be null.");
+		if (aiTurnTimeMillis <= 0) {
+			throw new IllegalArgumentException("AI turn time should be positive: " + aiTurnTimeMillis);
+		}
+		if (idleTimeoutMillis <= 0) {
+			throw new IllegalArgumentException("Idle timeout should be positive: " + idleTimeoutMillis);
+		}
+		this.gameExecutor = gameExecutor;
+		this.gameLoopExecutor = gameLoopExecutor;
+		this.aiExecutor = aiExecutor;
+		this.opponentFactory = opponentFactory;
+		this.aiTurnTimeMillis = aiTurnTimeMillis;
+		this.idleTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(idleTimeoutMillis);
+		this.evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "gomoku-server-evictor");
+			thread.setDaemon(true);
+			return thread;
+		});
+		long evictionPeriodMillis = Math.max(MIN_EVICTION_PERIOD_MILLIS, idleTimeoutMillis / 2);
+		evictor.scheduleWithFixedDelay(this::evictIdleGames, evictionPeriodMillis, evictionPeriodMillis,
+				TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Creates server which runs every game on a thread of its own, taken from the specified
+	 * executor for the whole life of the game. AI opponents determine their turns on the
+	 * threads of the games, within their own time budgets.
+	 *
+	 * @param gameLoopExecutor  executor which runs every task on a new thread, preferably virtual one,
+	 *                          see {@link GameThreads}
+	 * @param opponentFactory   creates AI opponent for the game table of a new game
+	 * @param idleTimeoutMillis time in milliseconds after the last request to the game
+	 *                          when it is evicted
+	 */
+	public static GameServer threadPerGame(Executor gameLoopExecutor,
+			Function<GameTable, AIGameOpponent> opponentFactory, long idleTimeoutMillis) {
+		requireNonNull(gameLoopExecutor, "Game loop executor can not be null.");
+		return new GameServer(null, gameLoopExecutor, null, opponentFactory, Long.MAX_VALUE, idleTimeoutMillis);
+	}
+
+	/**
+	 * Creates and starts new game of two players, who take turns starting with {@code X}.
+	 *
+	 * @param listener listener to notify about events of the game
+	 * @return id of the game
+	 */
+	public long createPlayersGame(GameEventListener listener) {
+		return createGame(listener, (session, table, executor) -> new PlayerOpponentGameMode());
+	}
+
+	/**
+	 * Creates and starts new game of the player, who plays with {@link AIOpponentGameMode#HUMAN_PLAYER},
+	 * against AI opponent. AI may make the first turn.
+	 *
+	 * @param listener listener to notify about events of the game
+	 * @return id of the game
+	 */
+	public long createAIGame(GameEventListener listener) {
+		return createGame(listener, (session, table, executor) -> {
+			AIGameOpponent opponent = opponentFactory.apply(table);
+			if (gameLoopExecutor != null) {
+				return new AIOpponentGameMode(session, opponent);
+			}
+			return new AIOpponentGameMode(session, opponent, aiExecutor, executor, aiTurnTimeMillis);
+		});
+	}
+
+	private long createGame(GameEventListener listener, GameModeFactory gameModeFactory) {
+		requireNonNull(listener, "Listener can not be null.");
+		GameTable table = new BitboardGameTable();
+		GameSession session = new GomokuGameSession(table, new IncrementalGomokuGameArbiter(table));
+		GameExecutor executor = newGameExecutor();
+		GameMode gameMode = gameModeFactory.create(session, table, executor);
+		session.setGameMode(gameMode);
+		session.addListener(listener);
+
+		HostedGame game = new HostedGame(gameIdCounter.incrementAndGet(), executor, session, gameMode);
+		games.put(game.id(), game);
+		game.submit(() -> {
+			session.startNewGame();
+			return null;
+		});
+		LOG.debug("Game {} in {} is created", game.id(), gameMode);
+		return game.id();
+	}
+
+	private GameExecutor newGameExecutor() {
+		if (gameLoopExecutor == null) {
+			return new GameActor(gameExecutor);
+		}
+		GameLoop loop = new GameLoop();
+		gameLoopExecutor.execute(loop);
+		return loop;
+	}
+
+	/**
+	 * Makes turn of the current player of the game to specified position.
+	 *
+	 * @return future completed when the turn is processed and listener is notified
+	 * @throws GameNotFoundException if there is no such game
+	 */
+	public CompletableFuture<Void> makeTurn(long gameId, Position position) {
+		requireNonNull(position, "Turn position can not be null.");
+		HostedGame game = gameOf(gameId);
+		return game.submit(() -> {
+			game.session().processPlayerTurn(position);
+			return null;
+		});
+	}
+
+	/**
+	 * Undoes the last turn of the game, see {@link GameSession#undoLastTurn()}.
+	 *
+	 * @throws GameNotFoundException if there is no such game
+	 */
+	public CompletableFuture<Boolean> undoTurn(long gameId) {
+		HostedGame game = gameOf(gameId);
+		return game.submit(game.session()::undoLastTurn);
+	}
+
+	/**
+	 * Starts the game from the beginning, e.g. when it is over.
+	 *
+	 * @throws GameNotFoundException if there is no such game
+	 */
+	public CompletableFuture<Void> restartGame(long gameId) {
+		HostedGame game = gameOf(gameId);
+		return game.submit(() -> {
+			game.session().startNewGame();
+			return null;
+		});
+	}
+
+	/**
+	 * Returns mark of the player who is to make a turn in the game.
+	 *
+	 * @throws GameNotFoundException if there is no such game
+	 */
+	public CompletableFuture<Mark> getCurrentPlayer(long gameId) {
+		HostedGame game = gameOf(gameId);
+		return game.submit(game.gameMode()::getCurrentPlayer);
+	}
+
+	/**
+	 * Closes the game, aborting turn of its AI opponent if it thinks.
+	 *
+	 * @return {@code false} if there is no such game
+	 */
+	public boolean closeGame(long gameId) {
+		HostedGame game = games.remove(gameId);
+		if (game == null) {
+			return false;
+		}
+		game.close();
+		LOG.debug("Game {} is closed", gameId);
+		return true;
+	}
+
+	/**
+	 * Returns number of games hosted by this server.
+	 */
+	public int getGameCount() {
+		return games.size();
+	}
+
+	/**
+	 * Evicts games which receive no requests for the idle timeout. It is done
+	 * periodically by this server and needs not be called otherwise.
+	 *
+	 * @return number of evicted games
+	 */
+	public int evictIdleGames() {
+		long now = System.nanoTime();
+		int evicted = 0;
+		for (HostedGame game : games.values()) {
+			if (now - game.lastActivityNanos() > idleTimeoutNanos && games.remove(game.id(), game)) {
+				game.close();
+				evicted++;
+			}
+		}
+		if (evicted > 0) {
+			LOG.info("{} idle game(s) are evicted, {} game(s) remain", evicted, games.size());
+		}
+		return evicted;
+	}
+
+	/**
+	 * Stops eviction and closes all games. Executors of the server are not shut down.
+	 */
+	@Override
+	public void close() {
+		evictor.shutdownNow();
+		for (Long gameId : games.keySet()) {
+			closeGame(gameId);
+		}
+	}
+
+	private HostedGame gameOf(long gameId) {
+		HostedGame game = games.get(gameId);
+		if (game == null) {
+			throw new GameNotFoundException(gameId);
+		}
+		return game;
+	}
+
+	@FunctionalInterface
+	private interface GameModeFactory {
+		GameMode create(GameSession session, GameTable table, Executor actor);
+	}
+}
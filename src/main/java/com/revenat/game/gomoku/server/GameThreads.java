@@ -0,0 +1,96 @@
+package com.revenat.game.gomoku.server;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Provides executors which run every task on a thread of its own, e.g. to run
+ * {@link GameServer#threadPerGame(java.util.concurrent.Executor, java.util.function.Function, long)
+ * a thread per game}.
+ * <p>
+ * Virtual threads are looked up reflectively, so that the code compiles for and runs on
+ * Java 8 too, where they are not available.
+ *
+ * @author Vitaly Dragun
+ *
+ */
+public final class GameThreads {
+	private static final Logger LOG = LoggerFactory.getLogger(GameThreads.class);
+	/**
+	 * {@code Executors.newVirtualThreadPerTaskExecutor()} or {@code null} if virtual threads are not available
+	 */
+	private static final MethodHandle NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR = findVirtualThreadPerTaskExecutor();
+
+	private GameThreads() {
+	}
+
+	/**
+	 * Checks whether virtual threads are available, which requires Java 21 or later.
+	 */
+	public static boolean areVirtualThreadsAvailable() {
+		return NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR != null;
+	}
+
+	/**
+	 * Returns executor which runs every task on a new virtual thread.
+	 *
+	 * @throws UnsupportedOperationException if virtual threads are not available
+	 */
+	public static ExecutorService newVirtualThreadPerTaskExecutor() {
+		if (NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR == null) {
+			throw new UnsupportedOperationException("Virtual threads require Java 21 or later, not "
+					+ System.getProperty("java.version"));
+		}
+		return invoke(NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR);
+	}
+
+	/**
+	 * Returns executor which runs every task on a new platform thread.
+	 */
+	public static ExecutorService newPlatformThreadPerTaskExecutor() {
+		return Executors.newCachedThreadPool();
+	}
+
+	/**
+	 * Returns executor which runs every task on a new virtual thread if they are
+	 * available, or on a new platform thread otherwise.
+	 */
+	public static ExecutorService newThreadPerTaskExecutor() {
+		return areVirtualThreadsAvailable() ? newVirtualThreadPerTaskExecutor() : newPlatformThreadPerTaskExecutor();
+	}
+
+	private static MethodHandle findVirtualThreadPerTaskExecutor() {
+		MethodHandle factory;
+		try {
+			factory = MethodHandles.publicLookup().findStatic(Executors.class, "newVirtualThreadPerTaskExecutor",
+					MethodType.methodType(ExecutorService.class));
+		} catch (NoSuchMethodException | IllegalAccessException e) {
+			LOG.debug("Virtual threads are not available on Java {}", System.getProperty("java.version"));
+			return null;
+		}
+		try {
+			// virtual threads of Java 19 and 20 are preview feature, disabled by default
+			invoke(factory).shutdown();
+			return factory;
+		} catch (UnsupportedOperationException e) {
+			LOG.debug("Virtual threads are not enabled on Java {}", System.getProperty("java.version"));
+			return null;
+		}
+	}
+
+	private static ExecutorService invoke(MethodHandle factory) {
+		try {
+			return (ExecutorService) factory.invokeExact();
+		} catch (RuntimeException | Error e) {
+			throw e;
+		} catch (Throwable e) {
+			throw new IllegalStateException("Can not create virtual thread executor", e);
+		}
+	}
+}
@@ -0,0 +1,90 @@
+package com.revenat.game.gomoku.server;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+
+import com.revenat.game.gomoku.domain.GameMode;
+import com.revenat.game.gomoku.domain.GameSession;
+
+/**
+ * Game hosted by the {@link GameServer}: its own {@link GameSession} with the table,
+ * arbiter and {@link GameMode}, which are used only by tasks of the game's {@link GameExecutor}.
+ * <p>
+ * Requests which race with closing of the game, e.g. turn of the player submitted while
+ * the game is evicted, fail with {@link GameNotFoundException}, whether they are
+ * rejected by the closed executor or run after the game is closed.
+ *
+ * @author Vitaly Dragun
+ *
+ */
+final class HostedGame {
+	private final long id;
+	private final GameExecutor executor;
+	private final GameSession session;
+	private final GameMode gameMode;
+	private volatile long lastActivityNanos = System.nanoTime();
+	private volatile boolean closed;
+
+	HostedGame(long id, GameExecutor executor, GameSession session, GameMode gameMode) {
+		this.id = id;
+		this.executor = executor;
+		this.session = session;
+		this.gameMode = gameMode;
+	}
+
+	long id() {
+		return id;
+	}
+
+	GameSession session() {
+		return session;
+	}
+
+	GameMode gameMode() {
+		return gameMode;
+	}
+
+	long lastActivityNanos() {
+		return lastActivityNanos;
+	}
+
+	/**
+	 * Runs specified action on the executor of this game and marks the game as active.
+	 *
+	 * @return future completed with result of the action, or with {@link GameNotFoundException}
+	 *         if the game is closed before the action is run
+	 */
+	<T> CompletableFuture<T> submit(Supplier<T> action) {
+		lastActivityNanos = System.nanoTime();
+		CompletableFuture<T> result = new CompletableFuture<>();
+		try {
+			executor.execute(() -> {
+				if (closed) {
+					result.completeExceptionally(new GameNotFoundException(id));
+					return;
+				}
+				try {
+					result.complete(action.get());
+				} catch (RuntimeException e) {
+					result.completeExceptionally(e);
+				}
+			});
+		} catch (RejectedExecutionException e) {
+			result.completeExceptionally(new GameNotFoundException(id));
+		}
+		return result;
+	}
+
+	/**
+	 * Abandons the turn game mode may determine, e.g. search of the AI opponent,
+	 * and releases the executor, so that the game holds no threads once it is removed
+	 * from the server. No turn is undone and the executor does not wait for the search
+	 * to stop, since the game is not used any more.
+	 */
+	void close() {
+		closed = true;
+		executor.execute(gameMode::abandonTurn);
+		executor.close();
+	}
+}
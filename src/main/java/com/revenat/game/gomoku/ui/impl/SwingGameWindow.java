@@ -5,6 +5,8 @@ import java.awt.Dimension;
 import java.awt.Font;
 import java.awt.GridLayout;
 import java.awt.Toolkit;
+import java.awt.event.InputEvent;
+import java.awt.event.KeyEvent;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 import java.awt.event.WindowAdapter;
@@ -14,7 +16,11 @@ import java.util.Objects;
 import javax.swing.BorderFactory;
 import javax.swing.JFrame;
 import javax.swing.JLabel;
+import javax.swing.JMenu;
+import javax.swing.JMenuBar;
+import javax.swing.JMenuItem;
 import javax.swing.JOptionPane;
+import javax.swing.KeyStroke;
 import javax.swing.SwingConstants;
 import javax.swing.SwingUtilities;
 import javax.swing.WindowConstants;
@@ -22,6 +28,7 @@ import javax.swing.WindowConstants;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.revenat.game.gomoku.domain.BoardGeometry;
 import com.revenat.game.gomoku.domain.GameSession;
 import com.revenat.game.gomoku.domain.Mark;
 import com.revenat.game.gomoku.domain.Position;
@@ -40,22 +47,36 @@ public class SwingGameWindow extends JFrame implements GameWindow {
 	private static final Logger LOG = LoggerFactory.getLogger(SwingGameWindow.class);
 	
 	private static final String TITLE = "Gomoku game application";
+	private static final String GAME_MENU_TITLE = "Game";
+	private static final String UNDO_TITLE = "Undo turn";
+	private static final String ABORT_TITLE = "Abort AI turn";
 	private static final int CELL_FONT_SIZE = 35;
 	private static final Font DEFAULT_FONT = new Font(Font.SERIF, Font.PLAIN, CELL_FONT_SIZE);
 	private static final int CELL_HEIGHT = 45;
 	private static final int CELL_WIDTH = 45;
-	private static final int TOTAL_ROWS = 15;
-	private static final int TOTAL_COLUMNS = 15;
 	
 	private final transient GameSession gameSession;
-	private final JLabel[] gameTable = new JLabel[TOTAL_ROWS * TOTAL_COLUMNS];
+	private final transient BoardGeometry geometry;
+	private final JLabel[] gameTable;
 	
 	public SwingGameWindow(GameSession gameSession) {
+		this(gameSession, BoardGeometry.STANDARD);
+	}
+	
+	/**
+	 * @param gameSession game session to display
+	 * @param geometry    geometry of the game table used by the session
+	 */
+	public SwingGameWindow(GameSession gameSession, BoardGeometry geometry) {
 		Objects.requireNonNull(gameSession, "GameSession can not be null.");
+		Objects.requireNonNull(geometry, "BoardGeometry can not be null.");
 		
 		this.gameSession = gameSession;
+		this.geometry = geometry;
+		this.gameTable = new JLabel[geometry.totalCells()];
 		
 		createGameTable();
+		createMenu();
 		initializeWindow();
 		displayWindow();
 //		startNewGame();
@@ -66,9 +87,9 @@ public class SwingGameWindow extends JFrame implements GameWindow {
 	}
 
 	private void createGameTable() {
-		setLayout(new GridLayout(TOTAL_ROWS, TOTAL_COLUMNS));
+		setLayout(new GridLayout(geometry.rows(), geometry.columns()));
 		
-		for (int index = 0; index < TOTAL_ROWS * TOTAL_COLUMNS; index++) {
+		for (int index = 0; index < geometry.totalCells(); index++) {
 			int position = index + 1;
 			JLabel tableCell = new JLabel();
 			gameTable[index] = tableCell;
@@ -89,7 +110,24 @@ public class SwingGameWindow extends JFrame implements GameWindow {
 				
 			});
 		}
-		LOG.info("Built game table with size {}x{}", TOTAL_ROWS, TOTAL_COLUMNS);
+		LOG.info("Built game table with size {}x{}", geometry.rows(), geometry.columns());
+	}
+	
+	private void createMenu() {
+		JMenuItem undoItem = new JMenuItem(UNDO_TITLE);
+		undoItem.setAccelerator(KeyStroke.getKeyStroke(KeyEvent.VK_Z, InputEvent.CTRL_DOWN_MASK));
+		undoItem.addActionListener(e -> handleUndo());
+		
+		JMenuItem abortItem = new JMenuItem(ABORT_TITLE);
+		abortItem.setAccelerator(KeyStroke.getKeyStroke(KeyEvent.VK_ESCAPE, 0));
+		abortItem.addActionListener(e -> handleAbort());
+		
+		JMenu gameMenu = new JMenu(GAME_MENU_TITLE);
+		gameMenu.add(undoItem);
+		gameMenu.add(abortItem);
+		JMenuBar menuBar = new JMenuBar();
+		menuBar.add(gameMenu);
+		setJMenuBar(menuBar);
 	}
 	
 	private void initializeWindow() {
@@ -121,7 +159,7 @@ public class SwingGameWindow extends JFrame implements GameWindow {
 	}
 	
 	private void clearGameTable() {
-		for (int position = 1; position <= TOTAL_ROWS * TOTAL_COLUMNS; position++) {
+		for (int position = 1; position <= geometry.totalCells(); position++) {
 			renderTableCell(position, Mark.EMPTY);
 		}
 	}
@@ -152,7 +190,23 @@ public class SwingGameWindow extends JFrame implements GameWindow {
 	
 	private void handlePlayerTurn(int position) {
 		try {
-			gameSession.processPlayerTurn(Position.from(position));
+			gameSession.processPlayerTurn(geometry.position(position));
+		} catch (RuntimeException e) {
+			LOG.error("Error in the game",e);
+		}
+	}
+	
+	private void handleUndo() {
+		try {
+			gameSession.undoLastTurn();
+		} catch (RuntimeException e) {
+			LOG.error("Error in the game",e);
+		}
+	}
+	
+	private void handleAbort() {
+		try {
+			gameSession.abortTurn();
 		} catch (RuntimeException e) {
 			LOG.error("Error in the game",e);
 		}
@@ -47,6 +47,14 @@ public class UIGameEventListener implements GameEventListener {
 		gameWindow.renderTableCell(position.ordinal(), mark);
 	}
 
+	@Override
+	public void turnIsUndone(Position position, Mark mark) {
+		requireNonNull(position, "Turn position can not be null.");
+		requireNonNull(mark, "Mark can not be null.");
+		
+		gameWindow.renderTableCell(position.ordinal(), Mark.EMPTY);
+	}
+
 	@Override
 	public void winnerIsFound(Mark winner, Position[] winningCombination) {
 		requireNonNull(winner, "Winner mark can not be null.");
@@ -60,6 +68,14 @@ public class UIGameEventListener implements GameEventListener {
 		processUserChoice(isConfirm);
 	}
 
+	@Override
+	public void turnIsFailed(Mark mark, String reason) {
+		requireNonNull(mark, "Mark can not be null.");
+		
+		String message = String.format("%s can not make a turn: %s", mark, reason);
+		dialogProvider.showMessageDialog(message, DIALOG_TITLE);
+	}
+
 	@Override
 	public void draw() {
 		String message = "Game over: Draw! Play again?";
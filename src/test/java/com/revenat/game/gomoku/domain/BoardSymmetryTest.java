@@ -0,0 +1,70 @@
+package com.revenat.game.gomoku.domain;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+
+public class BoardSymmetryTest {
+	private static final BoardGeometry SQUARE = BoardGeometry.STANDARD;
+	private static final BoardGeometry RECTANGLE = BoardGeometry.of(9, 13, 5);
+
+	@Test
+	public void inverseShouldMapEveryCellOfSquareTableBack() {
+		assertInverseMapsEveryCellBack(SQUARE);
+	}
+
+	@Test
+	public void inverseShouldMapEveryCellOfRectangularTableBack() {
+		assertInverseMapsEveryCellBack(RECTANGLE);
+	}
+
+	@Test
+	public void shouldMapCellsOfTableOntoDistinctCells() {
+		for (BoardSymmetry symmetry : BoardSymmetry.applicableTo(RECTANGLE)) {
+			boolean[] mapped = new boolean[RECTANGLE.totalCells() + 1];
+			for (int ordinal = 1; ordinal <= RECTANGLE.totalCells(); ordinal++) {
+				int image = symmetry.apply(RECTANGLE, ordinal);
+
+				assertThat(RECTANGLE.contains(image)).as("%s of %d", symmetry, ordinal).isTrue();
+				assertThat(mapped[image]).as("%s of %d", symmetry, ordinal).isFalse();
+				mapped[image] = true;
+			}
+		}
+	}
+
+	@Test
+	public void shouldRotateCornerClockwise() {
+		Position upperLeft = SQUARE.position(0, 0);
+
+		assertThat(BoardSymmetry.ROTATE_90.apply(SQUARE, upperLeft)).isSameAs(SQUARE.position(0, 14));
+		assertThat(BoardSymmetry.ROTATE_270.apply(SQUARE, upperLeft)).isSameAs(SQUARE.position(14, 0));
+	}
+
+	@Test
+	public void shouldHaveOnlySymmetriesNotSwappingAxesForRectangularTable() {
+		assertThat(BoardSymmetry.applicableTo(SQUARE)).hasSize(8).startsWith(BoardSymmetry.IDENTITY);
+		assertThat(BoardSymmetry.applicableTo(RECTANGLE)).containsExactly(BoardSymmetry.IDENTITY,
+				BoardSymmetry.ROTATE_180, BoardSymmetry.FLIP_HORIZONTAL, BoardSymmetry.FLIP_VERTICAL);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void shouldNotApplySymmetrySwappingAxesToRectangularTable() {
+		BoardSymmetry.TRANSPOSE.apply(RECTANGLE, 1);
+	}
+
+	@Test
+	public void shouldKeepInvalidPosition() {
+		assertThat(BoardSymmetry.ROTATE_90.apply(SQUARE, Position.NOT_FOUND)).isSameAs(Position.NOT_FOUND);
+	}
+
+	private static void assertInverseMapsEveryCellBack(BoardGeometry geometry) {
+		for (BoardSymmetry symmetry : BoardSymmetry.applicableTo(geometry)) {
+			for (int ordinal = 1; ordinal <= geometry.totalCells(); ordinal++) {
+				int image = symmetry.apply(geometry, ordinal);
+
+				assertThat(symmetry.inverse().apply(geometry, image)).as("%s of %d", symmetry, ordinal)
+						.isEqualTo(ordinal);
+			}
+		}
+	}
+}
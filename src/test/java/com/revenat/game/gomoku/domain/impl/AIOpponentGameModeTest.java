@@ -0,0 +1,218 @@
+package com.revenat.game.gomoku.domain.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.revenat.game.gomoku.domain.AIGameOpponent;
+import com.revenat.game.gomoku.domain.CancellationToken;
+import com.revenat.game.gomoku.domain.GameEventListener;
+import com.revenat.game.gomoku.domain.GameSession;
+import com.revenat.game.gomoku.domain.GameTable;
+import com.revenat.game.gomoku.domain.Mark;
+import com.revenat.game.gomoku.domain.Position;
+
+public class AIOpponentGameModeTest {
+	private GameTable gameTable;
+	private GameSession gameSession;
+	private SearchingOpponent opponent;
+	private ExecutorService searchExecutor;
+
+	@Before
+	public void setUp() {
+		gameTable = new BitboardGameTable();
+		gameSession = new GomokuGameSession(gameTable, new IncrementalGomokuGameArbiter(gameTable));
+		opponent = new SearchingOpponent();
+		searchExecutor = Executors.newSingleThreadExecutor();
+	}
+
+	@After
+	public void tearDown() {
+		searchExecutor.shutdownNow();
+	}
+
+	@Test
+	public void abortTurnShouldChangeGameTableOnlyAfterSearchLeavesIt() throws InterruptedException {
+		AIOpponentGameMode gameMode = startGameWithPendingAITurn(searchExecutor);
+		assertThat(opponent.started.await(5, TimeUnit.SECONDS)).isTrue();
+
+		gameMode.abortTurn();
+
+		assertThat(opponent.searching.get()).isFalse();
+		assertThat(opponent.tableChanged).isFalse();
+		assertThat(gameMode.isAwaitingPlayer()).isTrue();
+		assertThat(gameMode.getCurrentPlayer()).isEqualTo(AIOpponentGameMode.HUMAN_PLAYER);
+	}
+
+	@Test
+	public void startNewGameShouldClearGameTableOnlyAfterSearchLeavesIt() throws InterruptedException {
+		startGameWithPendingAITurn(searchExecutor);
+		assertThat(opponent.started.await(5, TimeUnit.SECONDS)).isTrue();
+
+		gameSession.startNewGame();
+
+		assertThat(opponent.searching.get()).isFalse();
+		assertThat(opponent.tableChanged).isFalse();
+	}
+
+	@Test
+	public void searchWaitingForExecutorShouldBeAbandoned() {
+		List<Runnable> queuedTasks = new ArrayList<>();
+		AIOpponentGameMode gameMode = startGameWithPendingAITurn(queuedTasks::add);
+
+		gameMode.abortTurn();
+		queuedTasks.forEach(Runnable::run);
+
+		assertThat(queuedTasks).isNotEmpty();
+		assertThat(opponent.calls.get()).isZero();
+	}
+
+	@Test
+	public void failedSearchShouldGiveTurnBackToHumanPlayer() {
+		List<String> failures = recordTurnFailures();
+		List<Runnable> queuedTasks = new ArrayList<>();
+		AIOpponentGameMode gameMode = startGameWithPendingAITurn(playerMark -> {
+			throw new IllegalStateException("search failed");
+		}, queuedTasks::add);
+
+		queuedTasks.forEach(Runnable::run);
+
+		assertHumanPlayerMakesTurn(gameMode);
+		assertThat(failures).containsExactly("O search failed");
+	}
+
+	@Test
+	public void searchWithoutTurnPositionShouldGiveTurnBackToHumanPlayer() {
+		List<String> failures = recordTurnFailures();
+		List<Runnable> queuedTasks = new ArrayList<>();
+		AIOpponentGameMode gameMode = startGameWithPendingAITurn(playerMark -> Position.NOT_FOUND,
+				queuedTasks::add);
+
+		queuedTasks.forEach(Runnable::run);
+
+		assertHumanPlayerMakesTurn(gameMode);
+		assertThat(failures).hasSize(1);
+	}
+
+	private List<String> recordTurnFailures() {
+		List<String> failures = new ArrayList<>();
+		gameSession.addListener(new GameEventListener() {
+			@Override
+			public void invalidTurnPosition(Position position) {
+			}
+
+			@Override
+			public void turnIsMade(Position position, Mark mark) {
+			}
+
+			@Override
+			public void turnIsUndone(Position position, Mark mark) {
+			}
+
+			@Override
+			public void winnerIsFound(Mark winner, Position[] winningCombination) {
+			}
+
+			@Override
+			public void draw() {
+			}
+
+			@Override
+			public void turnIsFailed(Mark mark, String reason) {
+				failures.add(mark.name() + " " + reason);
+			}
+		});
+		return failures;
+	}
+
+	/**
+	 * Checks that the turn of the human player the AI was to reply to is undone and
+	 * the next turn is made with the mark of the human player.
+	 */
+	private void assertHumanPlayerMakesTurn(AIOpponentGameMode gameMode) {
+		assertThat(gameMode.isAwaitingPlayer()).isTrue();
+		assertThat(gameMode.getCurrentPlayer()).isEqualTo(AIOpponentGameMode.HUMAN_PLAYER);
+		assertThat(gameTable.getMoveCount()).isZero();
+
+		Position position = gameTable.getGeometry().center();
+		gameSession.processPlayerTurn(position);
+
+		assertThat(gameTable.getCellMark(position)).isEqualTo(AIOpponentGameMode.HUMAN_PLAYER);
+	}
+
+	private AIOpponentGameMode startGameWithPendingAITurn(Executor executor) {
+		return startGameWithPendingAITurn(opponent, executor);
+	}
+
+	/**
+	 * Starts the game and makes the human turn if human is to make the first one,
+	 * so that AI determines its turn.
+	 */
+	private AIOpponentGameMode startGameWithPendingAITurn(AIGameOpponent opponent, Executor executor) {
+		AIOpponentGameMode gameMode = new AIOpponentGameMode(gameSession, opponent, executor, Runnable::run);
+		gameSession.setGameMode(gameMode);
+		gameSession.startNewGame();
+		if (gameMode.isAwaitingPlayer()) {
+			gameSession.processPlayerTurn(gameTable.getGeometry().center());
+		}
+		assertThat(gameMode.isAwaitingPlayer()).isFalse();
+		return gameMode;
+	}
+
+	/**
+	 * Opponent which reads the game table until it is cancelled and for a while after
+	 * that, like a search between checks of the token, and records whether the table
+	 * has changed meanwhile.
+	 */
+	private final class SearchingOpponent implements AIGameOpponent {
+		final CountDownLatch started = new CountDownLatch(1);
+		final AtomicInteger calls = new AtomicInteger();
+		final AtomicBoolean searching = new AtomicBoolean();
+		volatile boolean tableChanged;
+
+		@Override
+		public Position determineNextTurnPositionFor(Mark playerMark) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public Position determineNextTurnPositionFor(Mark playerMark, long deadline, CancellationToken token) {
+			calls.incrementAndGet();
+			searching.set(true);
+			int markedCells = gameTable.getMarkedCellsCount();
+			started.countDown();
+			try {
+				while (!token.isCancelled()) {
+					readGameTable(markedCells);
+				}
+				long leaveTime = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(50);
+				while (System.nanoTime() - leaveTime < 0) {
+					readGameTable(markedCells);
+				}
+			} finally {
+				searching.set(false);
+			}
+			token.throwIfCancelled();
+			return Position.NOT_FOUND;
+		}
+
+		private void readGameTable(int markedCells) {
+			if (gameTable.getMarkedCellsCount() != markedCells) {
+				tableChanged = true;
+			}
+			Thread.yield();
+		}
+	}
+}
@@ -0,0 +1,188 @@
+package com.revenat.game.gomoku.domain.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import com.revenat.game.gomoku.domain.GameEventListener;
+import com.revenat.game.gomoku.domain.Mark;
+import com.revenat.game.gomoku.domain.Position;
+import com.revenat.game.gomoku.domain.impl.AsyncGameEventDispatcher.OverflowPolicy;
+
+public class AsyncGameEventDispatcherTest {
+	private static final long TIMEOUT_MILLIS = 5_000;
+
+	private final BlockingQueue<Runnable> scheduledRuns = new LinkedBlockingQueue<>();
+	private final RecordingListener target = new RecordingListener();
+
+	@Test
+	public void shouldPassEventsToTargetInOrderOfDispatch() {
+		AsyncGameEventDispatcher dispatcher = dispatcher(1024, OverflowPolicy.FAIL);
+		int events = 3 * AsyncGameEventDispatcher.MAX_EVENTS_PER_RUN + 1;
+		List<String> expected = new ArrayList<>();
+		for (int ordinal = 1; ordinal <= events; ordinal++) {
+			dispatcher.turnIsMade(Position.from(ordinal), Mark.X);
+			expected.add("turn X" + ordinal);
+		}
+		dispatcher.draw();
+		expected.add("draw");
+
+		runScheduled();
+
+		assertThat(target.events).containsExactlyElementsOf(expected);
+		assertThat(dispatcher.getPendingEventCount()).isZero();
+	}
+
+	@Test
+	public void shouldScheduleSingleRunForManyEvents() {
+		AsyncGameEventDispatcher dispatcher = dispatcher(16, OverflowPolicy.FAIL);
+
+		dispatcher.turnIsMade(Position.from(1), Mark.X);
+		dispatcher.turnIsMade(Position.from(2), Mark.O);
+		dispatcher.turnIsUndone(Position.from(2), Mark.O);
+
+		assertThat(scheduledRuns).hasSize(1);
+		assertThat(target.events).isEmpty();
+		assertThat(dispatcher.getPendingEventCount()).isEqualTo(3);
+	}
+
+	@Test
+	public void shouldKeepDispatchingAfterTargetFailure() {
+		AsyncGameEventDispatcher dispatcher = dispatcher(16, OverflowPolicy.FAIL);
+		target.failOn = "invalid 1";
+
+		dispatcher.invalidTurnPosition(Position.from(1));
+		dispatcher.turnIsMade(Position.from(2), Mark.X);
+		runScheduled();
+
+		assertThat(target.events).containsExactly("turn X2");
+	}
+
+	@Test
+	public void shouldDiscardNewEventWithDropNewestPolicyWhenBufferIsFull() {
+		AsyncGameEventDispatcher dispatcher = dispatcher(2, OverflowPolicy.DROP_NEWEST);
+
+		dispatchTurns(dispatcher, 3);
+		runScheduled();
+
+		assertThat(target.events).containsExactly("turn X1", "turn X2");
+		assertThat(dispatcher.getDroppedEventCount()).isEqualTo(1);
+	}
+
+	@Test
+	public void shouldDiscardOldestEventWithDropOldestPolicyWhenBufferIsFull() {
+		AsyncGameEventDispatcher dispatcher = dispatcher(2, OverflowPolicy.DROP_OLDEST);
+
+		dispatchTurns(dispatcher, 3);
+		runScheduled();
+
+		assertThat(target.events).containsExactly("turn X2", "turn X3");
+		assertThat(dispatcher.getDroppedEventCount()).isEqualTo(1);
+	}
+
+	@Test
+	public void shouldFailWithFailPolicyWhenBufferIsFull() {
+		AsyncGameEventDispatcher dispatcher = dispatcher(2, OverflowPolicy.FAIL);
+		dispatchTurns(dispatcher, 2);
+
+		assertThatThrownBy(() -> dispatcher.turnIsMade(Position.from(3), Mark.X))
+				.isInstanceOf(IllegalStateException.class);
+		runScheduled();
+
+		assertThat(target.events).containsExactly("turn X1", "turn X2");
+		assertThat(dispatcher.getDroppedEventCount()).isZero();
+	}
+
+	@Test
+	public void shouldWaitForSpaceWithBlockPolicyWhenBufferIsFull() throws Exception {
+		AsyncGameEventDispatcher dispatcher = dispatcher(1, OverflowPolicy.BLOCK);
+		Thread session = new Thread(() -> dispatchTurns(dispatcher, 2));
+		session.start();
+
+		awaitWaiting(session);
+		assertThat(target.events).isEmpty();
+		assertThat(dispatcher.getPendingEventCount()).isEqualTo(1);
+
+		scheduledRuns.poll(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS).run();
+		session.join(TIMEOUT_MILLIS);
+		assertThat(session.isAlive()).isFalse();
+		runScheduled();
+
+		assertThat(target.events).containsExactly("turn X1", "turn X2");
+		assertThat(dispatcher.getDroppedEventCount()).isZero();
+	}
+
+	@Test
+	public void shouldRejectNonPositiveCapacity() {
+		assertThatThrownBy(() -> dispatcher(0, OverflowPolicy.BLOCK)).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	private AsyncGameEventDispatcher dispatcher(int capacity, OverflowPolicy overflowPolicy) {
+		return new AsyncGameEventDispatcher(target, scheduledRuns::add, capacity, overflowPolicy);
+	}
+
+	private static void dispatchTurns(AsyncGameEventDispatcher dispatcher, int turns) {
+		for (int ordinal = 1; ordinal <= turns; ordinal++) {
+			dispatcher.turnIsMade(Position.from(ordinal), Mark.X);
+		}
+	}
+
+	private void runScheduled() {
+		Runnable run;
+		while ((run = scheduledRuns.poll()) != null) {
+			run.run();
+		}
+	}
+
+	private static void awaitWaiting(Thread thread) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+		while (thread.getState() != Thread.State.WAITING) {
+			assertThat(System.currentTimeMillis()).isLessThan(deadline);
+			TimeUnit.MILLISECONDS.sleep(1);
+		}
+	}
+
+	private static class RecordingListener implements GameEventListener {
+		final List<String> events = new ArrayList<>();
+		String failOn;
+
+		private void record(String event) {
+			if (event.equals(failOn)) {
+				throw new IllegalStateException("Failure on " + event);
+			}
+			events.add(event);
+		}
+
+		@Override
+		public void invalidTurnPosition(Position position) {
+			record("invalid " + position.ordinal());
+		}
+
+		@Override
+		public void turnIsMade(Position position, Mark mark) {
+			record("turn " + mark.name() + position.ordinal());
+		}
+
+		@Override
+		public void turnIsUndone(Position position, Mark mark) {
+			record("undone " + mark.name() + position.ordinal());
+		}
+
+		@Override
+		public void winnerIsFound(Mark winner, Position[] winningCombination) {
+			record("winner " + winner.name());
+		}
+
+		@Override
+		public void draw() {
+			record("draw");
+		}
+	}
+}
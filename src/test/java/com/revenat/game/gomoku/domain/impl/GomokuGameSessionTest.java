@@ -0,0 +1,90 @@
+package com.revenat.game.gomoku.domain.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.revenat.game.gomoku.domain.GameEventListener;
+import com.revenat.game.gomoku.domain.GameMode;
+import com.revenat.game.gomoku.domain.GameTable;
+import com.revenat.game.gomoku.domain.Mark;
+import com.revenat.game.gomoku.domain.Position;
+
+public class GomokuGameSessionTest {
+	private GameTable table;
+	private GomokuGameSession session;
+	private GameMode gameMode;
+	private final List<Position> madeTurns = new ArrayList<>();
+
+	@Before
+	public void setUp() {
+		table = new BitboardGameTable();
+		session = new GomokuGameSession(table, new IncrementalGomokuGameArbiter(table));
+		gameMode = new PlayerOpponentGameMode();
+		session.setGameMode(gameMode);
+		session.startNewGame();
+	}
+
+	@Test
+	public void shouldCompleteTurnWhenListenerFails() {
+		session.addListener(new FailingListener());
+		session.addListener(new TurnRecorder());
+
+		session.processPlayerTurn(Position.from(7, 7));
+		session.processPlayerTurn(Position.from(7, 8));
+
+		assertThat(madeTurns).containsExactly(Position.from(7, 7), Position.from(7, 8));
+		assertThat(table.getCellMark(Position.from(7, 8))).isEqualTo(Mark.O);
+		assertThat(gameMode.getCurrentPlayer()).isEqualTo(Mark.X);
+	}
+
+	@Test
+	public void shouldCompleteTurnWhenDispatcherBufferOverflows() {
+		session.addListener(new AsyncGameEventDispatcher(new TurnRecorder(), run -> {
+		}, 1, AsyncGameEventDispatcher.OverflowPolicy.FAIL));
+
+		session.processPlayerTurn(Position.from(7, 7));
+		session.processPlayerTurn(Position.from(7, 8));
+
+		assertThat(table.getMoveCount()).isEqualTo(2);
+		assertThat(gameMode.getCurrentPlayer()).isEqualTo(Mark.X);
+	}
+
+	private class TurnRecorder extends FailingListener {
+		@Override
+		public void turnIsMade(Position position, Mark mark) {
+			madeTurns.add(position);
+		}
+	}
+
+	private static class FailingListener implements GameEventListener {
+		@Override
+		public void invalidTurnPosition(Position position) {
+			throw new IllegalStateException("Listener failure");
+		}
+
+		@Override
+		public void turnIsMade(Position position, Mark mark) {
+			throw new IllegalStateException("Listener failure");
+		}
+
+		@Override
+		public void turnIsUndone(Position position, Mark mark) {
+			throw new IllegalStateException("Listener failure");
+		}
+
+		@Override
+		public void winnerIsFound(Mark winner, Position[] winningCombination) {
+			throw new IllegalStateException("Listener failure");
+		}
+
+		@Override
+		public void draw() {
+			throw new IllegalStateException("Listener failure");
+		}
+	}
+}
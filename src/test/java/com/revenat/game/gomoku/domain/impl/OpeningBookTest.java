@@ -0,0 +1,133 @@
+package com.revenat.game.gomoku.domain.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.revenat.game.gomoku.domain.BoardGeometry;
+import com.revenat.game.gomoku.domain.BoardSymmetry;
+import com.revenat.game.gomoku.domain.GameTable;
+import com.revenat.game.gomoku.domain.Mark;
+import com.revenat.game.gomoku.domain.Position;
+
+public class OpeningBookTest {
+	private static final BoardGeometry GEOMETRY = BoardGeometry.STANDARD;
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private Path bookFile;
+
+	@Before
+	public void setUp() throws IOException {
+		bookFile = folder.newFile("book.bin").toPath();
+	}
+
+	@Test
+	public void shouldReadWrittenEntries() throws IOException {
+		long[] keys = {-42L, 7L, 1L << 40};
+		OpeningBook.write(bookFile, GEOMETRY, 6, keys, new int[] {1, 113, 225}, new int[] {3, 5, 100_000});
+
+		OpeningBook book = OpeningBook.open(bookFile);
+
+		assertThat(book.size()).isEqualTo(3);
+		assertThat(book.getGeometry()).isSameAs(GEOMETRY);
+		assertThat(book.getMaxMarkedCells()).isEqualTo(6);
+		assertThat(book.weightOf(-42L)).isEqualTo(3);
+		assertThat(book.weightOf(7L)).isEqualTo(5);
+		assertThat(book.weightOf(1L << 40)).isEqualTo(Short.MAX_VALUE);
+		assertThat(book.weightOf(8L)).isZero();
+	}
+
+	@Test
+	public void shouldReturnSameInstanceForSameFile() throws IOException {
+		OpeningBook.write(bookFile, GEOMETRY, 6, new long[0], new int[0], new int[0]);
+
+		assertThat(OpeningBook.open(bookFile)).isSameAs(OpeningBook.open(bookFile));
+	}
+
+	@Test
+	public void shouldFindMoveOfSymmetricPositionMappedBack() throws IOException {
+		GameTable table = tableWith(GEOMETRY.position(7, 7), GEOMETRY.position(6, 8));
+		Position move = GEOMETRY.position(5, 9);
+		writeBook(table, Mark.X, move);
+		OpeningBook book = OpeningBook.open(bookFile);
+
+		for (BoardSymmetry symmetry : BoardSymmetry.applicableTo(GEOMETRY)) {
+			GameTable symmetricTable = tableWith(symmetry.apply(GEOMETRY, GEOMETRY.position(7, 7)),
+					symmetry.apply(GEOMETRY, GEOMETRY.position(6, 8)));
+
+			assertThat(book.lookup(symmetricTable, Mark.X)).as("%s", symmetry)
+					.isSameAs(symmetry.apply(GEOMETRY, move));
+		}
+	}
+
+	@Test
+	public void shouldNotFindMoveOfOtherPlayer() throws IOException {
+		GameTable table = tableWith(GEOMETRY.position(7, 7), GEOMETRY.position(6, 8));
+		writeBook(table, Mark.X, GEOMETRY.position(5, 9));
+
+		assertThat(OpeningBook.open(bookFile).lookup(table, Mark.O)).isSameAs(Position.NOT_FOUND);
+	}
+
+	@Test
+	public void shouldNotFindPositionWithMoreMarkedCellsThanInBook() throws IOException {
+		GameTable table = tableWith(GEOMETRY.position(7, 7), GEOMETRY.position(6, 8));
+		OpeningBook.write(bookFile, GEOMETRY, 1, new long[] {OpeningBook.keyOf(table, Mark.X)},
+				new int[] {OpeningBook.canonicalMoveOf(table, GEOMETRY.position(5, 9).ordinal())}, new int[] {1});
+
+		assertThat(OpeningBook.open(bookFile).lookup(table, Mark.X)).isSameAs(Position.NOT_FOUND);
+	}
+
+	@Test
+	public void shouldGiveSameCanonicalMoveToMovesEquivalentBySymmetryOfPosition() {
+		GameTable table = tableWith(GEOMETRY.center());
+
+		int orthogonal = OpeningBook.canonicalMoveOf(table, GEOMETRY.position(6, 7).ordinal());
+		int diagonal = OpeningBook.canonicalMoveOf(table, GEOMETRY.position(6, 6).ordinal());
+
+		assertThat(OpeningBook.canonicalMoveOf(table, GEOMETRY.position(7, 8).ordinal())).isEqualTo(orthogonal);
+		assertThat(OpeningBook.canonicalMoveOf(table, GEOMETRY.position(8, 7).ordinal())).isEqualTo(orthogonal);
+		assertThat(OpeningBook.canonicalMoveOf(table, GEOMETRY.position(7, 6).ordinal())).isEqualTo(orthogonal);
+		assertThat(OpeningBook.canonicalMoveOf(table, GEOMETRY.position(8, 8).ordinal())).isEqualTo(diagonal);
+		assertThat(diagonal).isNotEqualTo(orthogonal);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void shouldNotWriteUnsortedKeys() throws IOException {
+		OpeningBook.write(bookFile, GEOMETRY, 6, new long[] {2L, 1L}, new int[] {1, 1}, new int[] {1, 1});
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void shouldNotOpenFileOtherThanBook() throws IOException {
+		Files.write(bookFile, new byte[64]);
+
+		OpeningBook.open(bookFile);
+	}
+
+	private void writeBook(GameTable table, Mark player, Position move) throws IOException {
+		OpeningBook.write(bookFile, GEOMETRY, table.getMarkedCellsCount(),
+				new long[] {OpeningBook.keyOf(table, player)},
+				new int[] {OpeningBook.canonicalMoveOf(table, move.ordinal())}, new int[] {1});
+	}
+
+	/**
+	 * Returns table with specified positions marked alternately by X and O.
+	 */
+	private static GameTable tableWith(Position... positions) {
+		GameTable table = new BitboardGameTable(GEOMETRY);
+		Mark mark = Mark.X;
+		for (Position position : positions) {
+			table.markCellAt(position, mark);
+			mark = mark.getOpponent();
+		}
+		return table;
+	}
+}
@@ -0,0 +1,229 @@
+package com.revenat.game.gomoku.domain.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.revenat.game.gomoku.domain.BoardGeometry;
+import com.revenat.game.gomoku.domain.GameTable;
+import com.revenat.game.gomoku.domain.LineDirection;
+import com.revenat.game.gomoku.domain.Mark;
+import com.revenat.game.gomoku.domain.Position;
+
+public class PatternEvaluatorTest {
+	private static final BoardGeometry GEOMETRY = BoardGeometry.STANDARD;
+	private static final int FIVE_SCORE = 1_000_000;
+	private static final int[] OPEN_SCORES_BY_LACKING = {100_000, 5_000, 200, 10};
+	private static final int[] CLOSED_SCORES_BY_LACKING = {10_000, 200, 10, 1};
+
+	private GameTable gameTable;
+	private PatternEvaluator evaluator;
+
+	@Before
+	public void setUp() {
+		gameTable = new BitboardGameTable(GEOMETRY);
+		evaluator = new PatternEvaluator(GEOMETRY);
+	}
+
+	@Test
+	public void shouldScoreEmptyTableAsZero() {
+		assertThat(evaluator.evaluate(Mark.X)).isZero();
+		assertThat(evaluator.evaluate(Mark.O)).isZero();
+	}
+
+	@Test
+	public void shouldScoreOpenFourAboveClosedFourAboveOpenThree() {
+		int openFour = scoreOfRowShape(Mark.X, 5, 6, 7, 8);
+		int fourClosedByWall = scoreOfRowShape(Mark.X, 0, 1, 2, 3);
+		int fourClosedByOpponent = scoreOfRowShape(Mark.X, -4, 5, 6, 7, 8);
+		int openThree = scoreOfRowShape(Mark.X, 5, 6, 7);
+
+		assertThat(openFour).isGreaterThan(fourClosedByWall).isGreaterThan(fourClosedByOpponent);
+		assertThat(fourClosedByWall).isGreaterThan(openThree);
+		assertThat(fourClosedByOpponent).isGreaterThan(openThree);
+	}
+
+	@Test
+	public void shouldScoreWindowWithMarksOfBothPlayersAsZero() {
+		BoardGeometry geometry = BoardGeometry.of(5, 5, 5);
+		evaluator = new PatternEvaluator(geometry);
+		// single mark in a line of five is a closed one in both windows of the line
+		evaluator.makeTurn(geometry.position(0, 0).ordinal(), Mark.X);
+		assertThat(evaluator.evaluate(Mark.X)).as("row, column and diagonal of X").isEqualTo(3 * 2);
+
+		evaluator.makeTurn(geometry.position(0, 1).ordinal(), Mark.O);
+
+		assertThat(evaluator.evaluate(Mark.X)).as("column and diagonal of X, column of O").isEqualTo(2 + 2 - 2);
+	}
+
+	@Test
+	public void shouldScoreFiveAsWin() {
+		for (int column = 3; column < 8; column++) {
+			evaluator.makeTurn(Position.from(7, column).ordinal(), Mark.O);
+		}
+
+		assertThat(evaluator.evaluate(Mark.O)).isGreaterThanOrEqualTo(FIVE_SCORE);
+	}
+
+	@Test
+	public void shouldReturnToOriginalScoreWhenTurnsAreUndone() {
+		Random random = new Random(2);
+		makeTurns(random, 10);
+		int originalScore = evaluator.evaluate(Mark.X);
+
+		int[] turns = makeTurns(random, 30);
+		for (int i = turns.length - 1; i >= 0; i--) {
+			evaluator.undoTurn(turns[i], markOfTurn(10 + i));
+			gameTable.markCellAt(turns[i], Mark.EMPTY);
+		}
+
+		assertThat(evaluator.evaluate(Mark.X)).isEqualTo(originalScore);
+	}
+
+	@Test
+	public void shouldMatchScanOfTheLinesAfterEveryTurn() {
+		Random random = new Random(3);
+		for (int turn = 0; turn < 60; turn++) {
+			makeTurn(random, turn);
+
+			assertThat(evaluator.evaluate(Mark.X)).as("score after turn %d", turn).isEqualTo(scanLines(gameTable))
+					.isEqualTo(-evaluator.evaluate(Mark.O));
+		}
+	}
+
+	@Test
+	public void shouldMatchScanOfTheLinesOnSmallTableWithLongerWinningLength() {
+		BoardGeometry geometry = BoardGeometry.of(9, 11, 6);
+		gameTable = new BitboardGameTable(geometry);
+		evaluator = new PatternEvaluator(geometry);
+		Random random = new Random(4);
+		for (int turn = 0; turn < 40; turn++) {
+			makeTurn(random, turn);
+
+			assertThat(evaluator.evaluate(Mark.X)).as("score after turn %d", turn).isEqualTo(scanLines(gameTable));
+		}
+	}
+
+	@Test
+	public void copiedGameTableShouldMatchScanOfTheLines() {
+		makeTurns(new Random(5), 50);
+		PatternEvaluator copy = new PatternEvaluator(GEOMETRY);
+
+		copy.copyGameTable(gameTable);
+
+		assertThat(copy.evaluate(Mark.X)).isEqualTo(scanLines(gameTable));
+	}
+
+	/**
+	 * Returns score of the marks in row 7 of the standard table from the point of view
+	 * of the specified player, negative column marks the cell with the opponent mark.
+	 */
+	private static int scoreOfRowShape(Mark player, int... columns) {
+		PatternEvaluator shapeEvaluator = new PatternEvaluator(GEOMETRY);
+		for (int column : columns) {
+			Mark mark = column >= 0 ? player : player.getOpponent();
+			shapeEvaluator.makeTurn(Position.from(7, Math.abs(column)).ordinal(), mark);
+		}
+		return shapeEvaluator.evaluate(player);
+	}
+
+	/**
+	 * Scores the table from the point of view of {@link Mark#X} by scanning every
+	 * window of the winning length plus one cells of every line, including windows
+	 * sticking one cell out of the table.
+	 */
+	private static int scanLines(GameTable table) {
+		BoardGeometry geometry = table.getGeometry();
+		int winLength = geometry.winLength();
+		int score = 0;
+		for (LineDirection direction : LineDirection.values()) {
+			int rowStep = direction.rowIncrement();
+			int columnStep = direction.columnIncrement();
+			for (int row = 0; row < geometry.rows(); row++) {
+				for (int column = 0; column < geometry.columns(); column++) {
+					if (geometry.contains(row - rowStep, column - columnStep)) {
+						continue;
+					}
+					int length = 0;
+					while (geometry.contains(row + length * rowStep, column + length * columnStep)) {
+						length++;
+					}
+					for (int start = -1; start <= length - winLength; start++) {
+						Mark[] window = new Mark[winLength + 1];
+						for (int i = 0; i < window.length; i++) {
+							int offset = start + i;
+							window[i] = offset < 0 || offset >= length ? null
+									: table.getCellMark(geometry.position(row + offset * rowStep,
+											column + offset * columnStep));
+						}
+						score += scoreWindow(window, Mark.X) - scoreWindow(window, Mark.O);
+					}
+				}
+			}
+		}
+		return score;
+	}
+
+	/**
+	 * Scores window for the player by the better of its two segments of the winning
+	 * length which have no opponent marks and walls, marked as {@code null}. Window is
+	 * open if both segments are such and both its end cells are empty.
+	 */
+	private static int scoreWindow(Mark[] window, Mark player) {
+		int winLength = window.length - 1;
+		int best = 0;
+		int freeSegments = 0;
+		for (int from = 0; from <= 1; from++) {
+			int count = 0;
+			boolean blocked = false;
+			for (int i = from; i < from + winLength; i++) {
+				if (window[i] == player) {
+					count++;
+				} else if (window[i] != Mark.EMPTY) {
+					blocked = true;
+				}
+			}
+			if (!blocked) {
+				freeSegments++;
+				best = Math.max(best, count);
+			}
+		}
+		if (best == winLength) {
+			return FIVE_SCORE;
+		}
+		if (best == 0) {
+			return 0;
+		}
+		boolean open = freeSegments == 2 && window[0] == Mark.EMPTY && window[winLength] == Mark.EMPTY;
+		int[] scores = open ? OPEN_SCORES_BY_LACKING : CLOSED_SCORES_BY_LACKING;
+		int lacking = winLength - best;
+		return lacking > scores.length ? 0 : scores[lacking - 1];
+	}
+
+	private int[] makeTurns(Random random, int count) {
+		int[] turns = new int[count];
+		int firstTurn = gameTable.getMarkedCellsCount();
+		for (int i = 0; i < count; i++) {
+			turns[i] = makeTurn(random, firstTurn + i);
+		}
+		return turns;
+	}
+
+	private int makeTurn(Random random, int turn) {
+		int ordinal;
+		do {
+			ordinal = 1 + random.nextInt(gameTable.getGeometry().totalCells());
+		} while (!gameTable.isCellEmpty(ordinal));
+		Mark mark = markOfTurn(turn);
+		evaluator.makeTurn(ordinal, mark);
+		gameTable.markCellAt(ordinal, mark);
+		return ordinal;
+	}
+
+	private static Mark markOfTurn(int turn) {
+		return turn % 2 == 0 ? Mark.X : Mark.O;
+	}
+}
@@ -0,0 +1,166 @@
+package com.revenat.game.gomoku.infra;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.EventListener;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+public class ConcurrentAnnouncerTest {
+	private final ConcurrentAnnouncer<Listener> announcer = new ConcurrentAnnouncer<>();
+	private final List<String> notifications = new ArrayList<>();
+
+	@Test
+	public void shouldAnnounceEventToListenersInOrderOfAddition() {
+		announcer.addListener(new RecordingListener("first"));
+		announcer.addListener(new RecordingListener("second"));
+
+		announcer.announce(listener -> listener.event("e"));
+
+		assertThat(notifications).containsExactly("first e", "second e");
+	}
+
+	@Test
+	public void shouldNotAnnounceEventToRemovedListener() {
+		RecordingListener first = new RecordingListener("first");
+		announcer.addListener(first);
+		announcer.addListener(new RecordingListener("second"));
+
+		assertThat(announcer.removeListener(first)).isTrue();
+		announcer.announce(listener -> listener.event("e"));
+
+		assertThat(notifications).containsExactly("second e");
+		assertThat(announcer.size()).isEqualTo(1);
+	}
+
+	@Test
+	public void shouldNotRemoveAbsentListener() {
+		announcer.addListener(new RecordingListener("first"));
+
+		assertThat(announcer.removeListener(new RecordingListener("second"))).isFalse();
+		assertThat(announcer.size()).isEqualTo(1);
+	}
+
+	@Test
+	public void shouldNotAddNullListener() {
+		assertThatThrownBy(() -> announcer.addListener(null)).isInstanceOf(NullPointerException.class);
+	}
+
+	@Test
+	public void listenerAddedDuringAnnouncementShouldBeNotifiedOfNextEventsOnly() {
+		RecordingListener added = new RecordingListener("added");
+		announcer.addListener(new RecordingListener("first") {
+			@Override
+			public void event(String name) {
+				super.event(name);
+				if (name.equals("e1")) {
+					announcer.addListener(added);
+				}
+			}
+		});
+
+		announcer.announce(listener -> listener.event("e1"));
+		announcer.announce(listener -> listener.event("e2"));
+
+		assertThat(notifications).containsExactly("first e1", "first e2", "added e2");
+	}
+
+	@Test
+	public void listenerRemovedDuringAnnouncementShouldBeNotifiedOfThatEvent() {
+		RecordingListener removed = new RecordingListener("removed");
+		announcer.addListener(new RecordingListener("first") {
+			@Override
+			public void event(String name) {
+				super.event(name);
+				announcer.removeListener(removed);
+			}
+		});
+		announcer.addListener(removed);
+
+		announcer.announce(listener -> listener.event("e1"));
+		announcer.announce(listener -> listener.event("e2"));
+
+		assertThat(notifications).containsExactly("first e1", "removed e1", "first e2");
+	}
+
+	@Test
+	public void shouldKeepEveryListenerAddedAndRemovedConcurrently() throws Exception {
+		int threads = 4;
+		int listenersPerThread = 1_000;
+		ConcurrentAnnouncer<Listener> shared = new ConcurrentAnnouncer<>();
+		List<Listener> kept = new ArrayList<>();
+		ExecutorService executor = Executors.newFixedThreadPool(threads + 1);
+		CountDownLatch start = new CountDownLatch(1);
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (int t = 0; t < threads; t++) {
+				List<Listener> keptByThread = new ArrayList<>();
+				kept.addAll(createListeners(keptByThread, listenersPerThread));
+				futures.add(executor.submit(() -> {
+					start.await();
+					for (Listener listener : keptByThread) {
+						Listener temporary = name -> {
+						};
+						shared.addListener(temporary);
+						shared.addListener(listener);
+						assertThat(shared.removeListener(temporary)).isTrue();
+					}
+					return null;
+				}));
+			}
+			futures.add(executor.submit(() -> {
+				start.await();
+				for (int i = 0; i < listenersPerThread; i++) {
+					shared.announce(listener -> listener.event("e"));
+				}
+				return null;
+			}));
+			start.countDown();
+			for (Future<?> future : futures) {
+				future.get(30, TimeUnit.SECONDS);
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+
+		assertThat(shared.size()).isEqualTo(kept.size());
+		for (Listener listener : kept) {
+			assertThat(shared.removeListener(listener)).isTrue();
+		}
+		assertThat(shared.size()).isZero();
+	}
+
+	private static List<Listener> createListeners(List<Listener> listeners, int count) {
+		for (int i = 0; i < count; i++) {
+			listeners.add(name -> {
+			});
+		}
+		return listeners;
+	}
+
+	@FunctionalInterface
+	interface Listener extends EventListener {
+		void event(String name);
+	}
+
+	private class RecordingListener implements Listener {
+		private final String id;
+
+		RecordingListener(String id) {
+			this.id = id;
+		}
+
+		@Override
+		public void event(String name) {
+			notifications.add(id + " " + name);
+		}
+	}
+}
@@ -0,0 +1,107 @@
+package com.revenat.game.gomoku.net;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.revenat.game.gomoku.domain.impl.DefaultGomokuAIGameOpponent;
+import com.revenat.game.gomoku.server.GameServer;
+
+public class ClientConnectionTest {
+	private static final int TIMEOUT_MILLIS = 5_000;
+
+	private ExecutorService gameExecutor;
+	private ExecutorService aiExecutor;
+	private GameServer gameServer;
+	private GameNetServer netServer;
+	private Socket socket;
+	private OutputStream output;
+	private BufferedReader input;
+
+	@Before
+	public void setUp() throws IOException {
+		gameExecutor = Executors.newSingleThreadExecutor();
+		aiExecutor = Executors.newSingleThreadExecutor();
+		gameServer = new GameServer(gameExecutor, aiExecutor, DefaultGomokuAIGameOpponent::new, 1_000,
+				TimeUnit.MINUTES.toMillis(1));
+		netServer = new GameNetServer(gameServer, new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+		netServer.start();
+		socket = new Socket(InetAddress.getLoopbackAddress(), netServer.getLocalPort());
+		socket.setSoTimeout(TIMEOUT_MILLIS);
+		socket.setTcpNoDelay(true);
+		output = socket.getOutputStream();
+		input = new BufferedReader(new InputStreamReader(socket.getInputStream(), GameProtocol.CHARSET));
+	}
+
+	@After
+	public void tearDown() throws IOException {
+		socket.close();
+		netServer.close();
+		gameServer.close();
+		gameExecutor.shutdownNow();
+		aiExecutor.shutdownNow();
+	}
+
+	@Test
+	public void shouldExecuteCommandSplitAcrossReads() throws Exception {
+		write("NEW PLA");
+		write("YERS\n");
+
+		assertThat(input.readLine()).isEqualTo("GAME 1 X");
+	}
+
+	@Test
+	public void shouldExecuteEveryCommandOfTheRead() throws Exception {
+		write("NEW PLAYERS\n");
+		assertThat(input.readLine()).isEqualTo("GAME 1 X");
+
+		write("MOVE 7 7\nMOVE 7 8\r\nMO");
+		write("VE 7 9\n");
+
+		assertThat(input.readLine()).isEqualTo("TURN X 7 7");
+		assertThat(input.readLine()).isEqualTo("TURN O 7 8");
+		assertThat(input.readLine()).isEqualTo("TURN X 7 9");
+	}
+
+	@Test
+	public void shouldReportErrorAndKeepConnectionOnInvalidCommand() throws Exception {
+		write("JUMP\n");
+		assertThat(input.readLine()).startsWith(GameProtocol.ERROR);
+
+		write("NEW PLAYERS\n");
+		assertThat(input.readLine()).isEqualTo("GAME 1 X");
+	}
+
+	@Test
+	public void shouldReportErrorAndDisconnectOnTooLongLine() throws Exception {
+		StringBuilder line = new StringBuilder(GameProtocol.MOVE);
+		while (line.length() <= GameProtocol.MAX_LINE_LENGTH) {
+			line.append(" 7");
+		}
+		write(line.substring(0, 100));
+		write(line.substring(100) + "\n");
+
+		assertThat(input.readLine()).startsWith(GameProtocol.ERROR);
+		assertThat(input.readLine()).isNull();
+	}
+
+	private void write(String data) throws IOException, InterruptedException {
+		output.write(data.getBytes(GameProtocol.CHARSET));
+		output.flush();
+		// give the server time to read the data separately from the next write
+		TimeUnit.MILLISECONDS.sleep(50);
+	}
+}
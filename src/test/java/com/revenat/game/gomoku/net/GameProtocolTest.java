@@ -0,0 +1,57 @@
+package com.revenat.game.gomoku.net;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import com.revenat.game.gomoku.domain.BoardGeometry;
+import com.revenat.game.gomoku.domain.Mark;
+import com.revenat.game.gomoku.domain.Position;
+
+public class GameProtocolTest {
+
+	@Test
+	public void shouldPutErrorMessageOnSingleLine() {
+		assertThat(GameProtocol.error("first\r\nsecond")).isEqualTo("ERROR first  second");
+	}
+
+	@Test
+	public void shouldCutTooLongErrorMessageToFitLine() {
+		char[] message = new char[2 * GameProtocol.MAX_LINE_LENGTH];
+		Arrays.fill(message, 'a');
+
+		String line = GameProtocol.error(new String(message));
+
+		assertThat(line).hasSize(GameProtocol.MAX_LINE_LENGTH).startsWith("ERROR aaa").endsWith("a...");
+	}
+
+	@Test
+	public void shouldKeepErrorMessageWhichFitsLine() {
+		char[] message = new char[GameProtocol.MAX_LINE_LENGTH - "ERROR ".length()];
+		Arrays.fill(message, 'a');
+
+		assertThat(GameProtocol.error(new String(message))).hasSize(GameProtocol.MAX_LINE_LENGTH).doesNotEndWith("...");
+	}
+
+	@Test
+	public void shouldListWinningCombination() {
+		Position[] combination = { Position.from(7, 7), Position.from(8, 8) };
+
+		assertThat(GameProtocol.win(Mark.O, combination)).isEqualTo("WIN O 7 7 8 8");
+	}
+
+	@Test
+	public void shouldRejectWinningCombinationWhichDoesNotFitLine() {
+		BoardGeometry geometry = BoardGeometry.STANDARD;
+		Position[] combination = new Position[geometry.totalCells()];
+		for (int i = 0; i < combination.length; i++) {
+			combination[i] = geometry.position(i + 1);
+		}
+
+		assertThatThrownBy(() -> GameProtocol.win(Mark.X, combination))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+}
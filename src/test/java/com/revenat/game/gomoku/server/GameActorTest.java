@@ -0,0 +1,57 @@
+package com.revenat.game.gomoku.server;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.Test;
+
+public class GameActorTest {
+	private final List<Runnable> scheduledRuns = new ArrayList<>();
+
+	@Test
+	public void shouldRunTasksInOrderOfExecutionInSingleScheduledRun() {
+		GameActor actor = new GameActor(scheduledRuns::add);
+		List<Integer> runs = new ArrayList<>();
+		for (int i = 0; i < 10; i++) {
+			int task = i;
+			actor.execute(() -> runs.add(task));
+		}
+
+		assertThat(scheduledRuns).hasSize(1);
+		runScheduled();
+
+		assertThat(runs).containsExactly(0, 1, 2, 3, 4, 5, 6, 7, 8, 9);
+	}
+
+	@Test
+	public void closedActorShouldRejectTasks() {
+		GameActor actor = new GameActor(Runnable::run);
+		actor.close();
+
+		assertThatThrownBy(() -> actor.execute(() -> {
+		})).isInstanceOf(RejectedExecutionException.class);
+	}
+
+	@Test
+	public void closedActorShouldRunTasksSubmittedBeforeClose() {
+		GameActor actor = new GameActor(scheduledRuns::add);
+		AtomicBoolean run = new AtomicBoolean();
+		actor.execute(() -> run.set(true));
+		actor.close();
+
+		runScheduled();
+
+		assertThat(run).isTrue();
+	}
+
+	private void runScheduled() {
+		while (!scheduledRuns.isEmpty()) {
+			scheduledRuns.remove(0).run();
+		}
+	}
+}
@@ -0,0 +1,93 @@
+package com.revenat.game.gomoku.server;
+
+import static com.revenat.game.gomoku.server.HostedGameTest.assertFailsWithGameNotFound;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.revenat.game.gomoku.domain.GameMode;
+import com.revenat.game.gomoku.domain.GameSession;
+import com.revenat.game.gomoku.domain.GameTable;
+import com.revenat.game.gomoku.domain.impl.BitboardGameTable;
+import com.revenat.game.gomoku.domain.impl.GomokuGameSession;
+import com.revenat.game.gomoku.domain.impl.IncrementalGomokuGameArbiter;
+import com.revenat.game.gomoku.domain.impl.PlayerOpponentGameMode;
+
+public class GameLoopTest {
+	private static final long GAME_ID = 42;
+
+	private final GameLoop loop = new GameLoop();
+	private GameSession session;
+	private GameMode gameMode;
+
+	@Before
+	public void setUp() {
+		GameTable table = new BitboardGameTable();
+		session = new GomokuGameSession(table, new IncrementalGomokuGameArbiter(table));
+		gameMode = new PlayerOpponentGameMode();
+		session.setGameMode(gameMode);
+	}
+
+	@Test
+	public void shouldRunTasksInOrderOfExecution() throws InterruptedException {
+		List<Integer> runs = new ArrayList<>();
+		for (int i = 0; i < 10; i++) {
+			int task = i;
+			loop.execute(() -> runs.add(task));
+		}
+		loop.close();
+
+		runUntilStopped();
+
+		assertThat(runs).containsExactly(0, 1, 2, 3, 4, 5, 6, 7, 8, 9);
+	}
+
+	@Test
+	public void closedLoopShouldRunTasksQueuedBeforeCloseAndRejectNewOnes() throws InterruptedException {
+		AtomicBoolean run = new AtomicBoolean();
+		loop.execute(() -> run.set(true));
+		loop.close();
+
+		assertThatThrownBy(() -> loop.execute(() -> {
+		})).isInstanceOf(RejectedExecutionException.class);
+		runUntilStopped();
+		assertThat(run).isTrue();
+	}
+
+	@Test
+	public void requestToClosedGameShouldFailWithGameNotFound() {
+		HostedGame game = new HostedGame(GAME_ID, loop, session, gameMode);
+		game.close();
+
+		assertFailsWithGameNotFound(game.submit(() -> "result"));
+	}
+
+	@Test
+	public void requestRacingWithCloseShouldFailWithGameNotFound() throws InterruptedException {
+		HostedGame game = new HostedGame(GAME_ID, loop, session, gameMode);
+		AtomicBoolean run = new AtomicBoolean();
+		CompletableFuture<Boolean> request = game.submit(() -> run.getAndSet(true));
+		game.close();
+
+		runUntilStopped();
+
+		assertFailsWithGameNotFound(request);
+		assertThat(run).isFalse();
+	}
+
+	private void runUntilStopped() throws InterruptedException {
+		Thread thread = new Thread(loop);
+		thread.start();
+		thread.join(TimeUnit.SECONDS.toMillis(5));
+		assertThat(thread.isAlive()).isFalse();
+	}
+}
@@ -0,0 +1,182 @@
+package com.revenat.game.gomoku.server;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.revenat.game.gomoku.domain.AIGameOpponent;
+import com.revenat.game.gomoku.domain.CancellationToken;
+import com.revenat.game.gomoku.domain.GameEventListener;
+import com.revenat.game.gomoku.domain.GameMode;
+import com.revenat.game.gomoku.domain.GameSession;
+import com.revenat.game.gomoku.domain.GameTable;
+import com.revenat.game.gomoku.domain.Mark;
+import com.revenat.game.gomoku.domain.Position;
+import com.revenat.game.gomoku.domain.impl.AIOpponentGameMode;
+import com.revenat.game.gomoku.domain.impl.BitboardGameTable;
+import com.revenat.game.gomoku.domain.impl.GomokuGameSession;
+import com.revenat.game.gomoku.domain.impl.IncrementalGomokuGameArbiter;
+import com.revenat.game.gomoku.domain.impl.PlayerOpponentGameMode;
+
+public class HostedGameTest {
+	private static final long GAME_ID = 42;
+
+	private final List<Runnable> scheduledRuns = new ArrayList<>();
+	private GameSession session;
+	private GameMode gameMode;
+
+	@Before
+	public void setUp() {
+		GameTable table = new BitboardGameTable();
+		session = new GomokuGameSession(table, new IncrementalGomokuGameArbiter(table));
+		gameMode = new PlayerOpponentGameMode();
+		session.setGameMode(gameMode);
+	}
+
+	@Test
+	public void shouldCompleteFutureWithResultOfAction() throws Exception {
+		HostedGame game = new HostedGame(GAME_ID, new GameActor(Runnable::run), session, gameMode);
+
+		assertThat(game.submit(() -> "result").get()).isEqualTo("result");
+	}
+
+	@Test
+	public void requestToClosedGameShouldFailWithGameNotFound() {
+		HostedGame game = new HostedGame(GAME_ID, new GameActor(Runnable::run), session, gameMode);
+		game.close();
+
+		assertFailsWithGameNotFound(game.submit(() -> "result"));
+	}
+
+	@Test
+	public void requestRacingWithCloseShouldFailWithGameNotFound() {
+		HostedGame game = new HostedGame(GAME_ID, new GameActor(scheduledRuns::add), session, gameMode);
+		AtomicBoolean run = new AtomicBoolean();
+		CompletableFuture<Boolean> request = game.submit(() -> run.getAndSet(true));
+		game.close();
+
+		runScheduled();
+
+		assertFailsWithGameNotFound(request);
+		assertThat(run).isFalse();
+	}
+
+	@Test
+	public void closeShouldStopAISearchWithoutUndoingTurnsOrWaitingForIt() throws InterruptedException {
+		GameTable table = new BitboardGameTable();
+		GameSession aiSession = new GomokuGameSession(table, new IncrementalGomokuGameArbiter(table));
+		StoppingOpponent opponent = new StoppingOpponent();
+		ExecutorService searchExecutor = Executors.newSingleThreadExecutor();
+		try {
+			AIOpponentGameMode aiGameMode = new AIOpponentGameMode(aiSession, opponent, searchExecutor,
+					Runnable::run);
+			aiSession.setGameMode(aiGameMode);
+			List<Position> undoneTurns = new ArrayList<>();
+			aiSession.addListener(new UndoRecorder(undoneTurns));
+			aiSession.startNewGame();
+			if (aiGameMode.isAwaitingPlayer()) {
+				aiSession.processPlayerTurn(table.getGeometry().center());
+			}
+			int moveCount = table.getMoveCount();
+			assertThat(opponent.started.await(5, TimeUnit.SECONDS)).isTrue();
+			HostedGame game = new HostedGame(GAME_ID, new GameActor(Runnable::run), aiSession, aiGameMode);
+
+			game.close();
+
+			assertThat(opponent.cancelled.await(5, TimeUnit.SECONDS)).isTrue();
+			assertThat(opponent.searching).isTrue();
+			assertThat(table.getMoveCount()).isEqualTo(moveCount);
+			assertThat(undoneTurns).isEmpty();
+		} finally {
+			opponent.exit.countDown();
+			searchExecutor.shutdownNow();
+		}
+	}
+
+	private void runScheduled() {
+		while (!scheduledRuns.isEmpty()) {
+			scheduledRuns.remove(0).run();
+		}
+	}
+
+	static void assertFailsWithGameNotFound(CompletableFuture<?> request) {
+		assertThat(request.isCompletedExceptionally()).isTrue();
+		assertThatThrownBy(request::get).isInstanceOf(ExecutionException.class)
+				.hasCauseInstanceOf(GameNotFoundException.class);
+	}
+
+	/**
+	 * Opponent which searches until it is cancelled, and then takes its time to exit
+	 * the search until it is let go.
+	 */
+	private static final class StoppingOpponent implements AIGameOpponent {
+		final CountDownLatch started = new CountDownLatch(1);
+		final CountDownLatch exit = new CountDownLatch(1);
+		volatile boolean searching;
+		final CountDownLatch cancelled = new CountDownLatch(1);
+
+		@Override
+		public Position determineNextTurnPositionFor(Mark playerMark) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public Position determineNextTurnPositionFor(Mark playerMark, long deadline, CancellationToken token) {
+			searching = true;
+			started.countDown();
+			try {
+				while (!token.isCancelled()) {
+					Thread.yield();
+				}
+				cancelled.countDown();
+				exit.await(5, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			} finally {
+				searching = false;
+			}
+			return Position.NOT_FOUND;
+		}
+	}
+
+	private static final class UndoRecorder implements GameEventListener {
+		private final List<Position> undoneTurns;
+
+		UndoRecorder(List<Position> undoneTurns) {
+			this.undoneTurns = undoneTurns;
+		}
+
+		@Override
+		public void invalidTurnPosition(Position position) {
+		}
+
+		@Override
+		public void turnIsMade(Position position, Mark mark) {
+		}
+
+		@Override
+		public void turnIsUndone(Position position, Mark mark) {
+			undoneTurns.add(position);
+		}
+
+		@Override
+		public void winnerIsFound(Mark winner, Position[] winningCombination) {
+		}
+
+		@Override
+		public void draw() {
+		}
+	}
+}